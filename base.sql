@@ -1,3 +1,7 @@
+-- Schéma historique, figé : repris tel quel par route/src/main/resources/db/migration/V1__schema_initial.sql.
+-- Les évolutions du schéma sont des migrations Flyway versionnées (V2__..., V3__...) appliquées
+-- au démarrage de l'application ; ne plus modifier ce fichier.
+
 CREATE TABLE roles (
    id SERIAL PRIMARY KEY,
    nom VARCHAR(50) UNIQUE NOT NULL
@@ -0,0 +1,90 @@
+package com.projet.route.benchmarks;
+
+import com.projet.route.models.Entreprise;
+import com.projet.route.models.Lieux;
+import com.projet.route.models.Signalement;
+import com.projet.route.models.Travaux;
+import com.projet.route.repository.EntrepriseRepository;
+import com.projet.route.repository.LieuxRepository;
+import com.projet.route.repository.SignalementRepository;
+import com.projet.route.repository.TravauxRepository;
+import com.projet.route.service.TravauxService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TravauxService.updateAvancementBasedOnStatut (changement de statut depuis le back-office),
+ * transaction comprise : lecture seule quand l'avancement est déjà le bon, sinon mise à jour des
+ * travaux, historique et listeners d'entités (index en mémoire, bus d'événements).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvancementBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Jeu {
+
+        @Param({"1000"})
+        public int signalements;
+
+        TravauxService travauxService;
+        long[] ids;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            travauxService = ContexteApplication.bean(TravauxService.class);
+            TravauxRepository travauxRepository = ContexteApplication.bean(TravauxRepository.class);
+            SignalementRepository signalementRepository = ContexteApplication.bean(SignalementRepository.class);
+
+            Lieux lieux = ContexteApplication.bean(LieuxRepository.class).save(DonneesSynthetiques.lieux());
+            Entreprise entreprise = ContexteApplication.bean(EntrepriseRepository.class).save(new Entreprise("Colas Madagascar"));
+            List<Signalement> generated = DonneesSynthetiques.signalements(signalements, lieux);
+            // Sans firestoreId (unique) : plusieurs essais possibles dans la même JVM (-f 0)
+            generated.forEach(signalement -> signalement.setFirestoreId(null));
+            List<Signalement> saved = signalementRepository.saveAll(generated);
+            List<Travaux> travaux = DonneesSynthetiques.travaux(saved, entreprise);
+            travaux.forEach(t -> t.setFirestoreId(null));
+            travauxRepository.saveAll(travaux);
+
+            ids = new long[saved.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = saved.get(i).getIdSignalement();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Curseur {
+        int next;
+    }
+
+    // Avancement initial à 0 : "nouveau" ne modifie rien
+    @Benchmark
+    public void statutInchange(Jeu jeu, Curseur curseur) {
+        jeu.travauxService.updateAvancementBasedOnStatut(jeu.ids[curseur.next++ % jeu.ids.length], "nouveau");
+    }
+
+    // Alterne "en cours" / "terminé" à chaque passage sur un même signalement : une écriture par appel
+    @Benchmark
+    public void statutModifie(Jeu jeu, Curseur curseur) {
+        int n = curseur.next++;
+        String statut = (n / jeu.ids.length) % 2 == 0 ? "en cours" : "terminé";
+        jeu.travauxService.updateAvancementBasedOnStatut(jeu.ids[n % jeu.ids.length], statut);
+    }
+}
@@ -0,0 +1,126 @@
+package com.projet.route.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Point d'entrée des benchmarks : options JMH habituelles en arguments, résultats JSON par
+ * défaut dans {@code jmh.result}. Avec {@code jmh.baseline} (un JSON produit précédemment),
+ * chaque score est comparé à la référence et le code de sortie vaut 1 si l'un se dégrade de
+ * plus de {@code jmh.tolerance} (0.10 = 10 %), si un benchmark de la référence manque au
+ * run courant (benchmark en erreur, renommé, filtré) ou si l'un des deux fichiers est vide.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        if (cmd.shouldHelp()) {
+            cmd.showHelp();
+            return;
+        }
+        if (cmd.shouldList()) {
+            new Runner(cmd).list();
+            return;
+        }
+
+        String result = property("jmh.result", "target/jmh-result.json");
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(cmd);
+        // -rf / -rff explicites prioritaires
+        if (!cmd.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cmd.getResult().hasValue()) {
+            options.result(result);
+        }
+        new Runner(options.build()).run();
+
+        int failures = 0;
+        String baseline = property("jmh.baseline", "");
+        if (!baseline.isEmpty()) {
+            String current = cmd.getResult().hasValue() ? cmd.getResult().get() : result;
+            failures = compare(new File(baseline), new File(current), Double.parseDouble(property("jmh.tolerance", "0.10")));
+        }
+        // Sortie explicite : avec -f 0, le contexte Spring (Tomcat) garde la JVM en vie
+        System.exit(failures > 0 ? 1 : 0);
+    }
+
+    /**
+     * Compare deux fichiers de résultats JSON de JMH, benchmark par benchmark (paramètres compris).
+     * Renvoie le nombre d'échecs : régressions au-delà de la tolérance, benchmarks de la référence
+     * absents du run courant, plus un par fichier sans résultat.
+     */
+    static int compare(File baseline, File current, double tolerance) {
+        ObjectMapper mapper = JsonMapper.builder().build();
+        Map<String, JsonNode> reference = index(mapper.readTree(baseline));
+        Map<String, JsonNode> results = index(mapper.readTree(current));
+        int failures = 0;
+        if (reference.isEmpty()) {
+            System.out.printf("VIDE       référence %s : aucun résultat à comparer%n", baseline);
+            failures++;
+        }
+        if (results.isEmpty()) {
+            System.out.printf("VIDE       run courant %s : aucun benchmark n'a produit de résultat%n", current);
+            failures++;
+        }
+        for (String key : reference.keySet()) {
+            if (!results.containsKey(key)) {
+                System.out.printf("MANQUANT   %s%n", key);
+                failures++;
+            }
+        }
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : results.entrySet()) {
+            JsonNode before = reference.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("NOUVEAU    %s%n", entry.getKey());
+                continue;
+            }
+            double old = before.path("primaryMetric").path("score").asDouble();
+            double now = entry.getValue().path("primaryMetric").path("score").asDouble();
+            String unit = entry.getValue().path("primaryMetric").path("scoreUnit").asString();
+            // Débit (thrpt) : plus haut vaut mieux ; temps (avgt, sample, ss) : plus bas vaut mieux
+            boolean higherIsBetter = "thrpt".equals(entry.getValue().path("mode").asString());
+            double change = old == 0 ? 0 : (now - old) / old;
+            boolean regression = higherIsBetter ? change < -tolerance : change > tolerance;
+            if (regression) {
+                regressions++;
+            }
+            System.out.printf("%-10s %s : %.3f -> %.3f %s (%+.1f %%)%n",
+                    regression ? "REGRESSION" : "OK", entry.getKey(), old, now, unit, change * 100);
+        }
+        System.out.printf("%d régression(s), tolérance %.0f %%, %d autre(s) échec(s)%n", regressions, tolerance * 100, failures);
+        return regressions + failures;
+    }
+
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (int i = 0; i < results.size(); i++) {
+            JsonNode result = results.get(i);
+            String key = result.path("benchmark").asString();
+            if (result.has("params")) {
+                key += " " + result.get("params");
+            }
+            byKey.put(key, result);
+        }
+        return byKey;
+    }
+
+    // Propriété vide (-Djmh.baseline= depuis Maven) traitée comme absente
+    private static String property(String name, String defaultValue) {
+        String value = System.getProperty(name);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+}
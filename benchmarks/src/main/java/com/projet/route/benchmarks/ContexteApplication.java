@@ -0,0 +1,32 @@
+package com.projet.route.benchmarks;
+
+import com.projet.route.RouteApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Application complète (listeners d'entités, index en mémoire, cache de second niveau) démarrée
+ * une fois par JVM de benchmark sur la base H2 embarquée décrite dans benchmark.properties.
+ *
+ * Le contexte n'est jamais fermé entre deux benchmarks d'une même JVM (-f 0) : FirebaseApp ne
+ * peut être initialisée qu'une fois. Le hook d'arrêt de Spring le ferme à la sortie.
+ */
+final class ContexteApplication {
+
+    private static ConfigurableApplicationContext context;
+
+    private ContexteApplication() {
+    }
+
+    static synchronized ConfigurableApplicationContext get() {
+        if (context == null) {
+            // spring.config.name en argument : lu avant le chargement des fichiers de configuration
+            context = new SpringApplicationBuilder(RouteApplication.class).run("--spring.config.name=benchmark");
+        }
+        return context;
+    }
+
+    static <T> T bean(Class<T> type) {
+        return get().getBean(type);
+    }
+}
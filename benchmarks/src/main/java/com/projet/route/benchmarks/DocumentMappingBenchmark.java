@@ -0,0 +1,70 @@
+package com.projet.route.benchmarks;
+
+import com.projet.route.models.Signalement;
+import com.projet.route.models.Travaux;
+import com.projet.route.service.InMemorySyncSource;
+import com.projet.route.service.SyncDocument;
+import com.projet.route.service.SyncSource;
+import com.projet.route.service.mapping.SyncMappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion des documents Firestore importés par FirebaseSyncService (SyncMappers), sur les
+ * documents synthétiques d'InMemorySyncSource : types de coordonnées mélangés (Double, Long,
+ * String) et Timestamp. Sans base ni contexte Spring ; score par document.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DocumentMappingBenchmark {
+
+    private static final int DOCUMENTS = 10_000;
+
+    private final SyncMappers mappers = new SyncMappers();
+    private List<SyncDocument> signalements;
+    private List<SyncDocument> travaux;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        InMemorySyncSource source = new InMemorySyncSource();
+        source.generate(DOCUMENTS, DOCUMENTS, 42L);
+        signalements = source.fetchAll(SyncSource.SIGNALEMENTS);
+        travaux = source.fetchAll(SyncSource.TRAVAUX);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOCUMENTS)
+    public void signalements(Blackhole blackhole) {
+        for (SyncDocument doc : signalements) {
+            Signalement signalement = mappers.signalement().map(doc.getId(), doc.getData());
+            blackhole.consume(signalement);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOCUMENTS)
+    public void travaux(Blackhole blackhole) {
+        for (SyncDocument doc : travaux) {
+            Travaux t = mappers.travaux().map(doc.getId(), doc.getData());
+            blackhole.consume(t);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.projet.route.benchmarks;
+
+import com.projet.route.models.Entreprise;
+import com.projet.route.models.Lieux;
+import com.projet.route.models.Signalement;
+import com.projet.route.models.Travaux;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Signalements et travaux reproductibles (graine fixe) sur l'emprise d'Antananarivo.
+ */
+final class DonneesSynthetiques {
+
+    private static final String[] TYPES = {"nid-de-poule", "route-inondee", "route-endommagee", "signalisation-manquante", "eclairage-defectueux", "autre"};
+    private static final String[] STATUTS = {"nouveau", "en cours", "terminé"};
+
+    private DonneesSynthetiques() {
+    }
+
+    static List<Signalement> signalements(int count, Lieux lieux) {
+        Random random = new Random(42L);
+        List<Signalement> signalements = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Signalement signalement = new Signalement();
+            signalement.setLatitude(decimal(-18.98 + random.nextDouble() * 0.16, 6));
+            signalement.setLongitude(decimal(47.45 + random.nextDouble() * 0.15, 6));
+            signalement.setSurface(decimal(1 + random.nextDouble() * 50, 2));
+            signalement.setIdUser("user-" + random.nextInt(1000));
+            signalement.setTypeProbleme(TYPES[random.nextInt(TYPES.length)]);
+            signalement.setStatut(STATUTS[random.nextInt(STATUTS.length)]);
+            signalement.setDescription("Signalement synthétique " + i);
+            signalement.setDateAjoute(LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(random.nextInt(500_000)));
+            signalement.setFirestoreId(String.format("sig-%08d", i));
+            signalement.setLieux(lieux);
+            signalements.add(signalement);
+        }
+        return signalements;
+    }
+
+    static List<Travaux> travaux(List<Signalement> signalements, Entreprise entreprise) {
+        Random random = new Random(43L);
+        List<Travaux> travaux = new ArrayList<>(signalements.size());
+        for (int i = 0; i < signalements.size(); i++) {
+            Travaux t = new Travaux();
+            t.setSignalement(signalements.get(i));
+            t.setEntreprise(entreprise);
+            t.setBudget(decimal(100_000 + random.nextDouble() * 10_000_000, 2));
+            LocalDate debut = LocalDate.of(2025, 1, 1).plusDays(random.nextInt(300));
+            t.setDateDebutTravaux(debut);
+            t.setDateFinTravaux(debut.plusDays(1 + random.nextInt(120)));
+            t.setAvancement(BigDecimal.ZERO);
+            t.setFirestoreId(String.format("trv-%08d", i));
+            travaux.add(t);
+        }
+        return travaux;
+    }
+
+    static Lieux lieux() {
+        Lieux lieux = new Lieux();
+        lieux.setLibelle("Analakely");
+        lieux.setVille("Antananarivo");
+        lieux.setDescription("Quartier de benchmark");
+        return lieux;
+    }
+
+    private static BigDecimal decimal(double value, int scale) {
+        return BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,69 @@
+package com.projet.route.benchmarks;
+
+import com.projet.route.models.Entreprise;
+import com.projet.route.models.Lieux;
+import com.projet.route.models.Signalement;
+import com.projet.route.models.Travaux;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sérialisation JSON des listes renvoyées par /api/signalements et /api/travaux, avec
+ * l'ObjectMapper configuré par Spring Boot (celui des convertisseurs HTTP).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"100", "1000"})
+    public int taille;
+
+    private ObjectMapper objectMapper;
+    private List<Signalement> signalements;
+    private List<Travaux> travaux;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = ContexteApplication.bean(ObjectMapper.class);
+        Lieux lieux = DonneesSynthetiques.lieux();
+        lieux.setIdLieux(1L);
+        Entreprise entreprise = new Entreprise("Colas Madagascar");
+        entreprise.setIdEntreprise(1L);
+        signalements = DonneesSynthetiques.signalements(taille, lieux);
+        for (int i = 0; i < signalements.size(); i++) {
+            signalements.get(i).setIdSignalement((long) i + 1);
+        }
+        travaux = DonneesSynthetiques.travaux(signalements, entreprise);
+        for (int i = 0; i < travaux.size(); i++) {
+            travaux.get(i).setId((long) i + 1);
+        }
+    }
+
+    @Benchmark
+    public byte[] signalements() {
+        return objectMapper.writeValueAsBytes(signalements);
+    }
+
+    @Benchmark
+    public byte[] travaux() {
+        return objectMapper.writeValueAsBytes(travaux);
+    }
+}
@@ -0,0 +1,111 @@
+package com.projet.route.benchmarks;
+
+import com.projet.route.models.Role;
+import com.projet.route.models.Session;
+import com.projet.route.models.Utilisateur;
+import com.projet.route.repository.RoleRepository;
+import com.projet.route.repository.SessionRepository;
+import com.projet.route.repository.UtilisateurRepository;
+import com.projet.route.service.AuthService;
+import com.projet.route.service.UserDetailsServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authentification d'une requête telle que la fait JwtAuthenticationFilter :
+ * AuthService.validateSession puis UserDetailsServiceImpl.loadUserByUsername.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SessionBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Sessions {
+
+        @Param({"10000"})
+        public int utilisateurs;
+
+        AuthService authService;
+        UserDetailsServiceImpl userDetailsService;
+        String[] tokens;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            authService = ContexteApplication.bean(AuthService.class);
+            userDetailsService = ContexteApplication.bean(UserDetailsServiceImpl.class);
+            RoleRepository roleRepository = ContexteApplication.bean(RoleRepository.class);
+            UtilisateurRepository utilisateurRepository = ContexteApplication.bean(UtilisateurRepository.class);
+            SessionRepository sessionRepository = ContexteApplication.bean(SessionRepository.class);
+
+            Role role = roleRepository.findByNom("USER");
+            if (role == null) {
+                role = new Role();
+                role.setNom("USER");
+                role = roleRepository.save(role);
+            }
+            sessionRepository.deleteAllInBatch();
+            utilisateurRepository.deleteAllInBatch();
+
+            List<Utilisateur> users = new ArrayList<>(utilisateurs);
+            for (int i = 0; i < utilisateurs; i++) {
+                Utilisateur user = new Utilisateur();
+                user.setNomUtilisateur("bench-" + i);
+                user.setEmail("bench-" + i + "@route.mg");
+                user.setMotDePasse("motdepasse");
+                user.setRole(role);
+                users.add(user);
+            }
+            users = utilisateurRepository.saveAll(users);
+
+            List<Session> sessions = new ArrayList<>(utilisateurs);
+            tokens = new String[utilisateurs];
+            for (int i = 0; i < utilisateurs; i++) {
+                Session session = new Session();
+                session.setUtilisateur(users.get(i));
+                session.setToken("jeton-" + i);
+                session.setDateExpiration(LocalDateTime.now().plusDays(1));
+                session.setEstActive(true);
+                sessions.add(session);
+                tokens[i] = session.getToken();
+            }
+            sessionRepository.saveAll(sessions);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Curseur {
+        int next;
+    }
+
+    @Benchmark
+    public UserDetails sessionValide(Sessions sessions, Curseur curseur) {
+        String token = sessions.tokens[curseur.next++ % sessions.tokens.length];
+        Optional<Session> session = sessions.authService.validateSession(token);
+        return sessions.userDetailsService.loadUserByUsername(session.orElseThrow().getUtilisateur().getEmail());
+    }
+
+    @Benchmark
+    public Optional<Session> jetonInconnu(Sessions sessions) {
+        return sessions.authService.validateSession("jeton-inconnu");
+    }
+}
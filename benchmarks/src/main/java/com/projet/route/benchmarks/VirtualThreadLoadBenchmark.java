@@ -0,0 +1,135 @@
+package com.projet.route.benchmarks;
+
+import com.projet.route.RouteApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Requêtes HTTP simultanées contre l'application réelle quand Firebase répond lentement :
+ * threads de plateforme (Tomcat par défaut) ou threads virtuels (profil "virtual").
+ *
+ * L'application démarre comme pour les benchmarks JMH (benchmark.properties : base H2, port libre,
+ * source de synchronisation "memory") avec une latence injectée sur chaque appel à la source
+ * (sync.memory.latency-ms). Chaque requête GET /api/signalements/sync bloque sur deux lectures :
+ * les signalements sur le thread de la requête, les travaux sur applicationTaskExecutor. Toutes
+ * les requêtes partent d'un coup ; on mesure les réponses 200, les échecs (statut, délai de 60 s
+ * dépassé) et les latences vues par le client.
+ *
+ * Un mode par JVM : Tomcat et FirebaseApp sont configurés au démarrage. Le mode virtuel demande Java 21.
+ * mvn -pl benchmarks -am package -DskipTests
+ * mvn -pl benchmarks dependency:build-classpath -Dmdep.outputFile=cp.txt
+ * java -cp benchmarks/target/classes:$(cat benchmarks/cp.txt) com.projet.route.benchmarks.VirtualThreadLoadBenchmark plateforme|virtuel [requetes] [latence-ms]
+ *
+ * Client et serveur partagent la machine : comparer les deux modes entre eux, sur la même machine,
+ * pas les chiffres absolus à ceux d'un déploiement.
+ */
+public final class VirtualThreadLoadBenchmark {
+
+    private VirtualThreadLoadBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "plateforme";
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        long latencyMs = args.length > 2 ? Long.parseLong(args[2]) : 200;
+        if (!"plateforme".equals(mode) && !"virtuel".equals(mode)) {
+            System.err.println("Mode inconnu : " + mode + " (plateforme ou virtuel)");
+            System.exit(2);
+        }
+        boolean virtual = "virtuel".equals(mode);
+        if (virtual && Runtime.version().feature() < 21) {
+            System.err.printf("virtuel : Java 21 requis, Java %d ici%n", Runtime.version().feature());
+            System.exit(2);
+        }
+
+        List<String> options = new ArrayList<>(List.of("--spring.config.name=benchmark", "--sync.memory.latency-ms=" + latencyMs));
+        if (virtual) {
+            options.add("--spring.profiles.active=virtual");
+        }
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(RouteApplication.class)
+                .run(options.toArray(new String[0]));
+        // Petit pool pour le client : les threads comptés au pic sont surtout ceux du serveur
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(4);
+        try {
+            URI uri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + "/api/signalements/sync");
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .executor(clientExecutor)
+                    .build();
+            HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+
+            // Chauffe : une requête seule, qui doit réussir
+            int warmup = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (warmup != 200) {
+                throw new IllegalStateException("Requête de chauffe en échec : HTTP " + warmup);
+            }
+
+            System.out.printf("%s : %d requêtes simultanées sur %s, latence Firebase %d ms par lecture%n",
+                    mode, requests, uri.getPath(), latencyMs);
+            run(mode, client, request, requests);
+        } finally {
+            clientExecutor.shutdownNow();
+            context.close();
+        }
+        System.exit(0);
+    }
+
+    private static void run(String mode, HttpClient client, HttpRequest request, int requests) {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        threadBean.resetPeakThreadCount();
+        long[] latencies = new long[requests];
+        AtomicInteger served = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[requests];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            int index = i;
+            long submitted = System.nanoTime();
+            responses[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        if (error == null && response.statusCode() == 200) {
+                            latencies[index] = System.nanoTime() - submitted;
+                            served.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                        return null;
+                    });
+        }
+        CompletableFuture.allOf(responses).join();
+        long elapsed = System.nanoTime() - start;
+
+        long[] sorted = Arrays.stream(latencies).filter(l -> l > 0).sorted().toArray();
+        System.out.printf("%s : %d servies, %d échecs en %.1f s, %.0f req/s, p50 %.0f ms, p99 %.0f ms, max %.0f ms, "
+                        + "%d threads de plateforme au pic%n",
+                mode, served.get(), failed.get(), elapsed / 1e9, served.get() / (elapsed / 1e9),
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 1.0),
+                threadBean.getPeakThreadCount());
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
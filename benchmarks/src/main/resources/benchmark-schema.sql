@@ -0,0 +1,19 @@
+-- Tables écrites en JDBC par StatutEventStore / StatutProjectionService (hors entités JPA),
+-- reprises de base.sql sans les index PostgreSQL (BRIN)
+CREATE TABLE IF NOT EXISTS signalement_statut_evenement (
+   id BIGSERIAL PRIMARY KEY,
+   id_signalement INT NOT NULL,
+   ancien_statut VARCHAR(20),
+   nouveau_statut VARCHAR(20),
+   id_lieux INT,
+   acteur VARCHAR(255),
+   date_evenement TIMESTAMP NOT NULL,
+   date_enregistrement TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS statut_projection_snapshot (
+   id SERIAL PRIMARY KEY,
+   dernier_evenement BIGINT NOT NULL,
+   date_creation TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+   contenu TEXT NOT NULL
+);
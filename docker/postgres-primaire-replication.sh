@@ -0,0 +1,10 @@
+#!/bin/bash
+# Exécuté une fois à l'initialisation du primaire (docker-entrypoint-initdb.d) :
+# rôle de réplication et accès en streaming pour la réplique locale.
+set -e
+
+psql -v ON_ERROR_STOP=1 --username "$POSTGRES_USER" --dbname "$POSTGRES_DB" <<-EOSQL
+	CREATE ROLE replicateur WITH REPLICATION LOGIN PASSWORD 'replicateur';
+EOSQL
+
+echo "host replication replicateur all md5" >> "$PGDATA/pg_hba.conf"
@@ -0,0 +1,120 @@
+package com.projet.route.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tout passe par le primaire (spring.datasource.*), sauf les transactions en lecture seule
+ * déclarées sur une méthode de service, servies par les répliques (replicas.urls) : voir
+ * ReplicaRoutingTransactionManager. Les méthodes des repositories Spring Data appelées hors
+ * d'une telle transaction (findById avant un save, recherches par firestoreId de la
+ * synchronisation...) lisent donc le primaire, sans retard de réplication.
+ *
+ * La connexion n'est obtenue qu'à la première requête SQL, une fois la transaction ouverte et
+ * marquée : c'est ce qui permet de choisir la cible derrière LazyConnectionDataSourceProxy.
+ * Sans réplique configurée, tout passe par le primaire.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataSourceConfig.class);
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource primaryDataSource(@Value("${spring.datasource.url}") String url,
+                                              @Value("${spring.datasource.username}") String username,
+                                              @Value("${spring.datasource.password}") String password,
+                                              @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                                              @Value("${spring.datasource.hikari.connection-timeout:30000}") long connectionTimeoutMs) {
+        return pool("primaire", url, username, password, poolSize, connectionTimeoutMs);
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaDataSource replicaDataSource(HikariDataSource primaryDataSource,
+                                               @Value("${replicas.urls:}") String urls,
+                                               @Value("${replicas.username:${spring.datasource.username}}") String username,
+                                               @Value("${replicas.password:${spring.datasource.password}}") String password,
+                                               @Value("${replicas.pool-size:10}") int poolSize,
+                                               @Value("${replicas.max-lag-ms:1000}") long maxLagMs,
+                                               @Value("${spring.datasource.hikari.connection-timeout:30000}") long connectionTimeoutMs) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : urls.split(",")) {
+            if (!url.isBlank()) {
+                HikariDataSource replica = pool("replique-" + (replicas.size() + 1), url.trim(), username, password, poolSize, connectionTimeoutMs);
+                replica.setReadOnly(true);
+                replicas.add(replica);
+            }
+        }
+        ReplicaDataSource replicaDataSource = new ReplicaDataSource(primaryDataSource, replicas, maxLagMs);
+        if (replicaDataSource.hasReplicas()) {
+            // Premier contrôle avant de servir des lectures ; une réplique injoignable reste écartée
+            replicaDataSource.checkLag();
+            logger.info("Lectures routées vers {} réplique(s), retard max {} ms", replicas.size(), maxLagMs);
+        }
+        return replicaDataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        if (!replicaDataSource.hasReplicas()) {
+            return new LazyConnectionDataSourceProxy(primaryDataSource);
+        }
+        return new LazyConnectionDataSourceProxy(new RoutingDataSource(primaryDataSource, replicaDataSource));
+    }
+
+    @Bean
+    public ReplicaRoutingTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+                                                               @Value("${replicas.packages:com.projet.route.service,com.projet.route.services}") String packages) {
+        return new ReplicaRoutingTransactionManager(entityManagerFactory,
+                Arrays.stream(packages.split(",")).map(String::trim).filter(p -> !p.isEmpty()).toList());
+    }
+
+    // Cible choisie à l'obtention de la connexion physique, d'après la transaction courante
+    private static final class RoutingDataSource extends AbstractDataSource {
+        private final DataSource primary;
+        private final DataSource replicas;
+
+        RoutingDataSource(DataSource primary, DataSource replicas) {
+            this.primary = primary;
+            this.replicas = replicas;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return ReplicaRoutingTransactionManager.isReplicaRead() ? replicas.getConnection() : primary.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return ReplicaRoutingTransactionManager.isReplicaRead()
+                    ? replicas.getConnection(username, password) : primary.getConnection(username, password);
+        }
+    }
+
+    private static HikariDataSource pool(String name, String url, String username, String password, int poolSize,
+                                         long connectionTimeoutMs) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(poolSize);
+        dataSource.setConnectionTimeout(connectionTimeoutMs);
+        return dataSource;
+    }
+}
@@ -0,0 +1,180 @@
+package com.projet.route.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Connexions des transactions en lecture seule : réplique saine choisie à tour de rôle, repli sur
+ * le primaire si aucune n'est disponible. Une réplique est écartée quand son retard de rejeu
+ * dépasse replicas.max-lag-ms ou qu'elle ne répond plus, et réintégrée au contrôle suivant.
+ */
+public class ReplicaDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaDataSource.class);
+
+    // Retard nul quand tout le WAL reçu est rejoué (primaire inactif), sinon âge de la dernière transaction rejouée
+    private static final String LAG_SQL = "SELECT pg_is_in_recovery(), "
+            + "CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 END";
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMs;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLong replis = new AtomicLong();
+
+    private static final class Replica {
+        final HikariDataSource dataSource;
+        final AtomicLong connexions = new AtomicLong();
+        volatile boolean disponible;
+        volatile long retardMs = -1;
+        volatile String erreur = "non vérifiée";
+
+        Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+
+    public ReplicaDataSource(HikariDataSource primary, List<HikariDataSource> replicas, long maxLagMs) {
+        this.primary = primary;
+        this.replicas = new ArrayList<>();
+        for (HikariDataSource replica : replicas) {
+            this.replicas.add(new Replica(replica));
+        }
+        this.maxLagMs = maxLagMs;
+    }
+
+    public boolean hasReplicas() {
+        return !replicas.isEmpty();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int n = replicas.size();
+        int start = n == 0 ? 0 : Math.floorMod(next.getAndIncrement(), n);
+        for (int i = 0; i < n; i++) {
+            Replica replica = replicas.get((start + i) % n);
+            if (!replica.disponible) {
+                continue;
+            }
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replica.connexions.incrementAndGet();
+                return connection;
+            } catch (SQLException | RuntimeException e) {
+                // RuntimeException : échec du démarrage du pool Hikari
+                replica.disponible = false;
+                replica.erreur = e.getMessage();
+                logger.warn("Réplique {} indisponible, écartée: {}", replica.dataSource.getPoolName(), e.getMessage());
+            }
+        }
+        replis.incrementAndGet();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLException("Identifiants fixés par la configuration des répliques");
+    }
+
+    @Scheduled(fixedDelayString = "${replicas.lag-check-ms:5000}")
+    public void checkLag() {
+        for (Replica replica : replicas) {
+            String nom = replica.dataSource.getPoolName();
+            boolean avant = replica.disponible;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(LAG_SQL)) {
+                rs.next();
+                boolean enRecuperation = rs.getBoolean(1);
+                double retard = rs.getDouble(2);
+                boolean retardConnu = !rs.wasNull();
+                replica.retardMs = retardConnu ? Math.round(retard) : -1;
+                if (!enRecuperation) {
+                    // Réplique promue : ses données divergent du primaire actuel
+                    replica.disponible = false;
+                    replica.erreur = "pas en récupération (promue ?)";
+                } else if (!retardConnu || replica.retardMs > maxLagMs) {
+                    replica.disponible = false;
+                    replica.erreur = retardConnu ? "retard " + replica.retardMs + " ms" : "retard inconnu";
+                } else {
+                    replica.disponible = true;
+                    replica.erreur = null;
+                }
+            } catch (SQLException | RuntimeException e) {
+                replica.disponible = false;
+                replica.retardMs = -1;
+                replica.erreur = e.getMessage();
+            }
+            if (avant != replica.disponible) {
+                if (replica.disponible) {
+                    logger.info("Réplique {} réintégrée (retard {} ms)", nom, replica.retardMs);
+                } else {
+                    logger.warn("Réplique {} écartée: {}", nom, replica.erreur);
+                }
+            }
+        }
+    }
+
+    /**
+     * État de chaque pool : disponibilité et retard des répliques, connexions servies,
+     * connexions actives, inactives et en attente (Hikari).
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("retardMaxMs", maxLagMs);
+        stats.put("replisSurPrimaire", replis.get());
+        stats.put("primaire", poolStats(primary));
+        List<Map<String, Object>> pools = new ArrayList<>();
+        for (Replica replica : replicas) {
+            Map<String, Object> pool = poolStats(replica.dataSource);
+            pool.put("disponible", replica.disponible);
+            pool.put("retardMs", replica.retardMs);
+            pool.put("connexionsServies", replica.connexions.get());
+            if (replica.erreur != null) {
+                pool.put("erreur", replica.erreur);
+            }
+            pools.add(pool);
+        }
+        stats.put("repliques", pools);
+        return stats;
+    }
+
+    private static Map<String, Object> poolStats(HikariDataSource dataSource) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pool", dataSource.getPoolName());
+        stats.put("url", dataSource.getJdbcUrl());
+        stats.put("taille", dataSource.getMaximumPoolSize());
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        // Pool pas encore démarré : aucune connexion demandée
+        if (pool != null) {
+            stats.put("actives", pool.getActiveConnections());
+            stats.put("inactives", pool.getIdleConnections());
+            stats.put("total", pool.getTotalConnections());
+            stats.put("enAttente", pool.getThreadsAwaitingConnection());
+        }
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            replica.dataSource.close();
+        }
+    }
+}
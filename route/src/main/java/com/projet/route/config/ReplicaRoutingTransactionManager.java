@@ -0,0 +1,85 @@
+package com.projet.route.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Gestionnaire de transactions JPA qui ne marque pour les répliques que les transactions en
+ * lecture seule ouvertes par une méthode de service, c'est-à-dire un
+ * {@code @Transactional(readOnly = true)} posé sur une classe des paquets replicas.packages.
+ * Le readOnly de classe de SimpleJpaRepository (findById, findAll... appelés hors transaction
+ * de service) et les lectures faites dans une transaction d'écriture restent sur le primaire.
+ */
+public class ReplicaRoutingTransactionManager extends JpaTransactionManager {
+
+    // Une entrée par transaction physique en cours sur le thread (REQUIRES_NEW empile)
+    private static final ThreadLocal<Deque<Boolean>> ROUTES = new ThreadLocal<>();
+
+    private final List<String> packages;
+
+    public ReplicaRoutingTransactionManager(EntityManagerFactory entityManagerFactory, List<String> packages) {
+        super(entityManagerFactory);
+        this.packages = packages;
+    }
+
+    /**
+     * Vrai si la transaction courante du thread peut lire sur une réplique.
+     */
+    public static boolean isReplicaRead() {
+        Deque<Boolean> routes = ROUTES.get();
+        return routes != null && Boolean.TRUE.equals(routes.peek());
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        Deque<Boolean> routes = ROUTES.get();
+        if (routes == null) {
+            routes = new ArrayDeque<>();
+            ROUTES.set(routes);
+        }
+        routes.push(definition.isReadOnly() && isServiceMethod(definition.getName()));
+        try {
+            super.doBegin(transaction, definition);
+        } catch (RuntimeException | Error e) {
+            pop();
+            throw e;
+        }
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        try {
+            super.doCleanupAfterCompletion(transaction);
+        } finally {
+            pop();
+        }
+    }
+
+    // Nom de la transaction déclarative : classe.méthode qualifiée
+    private boolean isServiceMethod(String name) {
+        if (name == null) {
+            return false;
+        }
+        for (String prefix : packages) {
+            if (name.startsWith(prefix + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void pop() {
+        Deque<Boolean> routes = ROUTES.get();
+        if (routes != null) {
+            routes.poll();
+        }
+        if (routes == null || routes.isEmpty()) {
+            ROUTES.remove();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.projet.route.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Mode threads virtuels (profil Spring "virtual", Java 21 requis) : Spring Boot sert alors les
+ * requêtes Tomcat, l'exécuteur de tâches (applicationTaskExecutor : lectures Firestore de la
+ * synchronisation, commits du writer regroupé) et le planificateur sur des threads virtuels ;
+ * le bus SSE fait de même pour sa diffusion.
+ *
+ * Les appels bloquants (verifyIdToken, ApiFuture.get(), JDBC) n'immobilisent plus un thread de
+ * plateforme. La base reste bornée par le pool Hikari : au-delà, les requêtes attendent une connexion.
+ */
+@Configuration
+public class VirtualThreadsConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean requested;
+
+    /**
+     * Vrai si les threads virtuels sont demandés et que la JVM les fournit.
+     */
+    public static boolean isSupported(boolean requested) {
+        return requested && Runtime.version().feature() >= 21;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logMode() {
+        if (isSupported(requested)) {
+            logger.info("Threads virtuels actifs : Tomcat, tâches, planificateur et diffusion SSE");
+        } else if (requested) {
+            // Spring Boot ignore alors spring.threads.virtual.enabled
+            logger.warn("Threads virtuels demandés mais indisponibles sur Java {} : threads de plateforme",
+                    Runtime.version().feature());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.projet.route.controller;
+
+import com.projet.route.models.AbonnementZone;
+import com.projet.route.repository.AbonnementZoneRepository;
+import com.projet.route.service.GeofenceService;
+import com.projet.route.service.notification.NotificationDispatcher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Abonnements à une zone : notification à chaque signalement créé ou modifié à l'intérieur.
+ * Création, liste et suppression sont réservées à un utilisateur authentifié et limitées
+ * à ses propres abonnements.
+ */
+@RestController
+@RequestMapping("/api/abonnements")
+@CrossOrigin(origins = "*")
+public class AbonnementController {
+
+    @Autowired
+    private GeofenceService geofenceService;
+
+    @Autowired
+    private AbonnementZoneRepository abonnementZoneRepository;
+
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+
+    @GetMapping
+    public ResponseEntity<List<AbonnementZone>> getAbonnements() {
+        String utilisateur = currentUser();
+        if (utilisateur == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(abonnementZoneRepository.findByProprietaire(utilisateur));
+    }
+
+    @PostMapping
+    public ResponseEntity<?> createAbonnement(@RequestBody AbonnementZone abonnement) {
+        String utilisateur = currentUser();
+        if (utilisateur == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        abonnement.setProprietaire(utilisateur);
+        try {
+            return ResponseEntity.ok(geofenceService.create(abonnement));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteAbonnement(@PathVariable Long id) {
+        String utilisateur = currentUser();
+        if (utilisateur == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        Optional<AbonnementZone> abonnement = abonnementZoneRepository.findById(id);
+        if (abonnement.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!utilisateur.equals(abonnement.get().getProprietaire())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return geofenceService.delete(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    // Zones contenant un point, pour vérifier une géométrie
+    @GetMapping("/match")
+    public List<Long> match(@RequestParam double lat, @RequestParam double lng) {
+        return geofenceService.match(lat, lng);
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        Map<String, Object> stats = notificationDispatcher.getStats();
+        stats.put("zones", geofenceService.size());
+        return ResponseEntity.ok(stats);
+    }
+
+    // E-mail de l'utilisateur authentifié par JwtAuthenticationFilter, ou null
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return authentication.getName();
+        }
+        return null;
+    }
+}
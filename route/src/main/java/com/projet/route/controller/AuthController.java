@@ -13,6 +13,7 @@ import com.projet.route.repository.RoleRepository;
 import com.projet.route.repository.SessionRepository;
 import com.projet.route.repository.UtilisateurRepository;
 import com.projet.route.service.AuthService;
+import com.projet.route.service.ReferenceCacheService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -38,15 +39,18 @@ public class AuthController {
     private final RoleRepository roleRepository;
     private final AuthService authService;
     private final ParametreAuthRepository parametreAuthRepository;
+    private final ReferenceCacheService referenceCacheService;
 
     public AuthController(UtilisateurRepository utilisateurRepository,
                          RoleRepository roleRepository,
                          AuthService authService,
-                         ParametreAuthRepository parametreAuthRepository) {
+                         ParametreAuthRepository parametreAuthRepository,
+                         ReferenceCacheService referenceCacheService) {
         this.utilisateurRepository = utilisateurRepository;
         this.roleRepository = roleRepository;
         this.authService = authService;
         this.parametreAuthRepository = parametreAuthRepository;
+        this.referenceCacheService = referenceCacheService;
     }
 
     @GetMapping("/users")
@@ -350,6 +354,7 @@ public class AuthController {
         ParametreAuth param = paramOpt.get();
         param.setValeur(request.getValeur());
         parametreAuthRepository.save(param);
+        referenceCacheService.evictParametre(cle);
 
         logger.info("Auth parameter {} updated to: {}", cle, request.getValeur());
         return ResponseEntity.ok("Parameter updated successfully");
@@ -0,0 +1,31 @@
+package com.projet.route.controller;
+
+import com.projet.route.service.ReferenceCacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Cache de second niveau des données de référence : taux de succès par région et vidage manuel.
+ */
+@RestController
+@RequestMapping("/api/cache")
+@CrossOrigin(origins = "*")
+public class CacheController {
+
+    @Autowired
+    private ReferenceCacheService referenceCacheService;
+
+    @GetMapping("/stats")
+    public Map<String, Object> getStats() {
+        return referenceCacheService.getStats();
+    }
+
+    @PostMapping("/evict")
+    public ResponseEntity<Map<String, Object>> evictAll() {
+        referenceCacheService.evictAll();
+        return ResponseEntity.ok(referenceCacheService.getStats());
+    }
+}
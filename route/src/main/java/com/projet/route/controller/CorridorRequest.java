@@ -0,0 +1,56 @@
+package com.projet.route.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Corps de POST /api/signalements/corridor : une LineString GeoJSON
+ * (coordonnées [longitude, latitude]) et une distance tampon en mètres.
+ */
+public class CorridorRequest {
+    private Map<String, Object> line;
+    private double buffer = 50;
+
+    public CorridorRequest() {}
+
+    public Map<String, Object> getLine() {
+        return line;
+    }
+
+    public void setLine(Map<String, Object> line) {
+        this.line = line;
+    }
+
+    public double getBuffer() {
+        return buffer;
+    }
+
+    public void setBuffer(double buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Sommets de la ligne en {latitude, longitude} ; lève IllegalArgumentException si ce n'est pas une LineString.
+     */
+    public List<double[]> toLatLngs() {
+        if (line == null || !"LineString".equals(line.get("type")) || !(line.get("coordinates") instanceof List)) {
+            throw new IllegalArgumentException("Une géométrie GeoJSON LineString est attendue");
+        }
+        List<?> coordinates = (List<?>) line.get("coordinates");
+        if (coordinates.size() < 2) {
+            throw new IllegalArgumentException("La ligne doit contenir au moins deux points");
+        }
+        List<double[]> result = new ArrayList<>(coordinates.size());
+        for (Object coordinate : coordinates) {
+            if (!(coordinate instanceof List) || ((List<?>) coordinate).size() < 2) {
+                throw new IllegalArgumentException("Coordonnée invalide: " + coordinate);
+            }
+            List<?> pair = (List<?>) coordinate;
+            double lng = ((Number) pair.get(0)).doubleValue();
+            double lat = ((Number) pair.get(1)).doubleValue();
+            result.add(new double[]{lat, lng});
+        }
+        return result;
+    }
+}
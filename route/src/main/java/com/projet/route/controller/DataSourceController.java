@@ -0,0 +1,31 @@
+package com.projet.route.controller;
+
+import com.projet.route.config.ReplicaDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * État des pools de connexions : primaire et répliques en lecture (retard, disponibilité).
+ */
+@RestController
+@RequestMapping("/api/datasources")
+@CrossOrigin(origins = "*")
+public class DataSourceController {
+
+    @Autowired
+    private ReplicaDataSource replicaDataSource;
+
+    @GetMapping("/stats")
+    public Map<String, Object> getStats() {
+        return replicaDataSource.getStats();
+    }
+
+    // Contrôle immédiat du retard des répliques, sans attendre le prochain passage planifié
+    @PostMapping("/verification")
+    public Map<String, Object> checkLag() {
+        replicaDataSource.checkLag();
+        return replicaDataSource.getStats();
+    }
+}
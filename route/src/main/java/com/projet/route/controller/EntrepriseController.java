@@ -2,6 +2,8 @@ package com.projet.route.controller;
 
 import com.projet.route.models.Entreprise;
 import com.projet.route.repository.EntrepriseRepository;
+import com.projet.route.service.EntrepriseAnalyticsService;
+import com.projet.route.service.EntrepriseStats;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -13,9 +15,12 @@ import java.util.List;
 public class EntrepriseController {
 
     private final EntrepriseRepository entrepriseRepository;
+    private final EntrepriseAnalyticsService entrepriseAnalyticsService;
 
-    public EntrepriseController(EntrepriseRepository entrepriseRepository) {
+    public EntrepriseController(EntrepriseRepository entrepriseRepository,
+                                EntrepriseAnalyticsService entrepriseAnalyticsService) {
         this.entrepriseRepository = entrepriseRepository;
+        this.entrepriseAnalyticsService = entrepriseAnalyticsService;
     }
 
     @GetMapping
@@ -28,4 +33,24 @@ public class EntrepriseController {
         Entreprise savedEntreprise = entrepriseRepository.save(entreprise);
         return ResponseEntity.ok(savedEntreprise);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/analytics")
+    public ResponseEntity<List<EntrepriseStats>> getAllAnalytics() {
+        return ResponseEntity.ok(entrepriseAnalyticsService.getAllStats());
+    }
+
+    @GetMapping("/{id}/analytics")
+    public ResponseEntity<EntrepriseStats> getAnalytics(@PathVariable Long id) {
+        EntrepriseStats stats = entrepriseAnalyticsService.getStats(id);
+        if (stats == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(stats);
+    }
+
+    @PostMapping("/analytics/refresh")
+    public ResponseEntity<List<EntrepriseStats>> refreshAnalytics() {
+        entrepriseAnalyticsService.refresh();
+        return ResponseEntity.ok(entrepriseAnalyticsService.getAllStats());
+    }
+}
@@ -0,0 +1,58 @@
+package com.projet.route.controller;
+
+import com.projet.route.service.ChangeEventBus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+/**
+ * Flux des changements de signalements et travaux pour la carte (Server-Sent Events),
+ * à la place du rechargement périodique de la liste complète.
+ */
+@RestController
+@RequestMapping("/api/evenements")
+@CrossOrigin(origins = "*")
+public class EvenementController {
+
+    @Autowired
+    private ChangeEventBus changeEventBus;
+
+    @Value("${evenements.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    /**
+     * Abonnement, optionnellement limité à une emprise. Reprise : en-tête Last-Event-ID
+     * (envoyé automatiquement par EventSource à la reconnexion) ou paramètre depuis.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe(@RequestParam(required = false) Double minLat,
+                                                @RequestParam(required = false) Double minLng,
+                                                @RequestParam(required = false) Double maxLat,
+                                                @RequestParam(required = false) Double maxLng,
+                                                @RequestParam(required = false) Long depuis,
+                                                @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        double[] viewport = null;
+        if (minLat != null && minLng != null && maxLat != null && maxLng != null) {
+            viewport = new double[]{minLat, minLng, maxLat, maxLng};
+        }
+        Long cursor = depuis;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                cursor = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        return ResponseEntity.ok(changeEventBus.subscribe(viewport, cursor, timeoutMs));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(changeEventBus.getStats());
+    }
+}
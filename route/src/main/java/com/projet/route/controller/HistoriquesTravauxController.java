@@ -2,11 +2,17 @@ package com.projet.route.controller;
 
 import com.projet.route.models.HistoriquesTravaux;
 import com.projet.route.repository.HistoriquesTravauxRepository;
+import com.projet.route.services.HistoriquesTravauxService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -14,17 +20,53 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class HistoriquesTravauxController {
 
+    private static final Map<String, String> PAS = Map.of(
+            "heure", "hour", "jour", "day", "semaine", "week", "mois", "month");
+
     @Autowired
     private HistoriquesTravauxRepository historiquesTravauxRepository;
 
+    @Autowired
+    private HistoriquesTravauxService historiquesTravauxService;
+
     @GetMapping
     public List<HistoriquesTravaux> getAllHistoriquesTravaux() {
-        return historiquesTravauxRepository.findAll();
+        return historiquesTravauxService.getAllHistoriquesTravaux();
+    }
+
+    /**
+     * Historique d'un travaux sur une fenêtre, éventuellement réduit au dernier état
+     * par période (pas = heure, jour, semaine ou mois).
+     */
+    @GetMapping("/travaux/{travauxId}")
+    public ResponseEntity<?> getHistoriqueByTravaux(@PathVariable Long travauxId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String pas) {
+        LocalDateTime start = from != null ? from : LocalDateTime.of(2000, 1, 1, 0, 0);
+        LocalDateTime end = to != null ? to : LocalDateTime.now().plusDays(1);
+        if (pas == null) {
+            return ResponseEntity.ok(historiquesTravauxService.getHistoriqueByTravaux(travauxId, start, end));
+        }
+        String unit = PAS.get(pas);
+        if (unit == null) {
+            return ResponseEntity.badRequest().body("Pas invalide. Doit être 'heure', 'jour', 'semaine' ou 'mois'");
+        }
+        List<Map<String, Object>> points = new ArrayList<>();
+        for (Object[] row : historiquesTravauxService.getDernierEtatParPeriode(travauxId, unit, start, end)) {
+            Map<String, Object> point = new LinkedHashMap<>();
+            point.put("periode", row[0]);
+            point.put("avancement", row[1]);
+            point.put("dateModification", row[2]);
+            point.put("commentaire", row[3]);
+            points.add(point);
+        }
+        return ResponseEntity.ok(points);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<HistoriquesTravaux> getHistoriquesTravauxById(@PathVariable Long id) {
-        Optional<HistoriquesTravaux> historiquesTravaux = historiquesTravauxRepository.findById(id);
+        Optional<HistoriquesTravaux> historiquesTravaux = historiquesTravauxRepository.findFirstById(id);
         if (historiquesTravaux.isPresent()) {
             return ResponseEntity.ok(historiquesTravaux.get());
         } else {
@@ -39,11 +81,11 @@ public class HistoriquesTravauxController {
 
     @PutMapping("/{id}")
     public ResponseEntity<HistoriquesTravaux> updateHistoriquesTravaux(@PathVariable Long id, @RequestBody HistoriquesTravaux historiquesTravauxDetails) {
-        Optional<HistoriquesTravaux> optionalHistoriquesTravaux = historiquesTravauxRepository.findById(id);
+        Optional<HistoriquesTravaux> optionalHistoriquesTravaux = historiquesTravauxRepository.findFirstById(id);
         if (optionalHistoriquesTravaux.isPresent()) {
             HistoriquesTravaux historiquesTravaux = optionalHistoriquesTravaux.get();
+            // date_modification fait partie de la clé primaire (et de partition) : elle n'est pas modifiée
             historiquesTravaux.setTravaux(historiquesTravauxDetails.getTravaux());
-            historiquesTravaux.setDateModification(historiquesTravauxDetails.getDateModification());
             historiquesTravaux.setAvancement(historiquesTravauxDetails.getAvancement());
             historiquesTravaux.setCommentaire(historiquesTravauxDetails.getCommentaire());
 
@@ -56,7 +98,7 @@ public class HistoriquesTravauxController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteHistoriquesTravaux(@PathVariable Long id) {
-        Optional<HistoriquesTravaux> historiquesTravaux = historiquesTravauxRepository.findById(id);
+        Optional<HistoriquesTravaux> historiquesTravaux = historiquesTravauxRepository.findFirstById(id);
         if (historiquesTravaux.isPresent()) {
             historiquesTravauxRepository.delete(historiquesTravaux.get());
             return ResponseEntity.noContent().build();
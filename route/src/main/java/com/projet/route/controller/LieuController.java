@@ -2,13 +2,16 @@ package com.projet.route.controller;
 
 
 import com.projet.route.models.Lieu;
+import com.projet.route.service.ReverseGeocodingService;
 import com.projet.route.services.LieuService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/lieux")
@@ -17,12 +20,22 @@ public class LieuController {
     @Autowired
     private LieuService lieuService;
     
+    @Autowired
+    private ReverseGeocodingService reverseGeocodingService;
+    
     @GetMapping
     public ResponseEntity<List<Lieu>> getAllLieux() {
         List<Lieu> lieux = lieuService.getAllLieux();
         return new ResponseEntity<>(lieux, HttpStatus.OK);
     }
     
+    // Autocomplétion : au plus 20 lieux, classés, insensible aux accents
+    @GetMapping("/suggest")
+    public ResponseEntity<List<Map<String, Object>>> suggest(@RequestParam String q,
+                                                            @RequestParam(defaultValue = "10") int limit) {
+        return new ResponseEntity<>(lieuService.suggest(q, limit), HttpStatus.OK);
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<Lieu> getLieuById(@PathVariable Long id) {
         return lieuService.getLieuById(id)
@@ -57,4 +70,31 @@ public class LieuController {
         List<Lieu> lieux = lieuService.getLieuxByVille(ville);
         return new ResponseEntity<>(lieux, HttpStatus.OK);
     }
+    
+    @GetMapping("/geocodage")
+    public ResponseEntity<Map<String, Object>> getGeocodageStats() {
+        return new ResponseEntity<>(reverseGeocodingService.getStats(), HttpStatus.OK);
+    }
+    
+    @GetMapping("/geocodage/point")
+    public ResponseEntity<Lieu> locate(@RequestParam double lat, @RequestParam double lng) {
+        Long idLieux = reverseGeocodingService.locate(lat, lng);
+        if (idLieux == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return lieuService.getLieuById(idLieux)
+                .map(lieu -> new ResponseEntity<>(lieu, HttpStatus.OK))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+    
+    // Recharge le fichier de quartiers puis rattache les signalements existants sans lieu
+    @PostMapping("/geocodage/backfill")
+    public ResponseEntity<Map<String, Object>> backfill() {
+        try {
+            reverseGeocodingService.reload();
+            return new ResponseEntity<>(reverseGeocodingService.backfill(), HttpStatus.OK);
+        } catch (IOException e) {
+            return new ResponseEntity<>(Map.of("erreur", e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
 }
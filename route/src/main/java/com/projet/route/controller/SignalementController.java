@@ -1,13 +1,29 @@
 package com.projet.route.controller;
 
 import com.projet.route.models.Signalement;
+import com.projet.route.models.Travaux;
 import com.projet.route.repository.SignalementRepository;
+import com.projet.route.repository.TravauxRepository;
+import com.projet.route.service.DuplicateDetectionService;
 import com.projet.route.service.FirebaseSyncService;
+import com.projet.route.service.HeatmapService;
+import com.projet.route.service.SignalementPriorityIndex;
+import com.projet.route.service.SignalementReadModel;
+import com.projet.route.service.SignalementSearchService;
+import com.projet.route.service.SignalementSpatialIndex;
+import com.projet.route.service.SignalementVue;
 import com.projet.route.service.TravauxService;
+import com.projet.route.service.mapping.SyncMappers;
+import com.projet.route.services.SignalementService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.Map;
@@ -20,15 +36,53 @@ public class SignalementController {
     @Autowired
     private SignalementRepository signalementRepository;
 
+    @Autowired
+    private SignalementService signalementService;
+
     @Autowired
     private FirebaseSyncService firebaseSyncService;
 
     @Autowired
     private TravauxService travauxService;
 
+    @Autowired
+    private SyncMappers syncMappers;
+
+    @Autowired
+    private SignalementSpatialIndex signalementSpatialIndex;
+
+    @Autowired
+    private TravauxRepository travauxRepository;
+
+    @Autowired
+    private DuplicateDetectionService duplicateDetectionService;
+
+    @Autowired
+    private HeatmapService heatmapService;
+
+    @Autowired
+    private SignalementSearchService signalementSearchService;
+
+    @Autowired
+    private SignalementPriorityIndex signalementPriorityIndex;
+
+    @Autowired
+    private SignalementReadModel signalementReadModel;
+
     @GetMapping
     public List<Signalement> getAllSignalements() {
-        return signalementRepository.findAll();
+        return signalementService.getAllSignalements();
+    }
+
+    /**
+     * Les {@code limite} signalements ouverts les plus récents.
+     */
+    @GetMapping("/ouverts")
+    public ResponseEntity<?> getSignalementsOuverts(@RequestParam(defaultValue = "50") int limite) {
+        if (limite < 1 || limite > 500) {
+            return ResponseEntity.badRequest().body("limite doit être comprise entre 1 et 500");
+        }
+        return ResponseEntity.ok(signalementService.getSignalementsOuverts(limite));
     }
 
     @GetMapping("/sync")
@@ -43,6 +97,178 @@ public class SignalementController {
         }
     }
 
+    /**
+     * Recherche plein texte dans les descriptions, avec extraits surlignés (&lt;mark&gt;).
+     * Filtres optionnels : statut et emprise (les quatre bornes ensemble).
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> search(@RequestParam String q,
+                                    @RequestParam(required = false) String statut,
+                                    @RequestParam(required = false) Double minLat,
+                                    @RequestParam(required = false) Double minLng,
+                                    @RequestParam(required = false) Double maxLat,
+                                    @RequestParam(required = false) Double maxLng,
+                                    @RequestParam(defaultValue = "20") int limit,
+                                    @RequestParam(defaultValue = "0") int offset) {
+        double[] bbox = null;
+        if (minLat != null || minLng != null || maxLat != null || maxLng != null) {
+            if (minLat == null || minLng == null || maxLat == null || maxLng == null) {
+                return ResponseEntity.badRequest().body("L'emprise demande minLat, minLng, maxLat et maxLng");
+            }
+            bbox = new double[]{minLat, minLng, maxLat, maxLng};
+        }
+        try {
+            return ResponseEntity.ok(signalementSearchService.search(q, statut, bbox, limit, offset));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Les k signalements ouverts les plus prioritaires (score de gravité décroissant).
+     */
+    @GetMapping("/priority")
+    public List<Map<String, Object>> getPriority(@RequestParam(defaultValue = "50") int k) {
+        Map<Long, Double> top = signalementPriorityIndex.top(k);
+        Map<Long, Signalement> signalements = new HashMap<>();
+        for (Signalement signalement : signalementService.getSignalementsByIds(top.keySet())) {
+            signalements.put(signalement.getIdSignalement(), signalement);
+        }
+        List<Map<String, Object>> result = new ArrayList<>(top.size());
+        for (Map.Entry<Long, Double> entry : top.entrySet()) {
+            Signalement signalement = signalements.get(entry.getKey());
+            if (signalement != null) {
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("score", Math.round(entry.getValue() * 1000) / 1000.0);
+                item.put("signalement", signalement);
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Signalements de la carte, servis par le modèle de lecture : coordonnées, statut, type et
+     * travaux avec leur entreprise, sans description. Emprise optionnelle (les quatre bornes ensemble).
+     */
+    @GetMapping("/carte")
+    public ResponseEntity<?> getCarte(@RequestParam(required = false) String statut,
+                                      @RequestParam(required = false) Double minLat,
+                                      @RequestParam(required = false) Double minLng,
+                                      @RequestParam(required = false) Double maxLat,
+                                      @RequestParam(required = false) Double maxLng) {
+        double[] bbox = null;
+        if (minLat != null || minLng != null || maxLat != null || maxLng != null) {
+            if (minLat == null || minLng == null || maxLat == null || maxLng == null) {
+                return ResponseEntity.badRequest().body("L'emprise demande minLat, minLng, maxLat et maxLng");
+            }
+            bbox = new double[]{minLat, minLng, maxLat, maxLng};
+        }
+        return ResponseEntity.ok(signalementReadModel.carte(bbox, statut));
+    }
+
+    /**
+     * Liste paginée du tableau de bord, du plus récent au plus ancien, servie par le modèle de lecture.
+     */
+    @GetMapping("/vue")
+    public ResponseEntity<?> getVue(@RequestParam(required = false) String statut,
+                                    @RequestParam(required = false) String type,
+                                    @RequestParam(defaultValue = "0") int page,
+                                    @RequestParam(defaultValue = "50") int taille) {
+        try {
+            return ResponseEntity.ok(signalementReadModel.liste(statut, type, page, taille));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/vue/{id:\\d+}")
+    public ResponseEntity<SignalementVue> getVueById(@PathVariable Long id) {
+        SignalementVue vue = signalementReadModel.get(id);
+        if (vue == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(vue);
+    }
+
+    // Taille et empreinte mémoire par ligne du modèle de lecture
+    @GetMapping("/vue/stats")
+    public Map<String, Object> getVueStats() {
+        return signalementReadModel.getStats();
+    }
+
+    @PostMapping("/vue/reconstruction")
+    public ResponseEntity<Map<String, Object>> rebuildVue() {
+        signalementReadModel.rebuild();
+        return ResponseEntity.ok(signalementReadModel.getStats());
+    }
+
+    // Comparaison ligne à ligne du modèle de lecture avec la base
+    @GetMapping("/vue/verification")
+    public Map<String, Object> verifyVue() {
+        return signalementReadModel.verify();
+    }
+
+    @GetMapping("/sync/stats")
+    public ResponseEntity<Map<String, Object>> getSyncStats() {
+        Map<String, Object> stats = new HashMap<>();
+        for (var mapper : List.of(syncMappers.signalement(), syncMappers.travaux())) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("mapped", mapper.getStats().getMapped());
+            entry.put("rejected", mapper.getStats().getRejected());
+            entry.put("fieldErrors", mapper.getStats().getFieldErrors());
+            stats.put(mapper.getName(), entry);
+        }
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Signalements (et leurs travaux) à moins de {@code buffer} mètres d'une LineString GeoJSON,
+     * ordonnés le long de la ligne.
+     */
+    @PostMapping("/corridor")
+    public ResponseEntity<?> getCorridor(@RequestBody CorridorRequest request) {
+        List<double[]> line;
+        try {
+            line = request.toLatLngs();
+        } catch (IllegalArgumentException | ClassCastException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        List<SignalementSpatialIndex.CorridorHit> hits;
+        try {
+            hits = signalementSpatialIndex.corridor(line, request.getBuffer());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        List<Long> ids = new ArrayList<>(hits.size());
+        for (SignalementSpatialIndex.CorridorHit hit : hits) {
+            ids.add(hit.getIdSignalement());
+        }
+        Map<Long, Signalement> signalements = new HashMap<>();
+        for (Signalement signalement : signalementRepository.findAllById(ids)) {
+            signalements.put(signalement.getIdSignalement(), signalement);
+        }
+        Map<Long, Travaux> travaux = new HashMap<>();
+        for (Travaux t : travauxRepository.findBySignalementIdSignalementIn(ids)) {
+            travaux.put(t.getSignalement().getIdSignalement(), t);
+        }
+
+        List<Map<String, Object>> result = new ArrayList<>(hits.size());
+        for (SignalementSpatialIndex.CorridorHit hit : hits) {
+            Signalement signalement = signalements.get(hit.getIdSignalement());
+            if (signalement == null) {
+                continue;
+            }
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("signalement", signalement);
+            entry.put("travaux", travaux.get(hit.getIdSignalement()));
+            entry.put("distance", Math.round(hit.getDistance() * 10) / 10.0);
+            entry.put("abscisse", Math.round(hit.getAbscisse() * 10) / 10.0);
+            result.add(entry);
+        }
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/{id:\\d+}")
     public ResponseEntity<Signalement> getSignalementById(@PathVariable Long id) {
         Optional<Signalement> signalement = signalementRepository.findById(id);
@@ -53,6 +279,85 @@ public class SignalementController {
         }
     }
 
+    /**
+     * Densité des signalements (pondérée par la surface) sur une fenêtre, en largeur x hauteur pixels.
+     * format=binary (défaut) : en-tête big-endian int largeur, int hauteur, int niveau, float max,
+     * puis les valeurs float ligne par ligne depuis le nord ; format=u8 : même en-tête puis un octet
+     * 0-255 par pixel, normalisé par max (prêt pour une image en niveaux de gris) ; format=json.
+     */
+    @GetMapping("/heatmap")
+    public ResponseEntity<?> getHeatmap(@RequestParam double minLat, @RequestParam double minLng,
+                                        @RequestParam double maxLat, @RequestParam double maxLng,
+                                        @RequestParam(defaultValue = "256") int largeur,
+                                        @RequestParam(defaultValue = "256") int hauteur,
+                                        @RequestParam(required = false) String statut,
+                                        @RequestParam(required = false) String typeProbleme,
+                                        @RequestParam(defaultValue = "binary") String format) {
+        HeatmapService.Matrix matrix;
+        try {
+            matrix = heatmapService.query(minLat, minLng, maxLat, maxLng, largeur, hauteur, statut, typeProbleme);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        if ("json".equals(format)) {
+            return ResponseEntity.ok(matrix);
+        }
+        float[] values = matrix.getValues();
+        boolean u8 = "u8".equals(format);
+        ByteBuffer buffer = ByteBuffer.allocate(16 + values.length * (u8 ? 1 : Float.BYTES));
+        buffer.putInt(matrix.getWidth()).putInt(matrix.getHeight()).putInt(matrix.getLevel()).putFloat(matrix.getMax());
+        for (float v : values) {
+            if (u8) {
+                buffer.put((byte) (matrix.getMax() == 0 ? 0 : Math.round(Math.max(0, v) / matrix.getMax() * 255)));
+            } else {
+                buffer.putFloat(v);
+            }
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_OCTET_STREAM).body(buffer.array());
+    }
+
+    @GetMapping("/heatmap/stats")
+    public ResponseEntity<Map<String, Object>> getHeatmapStats() {
+        return ResponseEntity.ok(heatmapService.getStats());
+    }
+
+    /**
+     * Doublons d'un signalement : ceux déjà rattachés et les candidats proches du même type.
+     */
+    @GetMapping("/{id:\\d+}/doublons")
+    public ResponseEntity<Map<String, Object>> getDoublons(@PathVariable Long id) {
+        Optional<Signalement> signalement = signalementRepository.findById(id);
+        if (!signalement.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        List<Map<String, Object>> candidats = new ArrayList<>();
+        for (SignalementSpatialIndex.Neighbour neighbour : duplicateDetectionService.findCandidates(signalement.get())) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("idSignalement", neighbour.getIdSignalement());
+            entry.put("distance", Math.round(neighbour.getDistance() * 10) / 10.0);
+            candidats.add(entry);
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("original", signalement.get().getIdDoublon());
+        result.put("rattaches", signalementRepository.findByIdDoublon(id));
+        result.put("candidats", candidats);
+        result.put("rayon", duplicateDetectionService.radiusFor(signalement.get().getTypeProbleme()));
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/{id}/fusion")
+    public ResponseEntity<?> fusionner(@PathVariable Long id, @RequestBody Map<String, Long> body) {
+        Long cible = body.get("cible");
+        if (cible == null) {
+            return ResponseEntity.badRequest().body("Le champ 'cible' est requis");
+        }
+        try {
+            return ResponseEntity.ok(duplicateDetectionService.merge(id, cible));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @PutMapping("/{id}/statut")
     public ResponseEntity<String> updateStatut(@PathVariable Long id, @RequestBody Map<String, String> body) {
         try {
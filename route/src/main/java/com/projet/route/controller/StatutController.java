@@ -0,0 +1,60 @@
+package com.projet.route.controller;
+
+import com.projet.route.service.StatutEventStore;
+import com.projet.route.service.StatutProjectionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Historique des statuts des signalements et indicateurs tirés de sa projection.
+ */
+@RestController
+@RequestMapping("/api/statuts")
+@CrossOrigin(origins = "*")
+public class StatutController {
+
+    @Autowired
+    private StatutEventStore statutEventStore;
+
+    @Autowired
+    private StatutProjectionService statutProjectionService;
+
+    // Transitions d'un signalement et temps passé dans chaque statut
+    @GetMapping("/signalements/{id}")
+    public ResponseEntity<Map<String, Object>> getHistorique(@PathVariable Long id) {
+        List<Map<String, Object>> evenements = statutEventStore.history(id);
+        if (evenements.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("evenements", evenements);
+        result.put("projection", statutProjectionService.durations(id));
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/durees")
+    public Map<String, Object> getDureesMoyennes() {
+        return statutProjectionService.meanTimeInStatut();
+    }
+
+    @GetMapping("/resolution-par-lieu")
+    public List<Map<String, Object>> getResolutionParLieu() {
+        return statutProjectionService.meanTimeToResolutionByLieu();
+    }
+
+    @PostMapping("/snapshot")
+    public ResponseEntity<Map<String, Object>> snapshot() {
+        statutProjectionService.snapshot();
+        return ResponseEntity.ok(statutProjectionService.getStats());
+    }
+
+    @GetMapping("/stats")
+    public Map<String, Object> getStats() {
+        return statutProjectionService.getStats();
+    }
+}
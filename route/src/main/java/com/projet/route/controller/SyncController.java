@@ -0,0 +1,67 @@
+package com.projet.route.controller;
+
+import com.projet.route.models.SyncDeadLetter;
+import com.projet.route.service.CoalescingFirestoreWriter;
+import com.projet.route.service.DeadLetterService;
+import com.projet.route.service.FirebaseSyncService;
+import com.projet.route.service.ReconciliationReport;
+import com.projet.route.service.SyncReconciliationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/sync")
+@CrossOrigin(origins = "*")
+public class SyncController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncController.class);
+
+    @Autowired
+    private SyncReconciliationService syncReconciliationService;
+
+    @Autowired
+    private FirebaseSyncService firebaseSyncService;
+
+    @Autowired
+    private DeadLetterService deadLetterService;
+
+    @Autowired
+    private CoalescingFirestoreWriter coalescingFirestoreWriter;
+
+    @PostMapping("/reconcile")
+    public ResponseEntity<?> reconcile(@RequestParam(defaultValue = "false") boolean repair) {
+        try {
+            ReconciliationReport report = syncReconciliationService.reconcile(repair);
+            return ResponseEntity.ok(report);
+        } catch (Exception e) {
+            logger.error("Echec de la réconciliation (repair={})", repair, e);
+            return ResponseEntity.internalServerError().body("Erreur lors de la réconciliation: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/dead-letters")
+    public List<SyncDeadLetter> getDeadLetters(@RequestParam(defaultValue = "100") int limit) {
+        return deadLetterService.getPending(Math.min(limit, 1000));
+    }
+
+    @PostMapping("/dead-letters/replay")
+    public ResponseEntity<Map<String, Object>> replayDeadLetters(@RequestParam(defaultValue = "500") int limit) {
+        int resolved = firebaseSyncService.replayDeadLetters(Math.min(limit, 5000));
+        Map<String, Object> result = new HashMap<>();
+        result.put("resolved", resolved);
+        result.put("pending", deadLetterService.countPending());
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/writer/stats")
+    public Map<String, Object> getWriterStats() {
+        return coalescingFirestoreWriter.getStats();
+    }
+}
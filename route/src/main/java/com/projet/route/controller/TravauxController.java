@@ -5,30 +5,64 @@ import com.projet.route.models.HistoriquesTravaux;
 import com.projet.route.repository.TravauxRepository;
 import com.projet.route.repository.HistoriquesTravauxRepository;
 import com.projet.route.service.FirebaseSyncService;
+import com.projet.route.service.TimelinePoint;
+import com.projet.route.service.TimelineService;
+import com.projet.route.service.TravauxScheduleIndex;
+import com.projet.route.services.TravauxService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/travaux")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = TravauxController.CONFLITS_HEADER)
 public class TravauxController {
 
+    // Autres travaux de la même entreprise dont la période chevauche celle enregistrée
+    static final String CONFLITS_HEADER = "X-Conflits-Planning";
+
     @Autowired
     private TravauxRepository travauxRepository;
 
     @Autowired
     private HistoriquesTravauxRepository historiquesTravauxRepository;
 
+    @Autowired
+    private TravauxService travauxService;
+
     @Autowired
     private FirebaseSyncService firebaseSyncService;
 
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private TravauxScheduleIndex travauxScheduleIndex;
+
     @GetMapping
     public List<Travaux> getAllTravaux() {
-        return travauxRepository.findAll();
+        return travauxService.getAllTravaux();
+    }
+
+    @GetMapping("/chevauchements")
+    public List<Travaux> getChevauchements(@RequestParam Long entreprise,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return travauxRepository.findAllById(travauxScheduleIndex.findOverlapping(entreprise, from, to));
+    }
+
+    @GetMapping("/en-retard")
+    public List<Travaux> getTravauxEnRetard(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return travauxRepository.findAllById(travauxScheduleIndex.findOverdue(date != null ? date : LocalDate.now()));
     }
 
     @GetMapping("/{id}")
@@ -42,7 +76,7 @@ public class TravauxController {
     }
 
     @PostMapping
-    public Travaux createTravaux(@RequestBody Travaux travaux) {
+    public ResponseEntity<Travaux> createTravaux(@RequestBody Travaux travaux) {
         Travaux savedTravaux = travauxRepository.save(travaux);
 
         // Try to sync to Firestore
@@ -53,7 +87,7 @@ public class TravauxController {
             System.err.println("Failed to sync travaux to Firestore: " + e.getMessage());
         }
 
-        return savedTravaux;
+        return withConflicts(savedTravaux);
     }
 
     @PutMapping("/{id}")
@@ -78,7 +112,7 @@ public class TravauxController {
                 System.err.println("Failed to sync travaux to Firestore: " + e.getMessage());
             }
 
-            return ResponseEntity.ok(updatedTravaux);
+            return withConflicts(updatedTravaux);
         } else {
             return ResponseEntity.notFound().build();
         }
@@ -95,6 +129,19 @@ public class TravauxController {
         }
     }
 
+    @GetMapping("/{id}/timeline")
+    public ResponseEntity<List<TimelinePoint>> getTimeline(@PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "200") int points) {
+        if (!travauxRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        LocalDateTime start = from != null ? from : LocalDateTime.of(2000, 1, 1, 0, 0);
+        LocalDateTime end = to != null ? to : LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+        return ResponseEntity.ok(timelineService.getTimeline(id, start, end, Math.max(2, Math.min(points, 5000))));
+    }
+
     @PostMapping("/{id}/historique")
     public HistoriquesTravaux addHistorique(@PathVariable Long id, @RequestBody HistoriquesTravaux historique) {
         Optional<Travaux> travaux = travauxRepository.findById(id);
@@ -114,4 +161,14 @@ public class TravauxController {
         }
         return null;
     }
-}
\ No newline at end of file
+
+    // Le planning est enregistré même en cas de chevauchement ; le client est prévenu par l'en-tête
+    private ResponseEntity<Travaux> withConflicts(Travaux travaux) {
+        List<Long> conflicts = travauxScheduleIndex.findConflicts(travaux);
+        if (conflicts.isEmpty()) {
+            return ResponseEntity.ok(travaux);
+        }
+        String ids = conflicts.stream().map(String::valueOf).collect(Collectors.joining(","));
+        return ResponseEntity.ok().header(CONFLITS_HEADER, ids).body(travaux);
+    }
+}
@@ -1,7 +1,7 @@
 package com.projet.route.controller;
 
 import com.projet.route.models.Signalement;
-import com.projet.route.repository.SignalementRepository;
+import com.projet.route.services.SignalementService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -13,11 +13,11 @@ import java.util.List;
 public class VisitorController {
 
     @Autowired
-    private SignalementRepository signalementRepository;
+    private SignalementService signalementService;
 
     @GetMapping("/visitors")
     public String showMap(Model model) {
-        List<Signalement> signalements = signalementRepository.findAll();
+        List<Signalement> signalements = signalementService.getAllSignalements();
         model.addAttribute("signalements", signalements);
         return "visitor-map";
     }
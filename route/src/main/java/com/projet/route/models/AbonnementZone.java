@@ -0,0 +1,78 @@
+package com.projet.route.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Zone surveillée par un abonné : cercle (centre + rayon en mètres) ou polygone
+ * (coordonnées GeoJSON [[lng, lat], ...] en JSON). Chaque signalement créé ou modifié
+ * dans la zone donne lieu à une notification sur le canal choisi. Le destinataire est
+ * accepté en entrée mais jamais renvoyé.
+ */
+@Entity
+@Table(name = "abonnement_zone")
+public class AbonnementZone {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(length = 100)
+    private String nom;
+
+    // Jeton FCM, adresse e-mail ou identifiant, selon le canal
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    @Column(nullable = false)
+    private String destinataire;
+
+    // Utilisateur authentifié ayant créé l'abonnement (e-mail), seul à pouvoir le lister ou le supprimer
+    @JsonIgnore
+    @Column(length = 255)
+    private String proprietaire;
+
+    @Column(nullable = false, length = 20)
+    private String canal = "log";
+
+    @Column(name = "centre_latitude")
+    private Double centreLatitude;
+
+    @Column(name = "centre_longitude")
+    private Double centreLongitude;
+
+    // Rayon en mètres, pour un cercle
+    private Double rayon;
+
+    @Column(columnDefinition = "TEXT")
+    private String polygone;
+
+    @Column(nullable = false)
+    private Boolean actif = true;
+
+    @Column(name = "date_creation", nullable = false)
+    private LocalDateTime dateCreation = LocalDateTime.now();
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getNom() { return nom; }
+    public void setNom(String nom) { this.nom = nom; }
+    public String getDestinataire() { return destinataire; }
+    public void setDestinataire(String destinataire) { this.destinataire = destinataire; }
+    public String getProprietaire() { return proprietaire; }
+    public void setProprietaire(String proprietaire) { this.proprietaire = proprietaire; }
+    public String getCanal() { return canal; }
+    public void setCanal(String canal) { this.canal = canal; }
+    public Double getCentreLatitude() { return centreLatitude; }
+    public void setCentreLatitude(Double centreLatitude) { this.centreLatitude = centreLatitude; }
+    public Double getCentreLongitude() { return centreLongitude; }
+    public void setCentreLongitude(Double centreLongitude) { this.centreLongitude = centreLongitude; }
+    public Double getRayon() { return rayon; }
+    public void setRayon(Double rayon) { this.rayon = rayon; }
+    public String getPolygone() { return polygone; }
+    public void setPolygone(String polygone) { this.polygone = polygone; }
+    public Boolean getActif() { return actif; }
+    public void setActif(Boolean actif) { this.actif = actif; }
+    public LocalDateTime getDateCreation() { return dateCreation; }
+    public void setDateCreation(LocalDateTime dateCreation) { this.dateCreation = dateCreation; }
+}
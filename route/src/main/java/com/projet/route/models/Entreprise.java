@@ -1,9 +1,14 @@
 package com.projet.route.models;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "entreprise")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "entreprise")
+@EntityListeners(EntrepriseListener.class)
 public class Entreprise {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,33 @@
+package com.projet.route.models;
+
+import com.projet.route.service.SignalementReadModel;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * Propage les noms d'entreprise au modèle de lecture, quel que soit le chemin d'écriture.
+ * Instancié par Hibernate via le conteneur de beans Spring.
+ */
+public class EntrepriseListener {
+
+    private final SignalementReadModel signalementReadModel;
+
+    @Autowired
+    public EntrepriseListener(@Lazy SignalementReadModel signalementReadModel) {
+        this.signalementReadModel = signalementReadModel;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Entreprise entreprise) {
+        signalementReadModel.onEntrepriseSaved(entreprise);
+    }
+
+    @PostRemove
+    public void onRemove(Entreprise entreprise) {
+        signalementReadModel.onEntrepriseDeleted(entreprise.getIdEntreprise());
+    }
+}
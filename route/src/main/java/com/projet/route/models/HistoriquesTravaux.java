@@ -1,21 +1,30 @@
 package com.projet.route.models;
 
 import jakarta.persistence.*;
+import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Objects;
 
+// Clé primaire (id, date_modification) : la table est partitionnée sur date_modification
 @Entity
 @Table(name = "historiques_travaux")
+@IdClass(HistoriquesTravaux.Cle.class)
+@EntityListeners(HistoriquesTravauxListener.class)
 public class HistoriquesTravaux {
+    // Séquence de la colonne BIGSERIAL : IDENTITY n'est pas possible dans une clé composée
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "historiques_travaux_id")
+    @SequenceGenerator(name = "historiques_travaux_id", sequenceName = "historiques_travaux_id_seq", allocationSize = 1)
     private Long id;
 
     @ManyToOne
     @JoinColumn(name = "id_travaux")
     private Travaux travaux;
 
-    @Column(name = "date_modification")
+    // Clé de partition de la table : jamais nulle
+    @Id
+    @Column(name = "date_modification", nullable = false)
     private LocalDateTime dateModification = LocalDateTime.now();
 
     @Column(precision = 5, scale = 2)
@@ -24,7 +33,8 @@ public class HistoriquesTravaux {
     @Column(columnDefinition = "TEXT")
     private String commentaire;
 
-    @Column(name = "firestore_id", unique = true)
+    // Pas de contrainte unique : sur une table partitionnée elle devrait inclure date_modification
+    @Column(name = "firestore_id")
     private String firestoreId;
 
     // Getters and setters
@@ -44,4 +54,30 @@ public class HistoriquesTravaux {
     public void setCommentaire(String commentaire) { this.commentaire = commentaire; }
     public String getFirestoreId() { return firestoreId; }
     public void setFirestoreId(String firestoreId) { this.firestoreId = firestoreId; }
-}
\ No newline at end of file
+
+    public static class Cle implements Serializable {
+        private Long id;
+        private LocalDateTime dateModification;
+
+        public Cle() {
+        }
+
+        public Cle(Long id, LocalDateTime dateModification) {
+            this.id = id;
+            this.dateModification = dateModification;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Cle)) return false;
+            Cle other = (Cle) o;
+            return Objects.equals(id, other.id) && Objects.equals(dateModification, other.dateModification);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, dateModification);
+        }
+    }
+}
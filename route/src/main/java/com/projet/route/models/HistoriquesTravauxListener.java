@@ -0,0 +1,32 @@
+package com.projet.route.models;
+
+import com.projet.route.service.TimelineService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * Invalide les courbes d'avancement en cache à chaque écriture d'historique,
+ * quel que soit le chemin (service, contrôleurs, import).
+ * Instancié par Hibernate via le conteneur de beans Spring.
+ */
+public class HistoriquesTravauxListener {
+
+    private final TimelineService timelineService;
+
+    @Autowired
+    public HistoriquesTravauxListener(@Lazy TimelineService timelineService) {
+        this.timelineService = timelineService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(HistoriquesTravaux historique) {
+        if (historique.getTravaux() != null) {
+            timelineService.invalidate(historique.getTravaux().getId());
+        }
+    }
+}
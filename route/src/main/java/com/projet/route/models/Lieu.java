@@ -1,10 +1,14 @@
 package com.projet.route.models;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.Objects;
 
 @Entity
 @Table(name = "lieux")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "lieu")
 public class Lieu {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
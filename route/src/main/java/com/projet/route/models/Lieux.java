@@ -1,18 +1,24 @@
 package com.projet.route.models;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "lieux")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "lieux")
 public class Lieux {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_lieux")
     private Long idLieux;
 
-    @Column(nullable = false)
+    @Column(nullable = false, length = 50)
     private String libelle;
 
+    @Column(length = 50)
     private String ville;
 
     @Column(columnDefinition = "TEXT")
@@ -1,9 +1,13 @@
 package com.projet.route.models;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "parametres_auth")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "parametre_auth")
 public class ParametreAuth {
     @Id
     @Column(length = 100)
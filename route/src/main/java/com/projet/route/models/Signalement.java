@@ -6,6 +6,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "signalement")
+@EntityListeners(SignalementListener.class)
 public class Signalement {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -41,6 +42,14 @@ public class Signalement {
     @Column(name = "firestore_id", unique = true)
     private String firestoreId;
 
+    // Signalement original dont celui-ci est un doublon (null sinon)
+    @Column(name = "id_doublon")
+    private Long idDoublon;
+
+    // Statut lu en base, pour détecter les transitions dans SignalementListener
+    @Transient
+    private String statutCharge;
+
     // Getters and setters
     public Long getIdSignalement() { return idSignalement; }
     public void setIdSignalement(Long idSignalement) { this.idSignalement = idSignalement; }
@@ -64,4 +73,8 @@ public class Signalement {
     public void setDescription(String description) { this.description = description; }
     public String getFirestoreId() { return firestoreId; }
     public void setFirestoreId(String firestoreId) { this.firestoreId = firestoreId; }
+    public Long getIdDoublon() { return idDoublon; }
+    public void setIdDoublon(Long idDoublon) { this.idDoublon = idDoublon; }
+    String getStatutCharge() { return statutCharge; }
+    void setStatutCharge(String statutCharge) { this.statutCharge = statutCharge; }
 }
\ No newline at end of file
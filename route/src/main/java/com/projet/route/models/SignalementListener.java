@@ -0,0 +1,89 @@
+package com.projet.route.models;
+
+import com.projet.route.service.ChangeEvent;
+import com.projet.route.service.ChangeEventBus;
+import com.projet.route.service.GeofenceService;
+import com.projet.route.service.HeatmapService;
+import com.projet.route.service.SignalementPriorityIndex;
+import com.projet.route.service.SignalementReadModel;
+import com.projet.route.service.SignalementSpatialIndex;
+import com.projet.route.service.StatutEventStore;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+import java.util.Objects;
+
+/**
+ * Propage chaque écriture de Signalement aux index en mémoire et journalise les changements
+ * de statut, quel que soit le chemin (contrôleurs, services, import Firestore). Instancié par Hibernate via le conteneur de beans Spring.
+ */
+public class SignalementListener {
+
+    private final SignalementSpatialIndex signalementSpatialIndex;
+    private final HeatmapService heatmapService;
+    private final ChangeEventBus changeEventBus;
+    private final GeofenceService geofenceService;
+    private final SignalementPriorityIndex signalementPriorityIndex;
+    private final StatutEventStore statutEventStore;
+    private final SignalementReadModel signalementReadModel;
+
+    @Autowired
+    public SignalementListener(@Lazy SignalementSpatialIndex signalementSpatialIndex, @Lazy HeatmapService heatmapService,
+                               @Lazy ChangeEventBus changeEventBus, @Lazy GeofenceService geofenceService,
+                               @Lazy SignalementPriorityIndex signalementPriorityIndex,
+                               @Lazy StatutEventStore statutEventStore,
+                               @Lazy SignalementReadModel signalementReadModel) {
+        this.signalementSpatialIndex = signalementSpatialIndex;
+        this.heatmapService = heatmapService;
+        this.changeEventBus = changeEventBus;
+        this.geofenceService = geofenceService;
+        this.signalementPriorityIndex = signalementPriorityIndex;
+        this.statutEventStore = statutEventStore;
+        this.signalementReadModel = signalementReadModel;
+    }
+
+    @PostLoad
+    public void onLoad(Signalement signalement) {
+        signalement.setStatutCharge(signalement.getStatut());
+    }
+
+    @PostPersist
+    public void onCreate(Signalement signalement) {
+        statutEventStore.record(signalement, null, true);
+        signalement.setStatutCharge(signalement.getStatut());
+        onSave(signalement);
+        changeEventBus.publish(ChangeEvent.of(signalement, ChangeEvent.CREE));
+        geofenceService.onSignalementSaved(signalement, true);
+    }
+
+    @PostUpdate
+    public void onUpdate(Signalement signalement) {
+        if (!Objects.equals(signalement.getStatutCharge(), signalement.getStatut())) {
+            statutEventStore.record(signalement, signalement.getStatutCharge(), false);
+            signalement.setStatutCharge(signalement.getStatut());
+        }
+        onSave(signalement);
+        changeEventBus.publish(ChangeEvent.of(signalement, ChangeEvent.MODIFIE));
+        geofenceService.onSignalementSaved(signalement, false);
+    }
+
+    private void onSave(Signalement signalement) {
+        signalementSpatialIndex.onSaved(signalement);
+        heatmapService.onSaved(signalement);
+        signalementPriorityIndex.onSignalementSaved(signalement);
+        signalementReadModel.onSignalementSaved(signalement);
+    }
+
+    @PostRemove
+    public void onRemove(Signalement signalement) {
+        signalementSpatialIndex.onDeleted(signalement.getIdSignalement());
+        heatmapService.onDeleted(signalement.getIdSignalement());
+        signalementPriorityIndex.onSignalementDeleted(signalement.getIdSignalement());
+        signalementReadModel.onSignalementDeleted(signalement.getIdSignalement());
+        changeEventBus.publish(ChangeEvent.of(signalement, ChangeEvent.SUPPRIME));
+    }
+}
@@ -0,0 +1,56 @@
+package com.projet.route.models;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "sync_dead_letter")
+public class SyncDeadLetter {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String collection;
+
+    @Column(name = "document_id", nullable = false)
+    private String documentId;
+
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(columnDefinition = "TEXT")
+    private String erreur;
+
+    @Column(nullable = false)
+    private Integer tentatives = 1;
+
+    @Column(nullable = false)
+    private Boolean resolu = false;
+
+    @Column(name = "date_creation", nullable = false)
+    private LocalDateTime dateCreation = LocalDateTime.now();
+
+    @Column(name = "date_derniere_tentative")
+    private LocalDateTime dateDerniereTentative = LocalDateTime.now();
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getCollection() { return collection; }
+    public void setCollection(String collection) { this.collection = collection; }
+    public String getDocumentId() { return documentId; }
+    public void setDocumentId(String documentId) { this.documentId = documentId; }
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+    public String getErreur() { return erreur; }
+    public void setErreur(String erreur) { this.erreur = erreur; }
+    public Integer getTentatives() { return tentatives; }
+    public void setTentatives(Integer tentatives) { this.tentatives = tentatives; }
+    public Boolean getResolu() { return resolu; }
+    public void setResolu(Boolean resolu) { this.resolu = resolu; }
+    public LocalDateTime getDateCreation() { return dateCreation; }
+    public void setDateCreation(LocalDateTime dateCreation) { this.dateCreation = dateCreation; }
+    public LocalDateTime getDateDerniereTentative() { return dateDerniereTentative; }
+    public void setDateDerniereTentative(LocalDateTime dateDerniereTentative) { this.dateDerniereTentative = dateDerniereTentative; }
+}
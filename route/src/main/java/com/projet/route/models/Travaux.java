@@ -6,6 +6,7 @@ import java.time.LocalDate;
 
 @Entity
 @Table(name = "travaux")
+@EntityListeners(TravauxListener.class)
 public class Travaux {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,67 @@
+package com.projet.route.models;
+
+import com.projet.route.service.ChangeEvent;
+import com.projet.route.service.ChangeEventBus;
+import com.projet.route.service.EntrepriseAnalyticsService;
+import com.projet.route.service.SignalementPriorityIndex;
+import com.projet.route.service.SignalementReadModel;
+import com.projet.route.service.TravauxScheduleIndex;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * Propage chaque écriture de Travaux aux index en mémoire, quel que soit le chemin
+ * (contrôleurs, services, import Firestore). Instancié par Hibernate via le conteneur de beans Spring.
+ */
+public class TravauxListener {
+
+    private final EntrepriseAnalyticsService entrepriseAnalyticsService;
+    private final TravauxScheduleIndex travauxScheduleIndex;
+    private final ChangeEventBus changeEventBus;
+    private final SignalementPriorityIndex signalementPriorityIndex;
+    private final SignalementReadModel signalementReadModel;
+
+    @Autowired
+    public TravauxListener(@Lazy EntrepriseAnalyticsService entrepriseAnalyticsService,
+                           @Lazy TravauxScheduleIndex travauxScheduleIndex,
+                           @Lazy ChangeEventBus changeEventBus,
+                           @Lazy SignalementPriorityIndex signalementPriorityIndex,
+                           @Lazy SignalementReadModel signalementReadModel) {
+        this.entrepriseAnalyticsService = entrepriseAnalyticsService;
+        this.travauxScheduleIndex = travauxScheduleIndex;
+        this.changeEventBus = changeEventBus;
+        this.signalementPriorityIndex = signalementPriorityIndex;
+        this.signalementReadModel = signalementReadModel;
+    }
+
+    @PostPersist
+    public void onCreate(Travaux travaux) {
+        onSave(travaux);
+        changeEventBus.publish(ChangeEvent.of(travaux, ChangeEvent.CREE));
+    }
+
+    @PostUpdate
+    public void onUpdate(Travaux travaux) {
+        onSave(travaux);
+        changeEventBus.publish(ChangeEvent.of(travaux, ChangeEvent.MODIFIE));
+    }
+
+    private void onSave(Travaux travaux) {
+        entrepriseAnalyticsService.onTravauxSaved(travaux);
+        travauxScheduleIndex.onTravauxSaved(travaux);
+        signalementPriorityIndex.onTravauxSaved(travaux);
+        signalementReadModel.onTravauxSaved(travaux);
+    }
+
+    @PostRemove
+    public void onRemove(Travaux travaux) {
+        entrepriseAnalyticsService.onTravauxDeleted(travaux.getId());
+        travauxScheduleIndex.onTravauxDeleted(travaux.getId());
+        signalementPriorityIndex.onTravauxDeleted(travaux.getId());
+        signalementReadModel.onTravauxDeleted(travaux.getId());
+        changeEventBus.publish(ChangeEvent.of(travaux, ChangeEvent.SUPPRIME));
+    }
+}
@@ -0,0 +1,12 @@
+package com.projet.route.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.projet.route.models.AbonnementZone;
+
+import java.util.List;
+
+public interface AbonnementZoneRepository extends JpaRepository<AbonnementZone, Long> {
+    List<AbonnementZone> findByActifTrue();
+    List<AbonnementZone> findByProprietaire(String proprietaire);
+}
@@ -1,8 +1,17 @@
 package com.projet.route.repository;
 
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.projet.route.models.Entreprise;
+import com.projet.route.service.ReferenceCacheService;
+
+import java.util.List;
 
 public interface EntrepriseRepository extends JpaRepository<Entreprise, Long> {
-}
\ No newline at end of file
+    @Override
+    @QueryHints({@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = ReferenceCacheService.REGION_REQUETES)})
+    List<Entreprise> findAll();
+}
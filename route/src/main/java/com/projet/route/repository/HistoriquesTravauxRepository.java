@@ -1,9 +1,33 @@
 package com.projet.route.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.projet.route.models.HistoriquesTravaux;
 
-public interface HistoriquesTravauxRepository extends JpaRepository<HistoriquesTravaux, Long> {
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface HistoriquesTravauxRepository extends JpaRepository<HistoriquesTravaux, HistoriquesTravaux.Cle> {
     HistoriquesTravaux findByFirestoreId(String firestoreId);
-}
\ No newline at end of file
+
+    // id seul, issu de la séquence, reste unique sans la date
+    Optional<HistoriquesTravaux> findFirstById(Long id);
+
+    // Parcours de idx_historiques_travaux_travaux_date, limité aux partitions de la fenêtre
+    List<HistoriquesTravaux> findByTravauxIdAndDateModificationBetweenOrderByDateModificationAsc(
+            Long travauxId, LocalDateTime from, LocalDateTime to);
+
+    // Dernier état connu par période (unit : hour, day, week, month), calculé côté base.
+    // unit n'est lié qu'une fois : DISTINCT ON et ORDER BY portent sur la même colonne calculée
+    @Query(value = "SELECT DISTINCT ON (p.periode) p.periode, p.avancement, p.date_modification, p.commentaire FROM ("
+            + "SELECT date_trunc(:unit, h.date_modification) AS periode, h.avancement, h.date_modification, h.commentaire "
+            + "FROM historiques_travaux h "
+            + "WHERE h.id_travaux = :travauxId AND h.date_modification >= :from AND h.date_modification < :to) p "
+            + "ORDER BY p.periode, p.date_modification DESC",
+            nativeQuery = true)
+    List<Object[]> findLastPerPeriod(@Param("travauxId") Long travauxId, @Param("unit") String unit,
+                                     @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -1,13 +1,21 @@
 package com.projet.route.repository;
 
 import com.projet.route.models.Lieu;
+import com.projet.route.service.ReferenceCacheService;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
 public interface LieuRepository extends JpaRepository<Lieu, Long> {
+    @Override
+    @QueryHints({@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = ReferenceCacheService.REGION_REQUETES)})
+    List<Lieu> findAll();
+
     List<Lieu> findByVille(String ville);
     List<Lieu> findByLibelleContainingIgnoreCase(String libelle);
 }
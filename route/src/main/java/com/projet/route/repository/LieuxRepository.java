@@ -4,5 +4,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.projet.route.models.Lieux;
 
+import java.util.Optional;
+
 public interface LieuxRepository extends JpaRepository<Lieux, Long> {
+    Optional<Lieux> findFirstByLibelleAndVille(String libelle, String ville);
 }
\ No newline at end of file
@@ -1,10 +1,22 @@
 package com.projet.route.repository;
 
 import com.projet.route.models.ParametreAuth;
+import com.projet.route.service.ReferenceCacheService;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface ParametreAuthRepository extends JpaRepository<ParametreAuth, String> {
+    // Lu à chaque connexion (limite de tentatives, durée de session)
+    @QueryHints({@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = ReferenceCacheService.REGION_REQUETES)})
     Optional<ParametreAuth> findByCle(String cle);
-}
\ No newline at end of file
+
+    @Override
+    @QueryHints({@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = ReferenceCacheService.REGION_REQUETES)})
+    List<ParametreAuth> findAll();
+}
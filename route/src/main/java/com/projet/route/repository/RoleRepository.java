@@ -1,9 +1,15 @@
 package com.projet.route.repository;
 
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.projet.route.models.Role;
+import com.projet.route.service.ReferenceCacheService;
 
 public interface RoleRepository extends JpaRepository<Role, Long> {
+    // Appelé à chaque inscription : résultat gardé dans le cache de requêtes
+    @QueryHints({@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = ReferenceCacheService.REGION_REQUETES)})
     Role findByNom(String nom);
-}
\ No newline at end of file
+}
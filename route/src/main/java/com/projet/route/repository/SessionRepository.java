@@ -17,6 +17,7 @@ public interface SessionRepository extends JpaRepository<Session, Long> {
 
     @Modifying
     @Transactional
-    @Query("UPDATE Session s SET s.estActive = false WHERE s.dateExpiration < :now")
+    // Sessions actives seulement : index partiel idx_sessions_actives_expiration
+    @Query("UPDATE Session s SET s.estActive = false WHERE s.dateExpiration < :now AND s.estActive = true")
     int deactivateExpiredSessions(LocalDateTime now);
 }
\ No newline at end of file
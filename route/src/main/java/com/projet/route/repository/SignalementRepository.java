@@ -1,9 +1,69 @@
 package com.projet.route.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.projet.route.models.Signalement;
+import com.projet.route.service.StatutsSignalement;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface SignalementRepository extends JpaRepository<Signalement, Long> {
     Signalement findByFirestoreId(String firestoreId);
+    List<Signalement> findByIdDoublon(Long idDoublon);
+    List<Signalement> findByIdUser(String idUser);
+    List<Signalement> findByStatut(String statut);
+    List<Signalement> findByDateAjouteBetween(LocalDateTime start, LocalDateTime end);
+
+    // Signalements ouverts, du plus récent au plus ancien (index partiel idx_signalement_ouverts)
+    @Query("SELECT s FROM Signalement s WHERE s.statut IS NULL OR s.statut NOT IN " + StatutsSignalement.FERMES_SQL
+            + " ORDER BY s.dateAjoute DESC")
+    List<Signalement> findOuverts(Pageable pageable);
+
+    // Réconciliation : forme canonique comparée à Firestore (coordonnées à l'échelle de la colonne)
+    String SYNC_CANONICAL = "CAST(round(s.latitude, 6) AS text) || '|' || CAST(round(s.longitude, 6) AS text) || '|' "
+            + "|| COALESCE(s.type_probleme, 'null') || '|' || COALESCE(s.statut, 'null')";
+
+    // Plages de firestore_id (ordre binaire, comme les identifiants Firestore) : par plage, première clé,
+    // nombre de lignes et somme des empreintes md5(clé|forme canonique), calculés côté base
+    @Query(value = "SELECT MIN(k.cle) AS debut, COUNT(*), SUM(k.empreinte) FROM ("
+            + "SELECT s.firestore_id COLLATE \"C\" AS cle, "
+            + "CAST(CAST('x' || substr(md5(s.firestore_id || '|' || " + SYNC_CANONICAL + "), 1, 16) AS bit(64)) AS bigint) AS empreinte, "
+            + "ntile(:ranges) OVER (ORDER BY s.firestore_id COLLATE \"C\") AS plage "
+            + "FROM signalement s WHERE s.firestore_id IS NOT NULL) k "
+            + "GROUP BY k.plage ORDER BY k.plage",
+            nativeQuery = true)
+    List<Object[]> findSyncRangeHashes(@Param("ranges") int ranges);
+
+    // Lignes d'une plage divergente [from, to) : firestoreId, forme canonique ; to null = sans borne
+    @Query(value = "SELECT s.firestore_id, " + SYNC_CANONICAL + " FROM signalement s "
+            + "WHERE s.firestore_id IS NOT NULL "
+            + "AND (CAST(:from AS text) IS NULL OR s.firestore_id COLLATE \"C\" >= CAST(:from AS text)) "
+            + "AND (CAST(:to AS text) IS NULL OR s.firestore_id COLLATE \"C\" < CAST(:to AS text))",
+            nativeQuery = true)
+    List<Object[]> findSyncRange(@Param("from") String from, @Param("to") String to);
+
+    // Positions et type, pour construire l'index spatial au démarrage
+    @Query("SELECT s.idSignalement, s.latitude, s.longitude, s.typeProbleme FROM Signalement s")
+    List<Object[]> findPositions();
+
+    // Position, surface, statut et type, pour la grille de densité
+    @Query("SELECT s.idSignalement, s.latitude, s.longitude, s.surface, s.statut, s.typeProbleme FROM Signalement s")
+    List<Object[]> findHeatmapProjection();
+
+    // Signalements sans lieu, par identifiant croissant, pour le géocodage par lots
+    @Query("SELECT s.idSignalement, s.latitude, s.longitude FROM Signalement s WHERE s.lieux IS NULL AND s.idSignalement > :after ORDER BY s.idSignalement")
+    List<Object[]> findPositionsSansLieu(@Param("after") Long after, Pageable pageable);
+
+    // Critères de priorité : surface, type, statut, date
+    @Query("SELECT s.idSignalement, s.surface, s.typeProbleme, s.statut, s.dateAjoute FROM Signalement s")
+    List<Object[]> findPriorityProjection();
+
+    // Colonnes du modèle de lecture (SignalementReadModel)
+    @Query("SELECT s.idSignalement, s.latitude, s.longitude, s.surface, s.dateAjoute, s.statut, s.typeProbleme, "
+            + "l.idLieux, s.idDoublon, s.description FROM Signalement s LEFT JOIN s.lieux l")
+    List<Object[]> findReadModelProjection();
 }
\ No newline at end of file
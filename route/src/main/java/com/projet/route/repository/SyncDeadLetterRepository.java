@@ -0,0 +1,15 @@
+package com.projet.route.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.projet.route.models.SyncDeadLetter;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface SyncDeadLetterRepository extends JpaRepository<SyncDeadLetter, Long> {
+    Optional<SyncDeadLetter> findFirstByCollectionAndDocumentIdAndResoluFalse(String collection, String documentId);
+    List<SyncDeadLetter> findByResoluFalseOrderByIdAsc(Pageable pageable);
+    long countByResoluFalse();
+}
@@ -1,13 +1,78 @@
 package com.projet.route.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.projet.route.models.Travaux;
 import com.projet.route.models.Signalement;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface TravauxRepository extends JpaRepository<Travaux, Long> {
     Travaux findByFirestoreId(String firestoreId);
     Optional<Travaux> findBySignalement(Signalement signalement);
-}
+    List<Travaux> findByFirestoreIdIn(Collection<String> firestoreIds);
+    List<Travaux> findBySignalementIdSignalementIn(Collection<Long> signalementIds);
+    List<Travaux> findByAvancementLessThan(BigDecimal avancement);
+
+    // Réconciliation : un travaux jamais poussé est identifié dans Firestore par son id
+    String SYNC_KEY = "COALESCE(t.firestore_id, CAST(t.id AS text))";
+    String SYNC_CANONICAL = "COALESCE(CAST(round(t.budget, 2) AS text), 'null') || '|' "
+            + "|| COALESCE(CAST(round(t.avancement, 2) AS text), 'null') || '|' "
+            + "|| COALESCE(to_char(t.date_debut_travaux, 'YYYY-MM-DD'), 'null') || '|' "
+            + "|| COALESCE(to_char(t.date_fin_travaux, 'YYYY-MM-DD'), 'null') || '|' || COALESCE(s.firestore_id, 'null')";
+
+    // Plages de clés Firestore : première clé, nombre de lignes et somme des empreintes, calculés côté base
+    @Query(value = "SELECT MIN(k.cle) AS debut, COUNT(*), SUM(k.empreinte) FROM ("
+            + "SELECT " + SYNC_KEY + " COLLATE \"C\" AS cle, "
+            + "CAST(CAST('x' || substr(md5(" + SYNC_KEY + " || '|' || " + SYNC_CANONICAL + "), 1, 16) AS bit(64)) AS bigint) AS empreinte, "
+            + "ntile(:ranges) OVER (ORDER BY " + SYNC_KEY + " COLLATE \"C\") AS plage "
+            + "FROM travaux t LEFT JOIN signalement s ON s.id_signalement = t.id_signalement) k "
+            + "GROUP BY k.plage ORDER BY k.plage",
+            nativeQuery = true)
+    List<Object[]> findSyncRangeHashes(@Param("ranges") int ranges);
+
+    // Lignes d'une plage divergente [from, to) : id, clé Firestore, forme canonique ; to null = sans borne
+    @Query(value = "SELECT t.id, " + SYNC_KEY + ", " + SYNC_CANONICAL + " "
+            + "FROM travaux t LEFT JOIN signalement s ON s.id_signalement = t.id_signalement "
+            + "WHERE (CAST(:from AS text) IS NULL OR " + SYNC_KEY + " COLLATE \"C\" >= CAST(:from AS text)) "
+            + "AND (CAST(:to AS text) IS NULL OR " + SYNC_KEY + " COLLATE \"C\" < CAST(:to AS text))",
+            nativeQuery = true)
+    List<Object[]> findSyncRange(@Param("from") String from, @Param("to") String to);
+
+    // Agrégats par entreprise : nb, actifs, en retard, somme et nb de budgets,
+    // somme avancement*budget et budget pondérant, budget et surface des travaux avec surface
+    @Query("SELECT e.idEntreprise, COUNT(t), "
+            + "SUM(CASE WHEN t.avancement IS NULL OR t.avancement < 100 THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN (t.avancement IS NULL OR t.avancement < 100) AND t.dateFinTravaux < :today THEN 1 ELSE 0 END), "
+            + "SUM(t.budget), COUNT(t.budget), "
+            + "SUM(t.avancement * t.budget), SUM(CASE WHEN t.avancement IS NOT NULL THEN t.budget ELSE 0 END), "
+            + "SUM(CASE WHEN s.surface > 0 THEN t.budget ELSE 0 END), "
+            + "SUM(CASE WHEN s.surface > 0 AND t.budget IS NOT NULL THEN s.surface ELSE 0 END) "
+            + "FROM Travaux t JOIN t.entreprise e LEFT JOIN t.signalement s GROUP BY e.idEntreprise")
+    List<Object[]> aggregateByEntreprise(@Param("today") LocalDate today);
+
+    // Contribution de chaque travaux aux agrégats, pour les mises à jour incrémentales
+    @Query("SELECT t.id, e.idEntreprise, t.budget, t.avancement, t.dateFinTravaux, s.surface "
+            + "FROM Travaux t JOIN t.entreprise e LEFT JOIN t.signalement s")
+    List<Object[]> findAnalyticsProjection();
+
+    // Planning : id, entreprise, début, fin, avancement
+    @Query("SELECT t.id, e.idEntreprise, t.dateDebutTravaux, t.dateFinTravaux, t.avancement "
+            + "FROM Travaux t LEFT JOIN t.entreprise e")
+    List<Object[]> findScheduleProjection();
+
+    // (id travaux, id signalement) pour savoir quels signalements ont des travaux
+    @Query("SELECT t.id, t.signalement.idSignalement FROM Travaux t")
+    List<Object[]> findSignalementIds();
+
+    // Colonnes du modèle de lecture (SignalementReadModel)
+    @Query("SELECT t.id, s.idSignalement, e.idEntreprise, t.budget, t.avancement, t.dateDebutTravaux, t.dateFinTravaux "
+            + "FROM Travaux t LEFT JOIN t.signalement s LEFT JOIN t.entreprise e")
+    List<Object[]> findReadModelProjection();
+}
\ No newline at end of file
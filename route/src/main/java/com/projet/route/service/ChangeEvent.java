@@ -0,0 +1,97 @@
+package com.projet.route.service;
+
+import com.projet.route.models.Signalement;
+import com.projet.route.models.Travaux;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Changement d'un signalement ou d'un travaux diffusé aux clients de la carte.
+ * La séquence est attribuée par ChangeEventBus au moment de la diffusion (après commit).
+ */
+public class ChangeEvent {
+
+    public static final String SIGNALEMENT = "signalement";
+    public static final String TRAVAUX = "travaux";
+
+    public static final String CREE = "cree";
+    public static final String MODIFIE = "modifie";
+    public static final String SUPPRIME = "supprime";
+
+    private final String entite;
+    private final String operation;
+    private final Long id;
+    private final Double latitude;
+    private final Double longitude;
+    private final Map<String, Object> champs;
+    private long sequence;
+    private String json;
+
+    private ChangeEvent(String entite, String operation, Long id, BigDecimal latitude, BigDecimal longitude, Map<String, Object> champs) {
+        this.entite = entite;
+        this.operation = operation;
+        this.id = id;
+        this.latitude = latitude == null ? null : latitude.doubleValue();
+        this.longitude = longitude == null ? null : longitude.doubleValue();
+        this.champs = champs;
+    }
+
+    public static ChangeEvent of(Signalement signalement, String operation) {
+        Map<String, Object> champs = new LinkedHashMap<>();
+        if (!SUPPRIME.equals(operation)) {
+            champs.put("statut", signalement.getStatut());
+            champs.put("typeProbleme", signalement.getTypeProbleme());
+            champs.put("surface", signalement.getSurface());
+        }
+        return new ChangeEvent(SIGNALEMENT, operation, signalement.getIdSignalement(),
+                signalement.getLatitude(), signalement.getLongitude(), champs);
+    }
+
+    public static ChangeEvent of(Travaux travaux, String operation) {
+        Signalement signalement = travaux.getSignalement();
+        Map<String, Object> champs = new LinkedHashMap<>();
+        champs.put("idSignalement", signalement == null ? null : signalement.getIdSignalement());
+        if (!SUPPRIME.equals(operation)) {
+            champs.put("avancement", travaux.getAvancement());
+            champs.put("idEntreprise", travaux.getEntreprise() == null ? null : travaux.getEntreprise().getIdEntreprise());
+        }
+        return new ChangeEvent(TRAVAUX, operation, travaux.getId(),
+                signalement == null ? null : signalement.getLatitude(),
+                signalement == null ? null : signalement.getLongitude(), champs);
+    }
+
+    /**
+     * Contenu compact envoyé aux clients (la séquence part dans le champ id de l'événement SSE).
+     */
+    public Map<String, Object> toPayload() {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("entite", entite);
+        payload.put("op", operation);
+        payload.put("id", id);
+        if (latitude != null) {
+            payload.put("lat", latitude);
+            payload.put("lng", longitude);
+        }
+        payload.putAll(champs);
+        return payload;
+    }
+
+    /**
+     * Vrai si l'événement tombe dans l'emprise {minLat, minLng, maxLat, maxLng} ;
+     * un événement sans position est envoyé à tous.
+     */
+    public boolean within(double[] viewport) {
+        return viewport == null || latitude == null || longitude == null
+                || (latitude >= viewport[0] && latitude <= viewport[2] && longitude >= viewport[1] && longitude <= viewport[3]);
+    }
+
+    public String getEntite() { return entite; }
+    public String getOperation() { return operation; }
+    public Long getId() { return id; }
+    public long getSequence() { return sequence; }
+    void setSequence(long sequence) { this.sequence = sequence; }
+    String getJson() { return json; }
+    void setJson(String json) { this.json = json; }
+}
@@ -0,0 +1,257 @@
+package com.projet.route.service;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+import com.projet.route.config.VirtualThreadsConfig;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bus des changements de signalements et travaux, diffusés en Server-Sent Events.
+ *
+ * Les événements sont numérotés après commit et gardés dans un tampon circulaire : un
+ * client qui se reconnecte avec Last-Event-ID reçoit ce qu'il a manqué, ou "reset" si son
+ * curseur est sorti du tampon. Chaque client a une file bornée vidée par un petit pool
+ * partagé ; un client trop lent pour la vider est déconnecté (il reprendra au curseur).
+ * Un client inactif ne coûte qu'un SseEmitter et une file vide : aucun thread dédié.
+ * En mode threads virtuels, chaque vidage a son thread virtuel au lieu du pool fixe.
+ */
+@Service
+public class ChangeEventBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeEventBus.class);
+
+    private final ObjectMapper objectMapper;
+    private final ChangeEvent[] ring;
+    private final int clientBuffer;
+    private final Executor dispatcher;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private long lastSequence;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final double[] viewport;
+        final Queue<ChangeEvent> queue = new ConcurrentLinkedQueue<>();
+        final AtomicInteger pending = new AtomicInteger();
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, double[] viewport) {
+            this.emitter = emitter;
+            this.viewport = viewport;
+        }
+
+        // Appelé sous le verrou du tampon : ordre des séquences préservé
+        void offer(ChangeEvent event) {
+            if (closed || !event.within(viewport)) {
+                return;
+            }
+            if (pending.incrementAndGet() > clientBuffer) {
+                drop();
+                return;
+            }
+            queue.add(event);
+            schedule();
+        }
+
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        void drain() {
+            do {
+                ChangeEvent event;
+                while (!closed && (event = queue.poll()) != null) {
+                    try {
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(event.getSequence()))
+                                .name(event.getEntite())
+                                .data(event.getJson(), MediaType.APPLICATION_JSON));
+                        pending.decrementAndGet();
+                    } catch (IOException | IllegalStateException e) {
+                        close();
+                        return;
+                    }
+                }
+                scheduled.set(false);
+            } while (!closed && !queue.isEmpty() && scheduled.compareAndSet(false, true));
+        }
+
+        void drop() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+            dropped.incrementAndGet();
+            dispatcher.execute(() -> {
+                try {
+                    emitter.send(SseEmitter.event().name("debordement").data("{}", MediaType.APPLICATION_JSON));
+                } catch (IOException | IllegalStateException ignored) {
+                    // Client déjà parti
+                }
+                emitter.complete();
+            });
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+        }
+    }
+
+    public ChangeEventBus(ObjectMapper objectMapper,
+                          @Value("${evenements.historique:10000}") int history,
+                          @Value("${evenements.tampon-client:256}") int clientBuffer,
+                          @Value("${evenements.threads:2}") int threads,
+                          @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.objectMapper = objectMapper;
+        this.ring = new ChangeEvent[history];
+        this.clientBuffer = clientBuffer;
+        if (VirtualThreadsConfig.isSupported(virtualThreads)) {
+            // Un envoi bloqué sur un client lent n'immobilise plus un des threads du pool
+            this.dispatcher = new VirtualThreadTaskExecutor("sse-dispatch-");
+        } else {
+            this.dispatcher = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "sse-dispatch");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Les threads virtuels sont des démons : rien à arrêter
+        if (dispatcher instanceof ExecutorService) {
+            ((ExecutorService) dispatcher).shutdownNow();
+        }
+    }
+
+    /**
+     * Publie un changement ; dans une transaction, il n'est diffusé qu'après le commit.
+     */
+    public void publish(ChangeEvent event) {
+        TransactionHooks.afterCommit(() -> dispatch(event));
+    }
+
+    /**
+     * Abonne un client. {@code viewport} {minLat, minLng, maxLat, maxLng} ou null ;
+     * {@code lastEventId} : dernière séquence reçue, ou null pour ne recevoir que la suite.
+     */
+    public SseEmitter subscribe(double[] viewport, Long lastEventId, long timeoutMs) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, viewport);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        boolean reset = false;
+        synchronized (ring) {
+            if (lastEventId != null) {
+                long oldest = Math.max(1, lastSequence - ring.length + 1);
+                // Curseur sorti du tampon, ou retard supérieur à la file du client
+                if (lastEventId + 1 < oldest || lastSequence - lastEventId > clientBuffer) {
+                    reset = true;
+                } else {
+                    for (long seq = lastEventId + 1; seq <= lastSequence; seq++) {
+                        subscriber.offer(ring[(int) (seq % ring.length)]);
+                    }
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        if (reset) {
+            // Curseur trop ancien : le client doit recharger la liste complète
+            subscriber.queue.clear();
+            dispatcher.execute(() -> {
+                try {
+                    emitter.send(SseEmitter.event().name("reset").data("{}", MediaType.APPLICATION_JSON));
+                } catch (IOException | IllegalStateException e) {
+                    subscriber.close();
+                }
+            });
+        }
+        return emitter;
+    }
+
+    /**
+     * Commentaire SSE périodique : garde les connexions ouvertes derrière les proxies
+     * et détecte les clients partis.
+     */
+    @Scheduled(fixedDelayString = "${evenements.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.pending.get() == 0) {
+                dispatcher.execute(() -> {
+                    try {
+                        subscriber.emitter.send(SseEmitter.event().comment(""));
+                    } catch (IOException | IllegalStateException e) {
+                        subscriber.close();
+                    }
+                });
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("clients", subscribers.size());
+        stats.put("publies", published.get());
+        stats.put("clientsDeconnectes", dropped.get());
+        synchronized (ring) {
+            stats.put("derniereSequence", lastSequence);
+        }
+        return stats;
+    }
+
+    private void dispatch(ChangeEvent event) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(event.toPayload());
+        } catch (JacksonException e) {
+            logger.warn("Evénement non sérialisable {} {}: {}", event.getEntite(), event.getId(), e.getMessage());
+            return;
+        }
+        event.setJson(json);
+        synchronized (ring) {
+            long seq = ++lastSequence;
+            event.setSequence(seq);
+            ring[(int) (seq % ring.length)] = event;
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(event);
+            }
+        }
+        published.incrementAndGet();
+    }
+}
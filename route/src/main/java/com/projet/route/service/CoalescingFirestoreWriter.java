@@ -0,0 +1,271 @@
+package com.projet.route.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Regroupe les écritures vers Firestore : seul le dernier état en attente de chaque
+ * document est conservé, et la file est vidée au plus une fois par fenêtre
+ * ({@code sync.writer.window-ms}) en WriteBatch multi-documents, sous un débit global
+ * limité par seau à jetons ({@code sync.writer.rate-per-second}). Au-delà d'un WriteBatch par
+ * vidage, jusqu'à {@code sync.writer.parallelism} commits attendent Firestore en même temps.
+ */
+@Component
+public class CoalescingFirestoreWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoalescingFirestoreWriter.class);
+
+    @Autowired
+    private SyncSource syncSource;
+
+    @Value("${sync.writer.enabled:true}")
+    private boolean enabled;
+
+    @Value("${sync.writer.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${sync.writer.parallelism:1}")
+    private int parallelism;
+
+    @Value("${sync.writer.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    // Threads virtuels en mode "virtual" : un commit en attente ne coûte pas de thread de plateforme
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor taskExecutor;
+
+    private final Map<String, SyncWrite> pending = new ConcurrentHashMap<>();
+    private final TokenBucket rateLimiter;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong lastFlushMillis = new AtomicLong();
+    private final AtomicLong maxFlushMillis = new AtomicLong();
+    private final AtomicLong maxQueueLatencyMillis = new AtomicLong();
+
+    public CoalescingFirestoreWriter(@Value("${sync.writer.rate-per-second:200}") double ratePerSecond,
+                                     @Value("${sync.writer.burst:500}") double burst) {
+        this.rateLimiter = new TokenBucket(ratePerSecond, burst);
+    }
+
+    /**
+     * Met un document en attente ; un état déjà en attente pour le même document est remplacé.
+     * Si le regroupement est désactivé, l'écriture est immédiate.
+     */
+    public void enqueue(String collection, String docId, Map<String, Object> data) {
+        enqueue(collection, docId, data, null);
+    }
+
+    /**
+     * Comme {@link #enqueue(String, String, Map)} ; {@code onWritten} est exécuté une fois le
+     * document effectivement écrit dans Firestore (jamais si l'écriture est abandonnée).
+     */
+    public void enqueue(String collection, String docId, Map<String, Object> data, Runnable onWritten) {
+        enqueued.increment();
+        SyncWrite write = new SyncWrite(collection, docId, data);
+        if (onWritten != null) {
+            write.onWritten(onWritten);
+        }
+        if (!enabled) {
+            try {
+                syncSource.write(collection, docId, data);
+                written.increment();
+                runWritten(write);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failures.increment();
+            } catch (Exception e) {
+                failures.increment();
+                logger.warn("writer.error collection={} id={} error={}", collection, docId, e.getMessage());
+            }
+            return;
+        }
+        // merge est atomique : la version remplacée ne peut pas être vidée entre-temps sans ses actions
+        pending.merge(write.key(), write, (previous, latest) -> {
+            coalesced.increment();
+            latest.inherit(previous);
+            return latest;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${sync.writer.window-ms:1000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        int budget = rateLimiter.tryAcquire(pending.size());
+        if (budget == 0) {
+            return;
+        }
+        drain(budget);
+    }
+
+    private void drain(int budget) {
+        long start = System.nanoTime();
+        // Retire au plus "budget" documents ; une nouvelle version arrivée entre-temps reste en attente
+        List<SyncWrite> drained = new ArrayList<>(Math.min(budget, pending.size()));
+        Iterator<Map.Entry<String, SyncWrite>> it = pending.entrySet().iterator();
+        while (it.hasNext() && drained.size() < budget) {
+            Map.Entry<String, SyncWrite> entry = it.next();
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                drained.add(entry.getValue());
+            }
+        }
+
+        List<List<SyncWrite>> toCommit = new ArrayList<>();
+        for (int from = 0; from < drained.size(); from += SyncSource.MAX_BATCH_SIZE) {
+            toCommit.add(drained.subList(from, Math.min(drained.size(), from + SyncSource.MAX_BATCH_SIZE)));
+        }
+        if (parallelism <= 1 || toCommit.size() == 1) {
+            for (int i = 0; i < toCommit.size(); i++) {
+                if (!commit(toCommit.get(i))) {
+                    // Interrompu : le reste repart en file sans compter de tentative
+                    toCommit.subList(i + 1, toCommit.size()).forEach(this::putBack);
+                    break;
+                }
+            }
+        } else {
+            // Par vagues de "parallelism" commits, chacun requeue lui-même en cas d'échec
+            for (int from = 0; from < toCommit.size(); from += parallelism) {
+                List<CompletableFuture<Boolean>> wave = new ArrayList<>(parallelism);
+                for (List<SyncWrite> batch : toCommit.subList(from, Math.min(toCommit.size(), from + parallelism))) {
+                    wave.add(CompletableFuture.supplyAsync(() -> commit(batch), taskExecutor));
+                }
+                CompletableFuture.allOf(wave.toArray(new CompletableFuture<?>[0])).join();
+            }
+        }
+
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        lastFlushMillis.set(elapsed);
+        maxFlushMillis.accumulateAndGet(elapsed, Math::max);
+    }
+
+    // Renvoie false si le thread a été interrompu (batch remis en file)
+    private boolean commit(List<SyncWrite> batch) {
+        try {
+            syncSource.writeBatch(batch);
+            batches.increment();
+            written.add(batch.size());
+            long now = System.nanoTime();
+            for (SyncWrite write : batch) {
+                maxQueueLatencyMillis.accumulateAndGet((now - write.getEnqueuedNanos()) / 1_000_000, Math::max);
+                runWritten(write);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            putBack(batch);
+            return false;
+        } catch (Exception e) {
+            failures.increment();
+            logger.warn("writer.batch.error size={} error={}", batch.size(), e.getMessage());
+            requeue(batch);
+            return true;
+        }
+    }
+
+    private void runWritten(SyncWrite write) {
+        for (Runnable action : write.writtenActions()) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                logger.warn("writer.callback.error collection={} id={} error={}", write.getCollection(), write.getDocId(), e.getMessage());
+            }
+        }
+    }
+
+    private void putBack(List<SyncWrite> batch) {
+        batch.forEach(this::restore);
+    }
+
+    // Une version plus récente arrivée entre-temps garde la priorité et reprend les actions de celle-ci
+    private void restore(SyncWrite write) {
+        pending.merge(write.key(), write, (current, older) -> {
+            current.inherit(older);
+            return current;
+        });
+    }
+
+    private void requeue(List<SyncWrite> batch) {
+        for (SyncWrite write : batch) {
+            write.incrementAttempts();
+            if (write.getAttempts() >= maxAttempts) {
+                // La réconciliation (/api/sync/reconcile) rattrapera ce document
+                dropped.increment();
+                logger.error("writer.dropped collection={} id={} attempts={}", write.getCollection(), write.getDocId(), write.getAttempts());
+            } else {
+                restore(write);
+            }
+        }
+    }
+
+    /**
+     * Vide la file à l'arrêt en respectant le débit : attend les jetons du seau au plus
+     * {@code sync.writer.shutdown-timeout-ms} au total, puis journalise ce qui reste.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMs);
+        try {
+            while (!pending.isEmpty()) {
+                long remaining = deadline - System.nanoTime();
+                int budget = remaining > 0 ? rateLimiter.acquire(pending.size(), remaining) : 0;
+                if (budget == 0) {
+                    break;
+                }
+                drain(budget);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!pending.isEmpty()) {
+            // La réconciliation (/api/sync/reconcile) rattrapera ces documents
+            logger.error("writer.shutdown.unflushed count={}", pending.size());
+            for (SyncWrite write : pending.values()) {
+                logger.error("writer.unflushed collection={} id={}", write.getCollection(), write.getDocId());
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long total = enqueued.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("pending", pending.size());
+        stats.put("enqueued", total);
+        stats.put("coalesced", coalesced.sum());
+        stats.put("coalescingRatio", total == 0 ? 0.0 : (double) coalesced.sum() / total);
+        stats.put("written", written.sum());
+        stats.put("batches", batches.sum());
+        stats.put("failures", failures.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("lastFlushMillis", lastFlushMillis.get());
+        stats.put("maxFlushMillis", maxFlushMillis.get());
+        stats.put("maxQueueLatencyMillis", maxQueueLatencyMillis.get());
+        return stats;
+    }
+}
@@ -0,0 +1,89 @@
+package com.projet.route.service;
+
+import com.projet.route.models.SyncDeadLetter;
+import com.projet.route.repository.SyncDeadLetterRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stockage des documents de synchronisation en échec, pour rejeu ultérieur.
+ * Le document est conservé en JSON (mapper de l'application).
+ */
+@Service
+public class DeadLetterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeadLetterService.class);
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    @Autowired
+    private SyncDeadLetterRepository syncDeadLetterRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Enregistre un échec ; un document déjà en attente voit son compteur de tentatives incrémenté.
+     */
+    public SyncDeadLetter record(String collection, String documentId, Map<String, Object> payload, Exception error) {
+        SyncDeadLetter deadLetter = syncDeadLetterRepository
+                .findFirstByCollectionAndDocumentIdAndResoluFalse(collection, documentId)
+                .orElse(null);
+        if (deadLetter == null) {
+            deadLetter = new SyncDeadLetter();
+            deadLetter.setCollection(collection);
+            deadLetter.setDocumentId(documentId);
+        } else {
+            deadLetter.setTentatives(deadLetter.getTentatives() + 1);
+            deadLetter.setDateDerniereTentative(LocalDateTime.now());
+        }
+        deadLetter.setPayload(payload != null ? toJson(collection, documentId, payload) : null);
+        deadLetter.setErreur(describe(error));
+        return syncDeadLetterRepository.save(deadLetter);
+    }
+
+    public void markResolved(SyncDeadLetter deadLetter) {
+        deadLetter.setResolu(true);
+        deadLetter.setDateDerniereTentative(LocalDateTime.now());
+        syncDeadLetterRepository.save(deadLetter);
+    }
+
+    public void markFailed(SyncDeadLetter deadLetter, Exception error) {
+        deadLetter.setTentatives(deadLetter.getTentatives() + 1);
+        deadLetter.setErreur(describe(error));
+        deadLetter.setDateDerniereTentative(LocalDateTime.now());
+        syncDeadLetterRepository.save(deadLetter);
+    }
+
+    public List<SyncDeadLetter> getPending(int limit) {
+        return syncDeadLetterRepository.findByResoluFalseOrderByIdAsc(PageRequest.of(0, limit));
+    }
+
+    public long countPending() {
+        return syncDeadLetterRepository.countByResoluFalse();
+    }
+
+    private String toJson(String collection, String documentId, Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JacksonException e) {
+            // Le rejeu relit le document à la source : on garde une trace lisible plutôt que de perdre l'échec
+            logger.warn("deadletter.payload non sérialisable collection={} id={}: {}", collection, documentId, e.getMessage());
+            return String.valueOf(payload);
+        }
+    }
+
+    private static String describe(Exception error) {
+        String message = error.getClass().getSimpleName() + ": " + error.getMessage();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
@@ -0,0 +1,74 @@
+package com.projet.route.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Réduction de séries temporelles en conservant leur forme.
+ */
+public final class Downsampling {
+
+    private Downsampling() {
+    }
+
+    /**
+     * Largest-Triangle-Three-Buckets : garde le premier et le dernier point et, dans chaque
+     * seau intermédiaire, le point formant le plus grand triangle avec le point retenu
+     * précédemment et la moyenne du seau suivant. Renvoie les indices retenus, croissants.
+     */
+    public static int[] lttb(double[] x, double[] y, int threshold) {
+        int n = x.length;
+        if (threshold >= n || threshold <= 2) {
+            if (threshold <= 2 && n > 2) {
+                return new int[]{0, n - 1};
+            }
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) all[i] = i;
+            return all;
+        }
+
+        int[] selected = new int[threshold];
+        int count = 0;
+        selected[count++] = 0;
+        double bucketSize = (double) (n - 2) / (threshold - 2);
+        int a = 0;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int nextStart = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, n);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += x[i];
+                avgY += y[i];
+            }
+            int nextLength = Math.max(1, nextEnd - nextStart);
+            avgX /= nextLength;
+            avgY /= nextLength;
+
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((x[a] - avgX) * (y[i] - y[a]) - (x[a] - x[i]) * (avgY - y[a]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            selected[count++] = chosen;
+            a = chosen;
+        }
+        selected[count] = n - 1;
+        return selected;
+    }
+
+    public static <T> List<T> select(List<T> values, int[] indices) {
+        List<T> result = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            result.add(values.get(index));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,147 @@
+package com.projet.route.service;
+
+import com.projet.route.models.Signalement;
+import com.projet.route.models.Travaux;
+import com.projet.route.repository.SignalementRepository;
+import com.projet.route.repository.TravauxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Détection des signalements en double à l'ingestion : recherche des plus proches voisins
+ * du même type dans l'index spatial, dans un rayon propre à chaque type de problème.
+ */
+@Service
+public class DuplicateDetectionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DuplicateDetectionService.class);
+
+    @Autowired
+    private SignalementSpatialIndex signalementSpatialIndex;
+
+    @Autowired
+    private SignalementRepository signalementRepository;
+
+    @Autowired
+    private TravauxRepository travauxRepository;
+
+    private final double defaultRadius;
+    private final Map<String, Double> radiusByType = new HashMap<>();
+    private final int maxCandidates;
+
+    public DuplicateDetectionService(@Value("${doublons.rayon-defaut:15}") double defaultRadius,
+                                     @Value("${doublons.rayons:}") String radii,
+                                     @Value("${doublons.max-candidats:5}") int maxCandidates) {
+        this.defaultRadius = defaultRadius;
+        this.maxCandidates = maxCandidates;
+        // Format "type:rayon,type:rayon", rayons en mètres
+        for (String entry : radii.split(",")) {
+            int sep = entry.lastIndexOf(':');
+            if (sep > 0) {
+                radiusByType.put(entry.substring(0, sep).trim(), Double.parseDouble(entry.substring(sep + 1).trim()));
+            }
+        }
+    }
+
+    public double radiusFor(String typeProbleme) {
+        return typeProbleme == null ? defaultRadius : radiusByType.getOrDefault(typeProbleme, defaultRadius);
+    }
+
+    /**
+     * Doublons potentiels d'un signalement, du plus proche au plus lointain.
+     */
+    public List<SignalementSpatialIndex.Neighbour> findCandidates(Signalement signalement) {
+        if (signalement.getLatitude() == null || signalement.getLongitude() == null) {
+            return List.of();
+        }
+        return signalementSpatialIndex.nearest(
+                signalement.getLatitude().doubleValue(),
+                signalement.getLongitude().doubleValue(),
+                signalement.getTypeProbleme(),
+                radiusFor(signalement.getTypeProbleme()),
+                maxCandidates,
+                signalement.getIdSignalement());
+    }
+
+    /**
+     * Rattache un nouveau signalement au plus proche doublon existant (ou à l'original de
+     * celui-ci), sans rien supprimer. Appelé avant l'enregistrement.
+     */
+    public void attach(Signalement signalement) {
+        if (signalement.getIdDoublon() != null) {
+            return;
+        }
+        List<SignalementSpatialIndex.Neighbour> candidates = findCandidates(signalement);
+        if (candidates.isEmpty()) {
+            return;
+        }
+        SignalementSpatialIndex.Neighbour nearest = candidates.get(0);
+        Long original = signalementRepository.findById(nearest.getIdSignalement())
+                .map(s -> root(s).getIdSignalement())
+                .orElse(null);
+        if (original != null) {
+            signalement.setIdDoublon(original);
+            logger.info("doublon.detecte original={} distance={}m type={}", original,
+                    Math.round(nearest.getDistance()), signalement.getTypeProbleme());
+        }
+    }
+
+    /**
+     * Fusionne un signalement dans un autre : il est marqué doublon de la cible et ses
+     * travaux sont reportés sur la cible si celle-ci n'en a pas.
+     */
+    @Transactional
+    public Signalement merge(Long id, Long cibleId) {
+        if (id.equals(cibleId)) {
+            throw new IllegalArgumentException("Un signalement ne peut pas être fusionné avec lui-même");
+        }
+        Signalement doublon = signalementRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Signalement non trouvé avec l'id: " + id));
+        Signalement cible = signalementRepository.findById(cibleId)
+                .orElseThrow(() -> new IllegalArgumentException("Signalement non trouvé avec l'id: " + cibleId));
+        // Fusion vers l'original de la cible ; refusée si cet original est le signalement fusionné
+        cible = root(cible);
+        if (cible.getIdSignalement().equals(doublon.getIdSignalement())) {
+            throw new IllegalArgumentException("Le signalement " + cibleId + " est déjà un doublon de " + id);
+        }
+
+        Optional<Travaux> travauxDoublon = travauxRepository.findBySignalement(doublon);
+        if (travauxDoublon.isPresent() && travauxRepository.findBySignalement(cible).isEmpty()) {
+            travauxDoublon.get().setSignalement(cible);
+            travauxRepository.save(travauxDoublon.get());
+        }
+        // Les doublons déjà rattachés au signalement fusionné suivent vers la cible
+        for (Signalement rattache : signalementRepository.findByIdDoublon(doublon.getIdSignalement())) {
+            rattache.setIdDoublon(cible.getIdSignalement());
+            signalementRepository.save(rattache);
+        }
+        doublon.setIdDoublon(cible.getIdSignalement());
+        return signalementRepository.save(doublon);
+    }
+
+    // Remonte la chaîne idDoublon jusqu'au signalement original ; s'arrête sur un cycle existant
+    private Signalement root(Signalement signalement) {
+        Set<Long> seen = new HashSet<>();
+        Signalement current = signalement;
+        while (current.getIdDoublon() != null && seen.add(current.getIdSignalement())) {
+            Optional<Signalement> parent = signalementRepository.findById(current.getIdDoublon());
+            if (parent.isEmpty()) {
+                break;
+            }
+            current = parent.get();
+        }
+        return current;
+    }
+}
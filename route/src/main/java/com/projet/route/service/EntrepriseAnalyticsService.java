@@ -0,0 +1,262 @@
+package com.projet.route.service;
+
+import com.projet.route.models.Travaux;
+import com.projet.route.repository.TravauxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Indicateurs budget/avancement par entreprise. Un recalcul complet par agrégats SQL
+ * a lieu au démarrage puis tous les {@code analytics.entreprise.refresh-ms} ; entre deux,
+ * chaque écriture de Travaux (TravauxListener) applique sa différence aux cumuls après le commit.
+ * Une différence remplace la contribution du travaux : la rejouer est sans effet, ce qui permet
+ * de réappliquer sur le recalcul celles validées pendant sa lecture.
+ * Les lectures renvoient un instantané précalculé, en temps constant.
+ */
+@Service
+public class EntrepriseAnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntrepriseAnalyticsService.class);
+
+    private static final double TERMINE = 100.0;
+
+    @Autowired
+    private TravauxRepository travauxRepository;
+
+    // Passage par le proxy pour que refresh() s'exécute dans sa transaction
+    @Autowired
+    @Lazy
+    private EntrepriseAnalyticsService self;
+
+    @Value("${analytics.entreprise.incremental:true}")
+    private boolean incremental;
+
+    // Cumuls par entreprise et contribution actuelle de chaque travaux
+    private final Map<Long, Rollup> rollups = new HashMap<>();
+    private final Map<Long, Contribution> contributions = new HashMap<>();
+    private LocalDate referenceDate = LocalDate.now();
+    // Différences validées pendant un recalcul, rejouées sur son résultat ; null hors recalcul
+    private Map<Long, Contribution> pendingDuringRefresh;
+
+    // Instantanés publiés, lus sans verrou
+    private volatile Map<Long, EntrepriseStats> snapshots = Map.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            self.refresh();
+        } catch (Exception e) {
+            logger.warn("Calcul initial des indicateurs entreprise impossible: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.entreprise.refresh-ms:900000}", initialDelayString = "${analytics.entreprise.refresh-ms:900000}")
+    // Sans readOnly : le recalcul lit le primaire, jamais une réplique en retard qui perdrait les
+    // écritures validées avant l'ouverture de pendingDuringRefresh
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public void refresh() {
+        // Avant la première requête, donc avant l'instantané REPEATABLE_READ
+        synchronized (this) {
+            pendingDuringRefresh = new HashMap<>();
+        }
+        try {
+            recompute();
+        } finally {
+            synchronized (this) {
+                pendingDuringRefresh = null;
+            }
+        }
+    }
+
+    private void recompute() {
+        LocalDate today = LocalDate.now();
+        Map<Long, Rollup> fresh = new HashMap<>();
+        for (Object[] row : travauxRepository.aggregateByEntreprise(today)) {
+            Rollup r = new Rollup();
+            r.count = toLong(row[1]);
+            r.active = toLong(row[2]);
+            r.overdue = toLong(row[3]);
+            r.budgetSum = toDouble(row[4]);
+            r.budgetCount = toLong(row[5]);
+            r.weightedAvancement = toDouble(row[6]);
+            r.weightBudget = toDouble(row[7]);
+            r.surfaceBudget = toDouble(row[8]);
+            r.surface = toDouble(row[9]);
+            fresh.put((Long) row[0], r);
+        }
+        Map<Long, Contribution> freshContributions = new HashMap<>();
+        for (Object[] row : travauxRepository.findAnalyticsProjection()) {
+            freshContributions.put((Long) row[0], new Contribution((Long) row[1], (BigDecimal) row[2], (BigDecimal) row[3],
+                    (LocalDate) row[4], (BigDecimal) row[5], today));
+        }
+        synchronized (this) {
+            rollups.clear();
+            rollups.putAll(fresh);
+            contributions.clear();
+            contributions.putAll(freshContributions);
+            referenceDate = today;
+            pendingDuringRefresh.forEach(this::replace);
+            publish();
+        }
+        logger.info("Indicateurs entreprise recalculés: {} entreprises, {} travaux", fresh.size(), freshContributions.size());
+    }
+
+    /**
+     * Applique, après validation de la transaction, la nouvelle contribution d'un travaux créé ou modifié.
+     */
+    public void onTravauxSaved(Travaux travaux) {
+        if (!incremental || travaux.getId() == null) {
+            return;
+        }
+        Long id = travaux.getId();
+        // Valeurs lues maintenant : l'entité peut encore changer avant le commit
+        Contribution current = null;
+        if (travaux.getEntreprise() != null && travaux.getEntreprise().getIdEntreprise() != null) {
+            synchronized (this) {
+                current = new Contribution(travaux.getEntreprise().getIdEntreprise(), travaux.getBudget(),
+                        travaux.getAvancement(), travaux.getDateFinTravaux(),
+                        travaux.getSignalement() != null ? travaux.getSignalement().getSurface() : null, referenceDate);
+            }
+        }
+        Contribution contribution = current;
+        TransactionHooks.afterCommit(() -> apply(id, contribution));
+    }
+
+    public void onTravauxDeleted(Long travauxId) {
+        if (!incremental || travauxId == null) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> apply(travauxId, null));
+    }
+
+    private synchronized void apply(Long travauxId, Contribution current) {
+        if (pendingDuringRefresh != null) {
+            pendingDuringRefresh.put(travauxId, current);
+        }
+        replace(travauxId, current);
+        publish();
+    }
+
+    // Appelé sous verrou : remplace la contribution d'un travaux (null = supprimé)
+    private void replace(Long travauxId, Contribution current) {
+        Contribution previous = contributions.remove(travauxId);
+        if (previous != null) {
+            rollup(previous.entrepriseId).apply(previous, -1);
+        }
+        if (current != null) {
+            contributions.put(travauxId, current);
+            rollup(current.entrepriseId).apply(current, 1);
+        }
+    }
+
+    public EntrepriseStats getStats(Long idEntreprise) {
+        return snapshots.get(idEntreprise);
+    }
+
+    public List<EntrepriseStats> getAllStats() {
+        return new ArrayList<>(snapshots.values());
+    }
+
+    private Rollup rollup(Long entrepriseId) {
+        return rollups.computeIfAbsent(entrepriseId, id -> new Rollup());
+    }
+
+    // Appelé sous verrou : reconstruit les instantanés servis aux lectures
+    private void publish() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, EntrepriseStats> next = new ConcurrentHashMap<>();
+        rollups.forEach((id, r) -> {
+            if (r.count > 0) {
+                next.put(id, r.toStats(id, now));
+            }
+        });
+        snapshots = next;
+    }
+
+    private static long toLong(Object value) {
+        return value == null ? 0 : ((Number) value).longValue();
+    }
+
+    private static double toDouble(Object value) {
+        return value == null ? 0 : ((Number) value).doubleValue();
+    }
+
+    private static final class Contribution {
+        private final Long entrepriseId;
+        private final double budget;
+        private final boolean hasBudget;
+        private final Double avancement;
+        private final boolean active;
+        private final boolean overdue;
+        private final double surface;
+
+        private Contribution(Long entrepriseId, BigDecimal budget, BigDecimal avancement, LocalDate dateFin,
+                             BigDecimal surface, LocalDate today) {
+            this.entrepriseId = entrepriseId;
+            this.hasBudget = budget != null;
+            this.budget = budget != null ? budget.doubleValue() : 0;
+            this.avancement = avancement != null ? avancement.doubleValue() : null;
+            this.active = this.avancement == null || this.avancement < TERMINE;
+            this.overdue = active && dateFin != null && dateFin.isBefore(today);
+            this.surface = surface != null && surface.signum() > 0 ? surface.doubleValue() : 0;
+        }
+    }
+
+    private static final class Rollup {
+        private long count;
+        private long active;
+        private long overdue;
+        private double budgetSum;
+        private long budgetCount;
+        private double weightedAvancement;
+        private double weightBudget;
+        private double surfaceBudget;
+        private double surface;
+
+        // Même règles que l'agrégat SQL de TravauxRepository.aggregateByEntreprise
+        private void apply(Contribution c, int sign) {
+            count += sign;
+            if (c.active) active += sign;
+            if (c.overdue) overdue += sign;
+            if (c.hasBudget) {
+                budgetSum += sign * c.budget;
+                budgetCount += sign;
+                if (c.avancement != null) {
+                    weightedAvancement += sign * c.avancement * c.budget;
+                    weightBudget += sign * c.budget;
+                }
+                if (c.surface > 0) {
+                    surfaceBudget += sign * c.budget;
+                    surface += sign * c.surface;
+                }
+            }
+        }
+
+        private EntrepriseStats toStats(Long id, LocalDateTime now) {
+            return new EntrepriseStats(id, count, active, overdue, budgetSum,
+                    budgetCount > 0 ? budgetSum / budgetCount : null,
+                    weightBudget > 0 ? weightedAvancement / weightBudget : null,
+                    surface > 0 ? surfaceBudget / surface : null,
+                    now);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.projet.route.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Indicateurs d'une entreprise : instantané immuable servi par EntrepriseAnalyticsService.
+ */
+public class EntrepriseStats {
+
+    private final Long idEntreprise;
+    private final long travaux;
+    private final long travauxActifs;
+    private final long travauxEnRetard;
+    private final double budgetTotal;
+    private final Double budgetMoyen;
+    private final Double avancementPondere;
+    private final Double budgetParM2;
+    private final LocalDateTime dateCalcul;
+
+    public EntrepriseStats(Long idEntreprise, long travaux, long travauxActifs, long travauxEnRetard,
+                           double budgetTotal, Double budgetMoyen, Double avancementPondere, Double budgetParM2,
+                           LocalDateTime dateCalcul) {
+        this.idEntreprise = idEntreprise;
+        this.travaux = travaux;
+        this.travauxActifs = travauxActifs;
+        this.travauxEnRetard = travauxEnRetard;
+        this.budgetTotal = budgetTotal;
+        this.budgetMoyen = budgetMoyen;
+        this.avancementPondere = avancementPondere;
+        this.budgetParM2 = budgetParM2;
+        this.dateCalcul = dateCalcul;
+    }
+
+    public Long getIdEntreprise() { return idEntreprise; }
+    public long getTravaux() { return travaux; }
+    public long getTravauxActifs() { return travauxActifs; }
+    public long getTravauxEnRetard() { return travauxEnRetard; }
+    public double getBudgetTotal() { return budgetTotal; }
+    public Double getBudgetMoyen() { return budgetMoyen; }
+    public Double getAvancementPondere() { return avancementPondere; }
+    public Double getBudgetParM2() { return budgetParM2; }
+    public LocalDateTime getDateCalcul() { return dateCalcul; }
+}
@@ -1,25 +1,36 @@
 package com.projet.route.service;
 
-import com.google.cloud.firestore.Firestore;
-import com.google.firebase.cloud.FirestoreClient;
 import com.projet.route.models.Signalement;
 import com.projet.route.models.Travaux;
 import com.projet.route.models.HistoriquesTravaux;
+import com.projet.route.models.SyncDeadLetter;
 import com.projet.route.repository.SignalementRepository;
 import com.projet.route.repository.TravauxRepository;
 import com.projet.route.repository.HistoriquesTravauxRepository;
 import com.projet.route.repository.EntrepriseRepository;
+import com.projet.route.service.mapping.FieldConverters;
+import com.projet.route.service.mapping.SyncMappers;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 @Service
 public class FirebaseSyncService {
 
+    private static final Logger logger = LoggerFactory.getLogger(FirebaseSyncService.class);
+
+    private static final int LOG_SAMPLE = 1000;
+
     @Autowired
     private SignalementRepository signalementRepository;
 
@@ -32,211 +43,250 @@ public class FirebaseSyncService {
     @Autowired
     private EntrepriseRepository entrepriseRepository;
 
-    public void syncSignalementsToLocal() {
-        try {
-            System.out.println("Starting syncSignalementsToLocal");
-            Firestore db = FirestoreClient.getFirestore();
-            System.out.println("Firestore client obtained");
-
-            // Sync signalements
-            var signalementsQuery = db.collection("signalements").get();
-            var signalementsDocs = signalementsQuery.get().getDocuments();
-            System.out.println("Retrieved " + signalementsDocs.size() + " signalements from Firestore");
-
-            for (var doc : signalementsDocs) {
-                try {
-                    var data = doc.getData();
-                    System.out.println("Processing signalement doc: " + doc.getId() + ", data: " + data);
-                    Signalement signalement = new Signalement();
-                    signalement.setFirestoreId(doc.getId());
-                    
-                    // Handle latitude
-                    Object latObj = data.get("latitude");
-                    if (latObj instanceof Double) {
-                        signalement.setLatitude(BigDecimal.valueOf((Double) latObj));
-                    } else if (latObj instanceof Long) {
-                        signalement.setLatitude(BigDecimal.valueOf((Long) latObj));
-                    } else if (latObj instanceof String) {
-                        signalement.setLatitude(new BigDecimal((String) latObj));
-                    } else {
-                        System.err.println("Invalid latitude type for doc " + doc.getId() + ": " + latObj.getClass());
-                        continue;
-                    }
-                    
-                    // Handle longitude
-                    Object lngObj = data.get("longitude");
-                    if (lngObj instanceof Double) {
-                        signalement.setLongitude(BigDecimal.valueOf((Double) lngObj));
-                    } else if (lngObj instanceof Long) {
-                        signalement.setLongitude(BigDecimal.valueOf((Long) lngObj));
-                    } else if (lngObj instanceof String) {
-                        signalement.setLongitude(new BigDecimal((String) lngObj));
-                    } else {
-                        System.err.println("Invalid longitude type for doc " + doc.getId() + ": " + lngObj.getClass());
-                        continue;
-                    }
-                    
-                    signalement.setIdUser((String) data.get("Id_User"));
-                    
-                    // Handle surface
-                    Object surfObj = data.get("surface");
-                    if (surfObj != null) {
-                        if (surfObj instanceof Double) {
-                            signalement.setSurface(BigDecimal.valueOf((Double) surfObj));
-                        } else if (surfObj instanceof Long) {
-                            signalement.setSurface(BigDecimal.valueOf((Long) surfObj));
-                        } else if (surfObj instanceof String) {
-                            signalement.setSurface(new BigDecimal((String) surfObj));
-                        }
-                    }
-                    
-                    signalement.setTypeProbleme((String) data.get("type_probleme"));
-                    signalement.setDescription((String) data.get("description"));
-                    signalement.setStatut((String) data.get("statut"));
-                    
-                    if (data.get("date_ajoute") != null) {
-                        // Assuming date_ajoute is a Firestore Timestamp
-                        var timestamp = (com.google.cloud.Timestamp) data.get("date_ajoute");
-                        signalement.setDateAjoute(LocalDateTime.ofInstant(timestamp.toDate().toInstant(), ZoneOffset.UTC));
-                    }
-
-                    // Check if already exists by firestoreId
-                    var existing = signalementRepository.findByFirestoreId(doc.getId());
-                    if (existing == null) {
-                        signalementRepository.save(signalement);
-                        System.out.println("Saved new signalement: " + doc.getId());
-                    } else {
-                        System.out.println("Signalement already exists: " + doc.getId());
-                    }
-                } catch (Exception e) {
-                    System.err.println("Error processing signalement " + doc.getId() + ": " + e.getMessage());
-                    e.printStackTrace();
-                }
-            }
+    @Autowired
+    private SyncSource syncSource;
 
-            // Sync travaux
-            var travauxQuery = db.collection("travaux").get();
-            var travauxDocs = travauxQuery.get().getDocuments();
-
-            for (var doc : travauxDocs) {
-                var data = doc.getData();
-                Travaux travaux = new Travaux();
-                travaux.setFirestoreId(doc.getId());
-
-                if (data.get("id_signalement") != null) {
-                    String signalementFirestoreId = data.get("id_signalement").toString();
-                    var signalement = signalementRepository.findByFirestoreId(signalementFirestoreId);
-                    if (signalement != null) {
-                        travaux.setSignalement(signalement);
-                    }
-                }
+    @Autowired
+    private SyncMappers syncMappers;
 
-                if (data.get("id_entreprise") != null) {
-                    Long entrepriseId = Long.parseLong(data.get("id_entreprise").toString());
-                    entrepriseRepository.findById(entrepriseId).ifPresent(travaux::setEntreprise);
-                }
+    @Autowired
+    private DeadLetterService deadLetterService;
 
-                if (data.get("budget") != null) {
-                    travaux.setBudget(BigDecimal.valueOf((Double) data.get("budget")));
-                }
+    @Autowired
+    private CoalescingFirestoreWriter coalescingFirestoreWriter;
 
-                if (data.get("date_debut_travaux") != null) {
-                    var timestamp = (com.google.cloud.Timestamp) data.get("date_debut_travaux");
-                    travaux.setDateDebutTravaux(timestamp.toDate().toInstant().atZone(java.time.ZoneId.systemDefault()).toLocalDate());
-                }
+    @Autowired
+    private DuplicateDetectionService duplicateDetectionService;
 
-                if (data.get("date_fin_travaux") != null) {
-                    var timestamp = (com.google.cloud.Timestamp) data.get("date_fin_travaux");
-                    travaux.setDateFinTravaux(timestamp.toDate().toInstant().atZone(java.time.ZoneId.systemDefault()).toLocalDate());
-                }
+    @Autowired
+    private ReverseGeocodingService reverseGeocodingService;
 
-                if (data.get("avancement") != null) {
-                    travaux.setAvancement(BigDecimal.valueOf((Double) data.get("avancement")));
-                }
+    // Lectures Firestore bloquantes : threads virtuels en mode "virtual", pool Spring Boot sinon
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor taskExecutor;
 
-                // Check if already exists by firestoreId
-                var existing = travauxRepository.findByFirestoreId(doc.getId());
-                if (existing == null) {
-                    travauxRepository.save(travaux);
-                }
-            }
+    @FunctionalInterface
+    private interface SourceCall<T> {
+        T call() throws InterruptedException, ExecutionException;
+    }
+
+    public void syncSignalementsToLocal() {
+        try {
+            long start = System.nanoTime();
+            logger.info("sync.start source={}", syncSource.getClass().getSimpleName());
+            syncMappers.signalement().getStats().reset();
+            syncMappers.travaux().getStats().reset();
+
+            // Lecture des travaux en parallèle ; import des signalements d'abord : les travaux les référencent par firestoreId
+            CompletableFuture<List<SyncDocument>> travaux = fetchAsync(() -> syncSource.fetchAll(SyncSource.TRAVAUX));
+            importCollection(SyncSource.SIGNALEMENTS, syncSource.fetchAll(SyncSource.SIGNALEMENTS));
+            importCollection(SyncSource.TRAVAUX, travaux.get());
+            logger.info("sync.end durationMs={}", (System.nanoTime() - start) / 1_000_000);
 
         } catch (InterruptedException | ExecutionException e) {
             throw new RuntimeException("Error syncing from Firestore", e);
         }
     }
 
-    public void syncTravauxToFirestore(Travaux travaux) {
-        try {
-            Firestore db = FirestoreClient.getFirestore();
-
-            String docId = travaux.getFirestoreId() != null ? travaux.getFirestoreId() : travaux.getId().toString();
-            var docRef = db.collection("travaux").document(docId);
-
-            var data = new java.util.HashMap<String, Object>();
-            if (travaux.getSignalement() != null && travaux.getSignalement().getFirestoreId() != null) {
-                data.put("id_signalement", travaux.getSignalement().getFirestoreId());
-            }
-            if (travaux.getEntreprise() != null) {
-                data.put("id_entreprise", travaux.getEntreprise().getIdEntreprise().toString());
+    // Chaque document est isolé : un échec part en dead letter sans interrompre la collection
+    private void importCollection(String collection, List<SyncDocument> docs) {
+        int saved = 0;
+        int failed = 0;
+        int processed = 0;
+        for (SyncDocument doc : docs) {
+            processed++;
+            try {
+                if (importDocument(collection, doc)) {
+                    saved++;
+                }
+            } catch (Exception e) {
+                failed++;
+                logger.warn("sync.error collection={} id={} error={}", collection, doc.getId(), e.getMessage());
+                deadLetterService.record(collection, doc.getId(), doc.getData(), e);
             }
-            if (travaux.getBudget() != null) {
-                data.put("budget", travaux.getBudget().doubleValue());
+            logProgress(collection, processed, docs.size());
+        }
+        logger.info("sync.collection collection={} documents={} saved={} failed={}", collection, docs.size(), saved, failed);
+    }
+
+    /**
+     * Importe un document s'il n'existe pas encore localement. Renvoie true si une ligne a été créée.
+     */
+    private boolean importDocument(String collection, SyncDocument doc) {
+        if (SyncSource.SIGNALEMENTS.equals(collection)) {
+            Signalement signalement = syncMappers.signalement().mapStrict(doc.getId(), doc.getData());
+            if (signalementRepository.findByFirestoreId(doc.getId()) == null) {
+                reverseGeocodingService.assign(signalement);
+                duplicateDetectionService.attach(signalement);
+                signalementRepository.save(signalement);
+                return true;
             }
-            if (travaux.getDateDebutTravaux() != null) {
-                data.put("date_debut_travaux", com.google.cloud.Timestamp.of(java.sql.Date.valueOf(travaux.getDateDebutTravaux())));
+            return false;
+        }
+        if (SyncSource.TRAVAUX.equals(collection)) {
+            Travaux travaux = toTravaux(doc);
+            if (travauxRepository.findByFirestoreId(doc.getId()) == null) {
+                travauxRepository.save(travaux);
+                return true;
             }
-            if (travaux.getDateFinTravaux() != null) {
-                data.put("date_fin_travaux", com.google.cloud.Timestamp.of(java.sql.Date.valueOf(travaux.getDateFinTravaux())));
+            return false;
+        }
+        throw new IllegalArgumentException("Collection non synchronisée: " + collection);
+    }
+
+    /**
+     * Rejoue jusqu'à {@code limit} dead letters en relisant le document à la source,
+     * typiquement après correction du mapping. Renvoie le nombre de documents résolus.
+     */
+    public int replayDeadLetters(int limit) {
+        int resolved = 0;
+        List<SyncDeadLetter> deadLetters = deadLetterService.getPending(limit);
+        // Relectures lancées ensemble (latence Firestore payée une fois), import séquentiel ensuite
+        List<CompletableFuture<SyncDocument>> docs = new ArrayList<>(deadLetters.size());
+        for (SyncDeadLetter deadLetter : deadLetters) {
+            docs.add(fetchAsync(() -> syncSource.fetch(deadLetter.getCollection(), deadLetter.getDocumentId())));
+        }
+        for (int i = 0; i < deadLetters.size(); i++) {
+            SyncDeadLetter deadLetter = deadLetters.get(i);
+            try {
+                SyncDocument doc = docs.get(i).get();
+                if (doc != null) {
+                    importDocument(deadLetter.getCollection(), doc);
+                }
+                // Document supprimé à la source : plus rien à rejouer
+                deadLetterService.markResolved(deadLetter);
+                resolved++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                docs.subList(i, docs.size()).forEach(future -> future.cancel(true));
+                break;
+            } catch (Exception e) {
+                Exception cause = e instanceof ExecutionException && e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                logger.warn("sync.replay.error collection={} id={} error={}", deadLetter.getCollection(), deadLetter.getDocumentId(), cause.getMessage());
+                deadLetterService.markFailed(deadLetter, cause);
             }
-            if (travaux.getAvancement() != null) {
-                data.put("avancement", travaux.getAvancement().doubleValue());
+        }
+        return resolved;
+    }
+
+    private <T> CompletableFuture<T> fetchAsync(SourceCall<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return call.call();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            } catch (ExecutionException e) {
+                throw new CompletionException(e.getCause() != null ? e.getCause() : e);
             }
+        }, taskExecutor);
+    }
 
-            docRef.set(data).get();
+    // Journalisation échantillonnée : une ligne tous les LOG_SAMPLE documents au lieu d'une par document
+    private void logProgress(String collection, int processed, int total) {
+        if (processed % LOG_SAMPLE == 0 && logger.isDebugEnabled()) {
+            logger.debug("sync.progress collection={} processed={} total={}", collection, processed, total);
+        }
+    }
 
-            // If this was a new document, update the firestoreId
-            if (travaux.getFirestoreId() == null) {
-                travaux.setFirestoreId(docId);
-                travauxRepository.save(travaux);
+    /**
+     * Convertit un document Firestore en Signalement, ou null si latitude/longitude sont absentes ou invalides.
+     */
+    Signalement toSignalement(SyncDocument doc) {
+        return syncMappers.signalement().map(doc.getId(), doc.getData());
+    }
+
+    Travaux toTravaux(SyncDocument doc) {
+        var data = doc.getData();
+        Travaux travaux = syncMappers.travaux().map(doc.getId(), data);
+
+        Object signalementFirestoreId = data.get("id_signalement");
+        if (signalementFirestoreId != null) {
+            var signalement = signalementRepository.findByFirestoreId(signalementFirestoreId.toString());
+            if (signalement != null) {
+                travaux.setSignalement(signalement);
             }
+        }
 
-        } catch (InterruptedException | ExecutionException e) {
-            // Log error but don't throw - sync should be optional
-            System.err.println("Error syncing travaux to Firestore: " + e.getMessage());
+        Long entrepriseId = FieldConverters.LONG.convert(data.get("id_entreprise"));
+        if (entrepriseId != null) {
+            entrepriseRepository.findById(entrepriseId).ifPresent(travaux::setEntreprise);
         }
+        return travaux;
     }
 
-    public void syncHistoriquesTravauxToFirestore(HistoriquesTravaux historique) {
-        try {
-            Firestore db = FirestoreClient.getFirestore();
+    public void syncTravauxToFirestore(Travaux travaux) {
+        String docId = travaux.getFirestoreId() != null ? travaux.getFirestoreId() : travaux.getId().toString();
 
-            String docId = historique.getFirestoreId() != null ? historique.getFirestoreId() : historique.getId().toString();
-            var docRef = db.collection("historiques_travaux").document(docId);
+        var data = new java.util.HashMap<String, Object>();
+        if (travaux.getSignalement() != null && travaux.getSignalement().getFirestoreId() != null) {
+            data.put("id_signalement", travaux.getSignalement().getFirestoreId());
+        }
+        if (travaux.getEntreprise() != null) {
+            data.put("id_entreprise", travaux.getEntreprise().getIdEntreprise().toString());
+        }
+        if (travaux.getBudget() != null) {
+            data.put("budget", travaux.getBudget().doubleValue());
+        }
+        if (travaux.getDateDebutTravaux() != null) {
+            data.put("date_debut_travaux", com.google.cloud.Timestamp.of(java.sql.Date.valueOf(travaux.getDateDebutTravaux())));
+        }
+        if (travaux.getDateFinTravaux() != null) {
+            data.put("date_fin_travaux", com.google.cloud.Timestamp.of(java.sql.Date.valueOf(travaux.getDateFinTravaux())));
+        }
+        if (travaux.getAvancement() != null) {
+            data.put("avancement", travaux.getAvancement().doubleValue());
+        }
 
-            var data = new java.util.HashMap<String, Object>();
-            if (historique.getTravaux() != null && historique.getTravaux().getFirestoreId() != null) {
-                data.put("id_travaux", historique.getTravaux().getFirestoreId());
-            }
-            if (historique.getDateModification() != null) {
-                data.put("date_modification", com.google.cloud.Timestamp.of(java.sql.Timestamp.valueOf(historique.getDateModification())));
-            }
-            if (historique.getAvancement() != null) {
-                data.put("avancement", historique.getAvancement().doubleValue());
+        if (travaux.getFirestoreId() != null) {
+            coalescingFirestoreWriter.enqueue(SyncSource.TRAVAUX, docId, data);
+            return;
+        }
+        // Nouveau document : le firestoreId n'est posé qu'une fois l'écriture réussie
+        Long id = travaux.getId();
+        coalescingFirestoreWriter.enqueue(SyncSource.TRAVAUX, docId, data, () -> markTravauxWritten(id, docId));
+    }
+
+    private void markTravauxWritten(Long id, String docId) {
+        travauxRepository.findById(id).ifPresent(written -> {
+            if (written.getFirestoreId() == null) {
+                written.setFirestoreId(docId);
+                travauxRepository.save(written);
             }
-            data.put("commentaire", historique.getCommentaire());
+        });
+    }
 
-            docRef.set(data).get();
+    public void syncHistoriquesTravauxToFirestore(HistoriquesTravaux historique) {
+        String docId = historique.getFirestoreId() != null ? historique.getFirestoreId() : historique.getId().toString();
 
-            // If this was a new document, update the firestoreId
-            if (historique.getFirestoreId() == null) {
-                historique.setFirestoreId(docId);
-                historiquesTravauxRepository.save(historique);
-            }
+        var data = new java.util.HashMap<String, Object>();
+        if (historique.getTravaux() != null && historique.getTravaux().getFirestoreId() != null) {
+            data.put("id_travaux", historique.getTravaux().getFirestoreId());
+        }
+        if (historique.getDateModification() != null) {
+            data.put("date_modification", com.google.cloud.Timestamp.of(java.sql.Timestamp.valueOf(historique.getDateModification())));
+        }
+        if (historique.getAvancement() != null) {
+            data.put("avancement", historique.getAvancement().doubleValue());
+        }
+        data.put("commentaire", historique.getCommentaire());
 
-        } catch (InterruptedException | ExecutionException e) {
-            // Log error but don't throw - sync should be optional
-            System.err.println("Error syncing historiques travaux to Firestore: " + e.getMessage());
+        if (historique.getFirestoreId() != null) {
+            coalescingFirestoreWriter.enqueue(SyncSource.HISTORIQUES_TRAVAUX, docId, data);
+            return;
         }
+        // Nouveau document : le firestoreId n'est posé qu'une fois l'écriture réussie
+        Long id = historique.getId();
+        coalescingFirestoreWriter.enqueue(SyncSource.HISTORIQUES_TRAVAUX, docId, data, () -> markHistoriqueWritten(id, docId));
+    }
+
+    private void markHistoriqueWritten(Long id, String docId) {
+        historiquesTravauxRepository.findFirstById(id).ifPresent(written -> {
+            if (written.getFirestoreId() == null) {
+                written.setFirestoreId(docId);
+                historiquesTravauxRepository.save(written);
+            }
+        });
     }
 }
\ No newline at end of file
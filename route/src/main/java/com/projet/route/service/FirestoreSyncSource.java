@@ -0,0 +1,90 @@
+package com.projet.route.service;
+
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.WriteBatch;
+import com.google.firebase.cloud.FirestoreClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+@Component
+@ConditionalOnProperty(name = "sync.source", havingValue = "firestore", matchIfMissing = true)
+public class FirestoreSyncSource implements SyncSource {
+
+    @Override
+    public List<SyncDocument> fetchAll(String collection) throws InterruptedException, ExecutionException {
+        Firestore db = FirestoreClient.getFirestore();
+        List<QueryDocumentSnapshot> docs = db.collection(collection).get().get().getDocuments();
+        List<SyncDocument> result = new ArrayList<>(docs.size());
+        for (QueryDocumentSnapshot doc : docs) {
+            result.add(new SyncDocument(doc.getId(), doc.getData()));
+        }
+        return result;
+    }
+
+    @Override
+    public SyncDocument fetch(String collection, String docId) throws InterruptedException, ExecutionException {
+        Firestore db = FirestoreClient.getFirestore();
+        DocumentSnapshot snapshot = db.collection(collection).document(docId).get().get();
+        return snapshot.exists() ? new SyncDocument(snapshot.getId(), snapshot.getData()) : null;
+    }
+
+    @Override
+    public List<SyncDocument> fetchPage(String collection, String startAfter, int limit, String... fields)
+            throws InterruptedException, ExecutionException {
+        Firestore db = FirestoreClient.getFirestore();
+        Query query = db.collection(collection).orderBy(FieldPath.documentId()).limit(limit);
+        if (fields.length > 0) {
+            query = query.select(fields);
+        }
+        if (startAfter != null) {
+            query = query.startAfter(startAfter);
+        }
+        return toDocuments(query.get().get().getDocuments());
+    }
+
+    @Override
+    public List<SyncDocument> fetchRange(String collection, String from, String to) throws InterruptedException, ExecutionException {
+        Firestore db = FirestoreClient.getFirestore();
+        Query query = db.collection(collection).orderBy(FieldPath.documentId());
+        if (from != null) {
+            query = query.startAt(from);
+        }
+        if (to != null) {
+            query = query.endBefore(to);
+        }
+        return toDocuments(query.get().get().getDocuments());
+    }
+
+    @Override
+    public void write(String collection, String docId, Map<String, Object> data) throws InterruptedException, ExecutionException {
+        Firestore db = FirestoreClient.getFirestore();
+        db.collection(collection).document(docId).set(data).get();
+    }
+
+    @Override
+    public void writeBatch(List<SyncWrite> writes) throws InterruptedException, ExecutionException {
+        Firestore db = FirestoreClient.getFirestore();
+        WriteBatch batch = db.batch();
+        for (SyncWrite write : writes) {
+            batch.set(db.collection(write.getCollection()).document(write.getDocId()), write.getData());
+        }
+        batch.commit().get();
+    }
+
+    private static List<SyncDocument> toDocuments(List<QueryDocumentSnapshot> docs) {
+        List<SyncDocument> result = new ArrayList<>(docs.size());
+        for (QueryDocumentSnapshot doc : docs) {
+            result.add(new SyncDocument(doc.getId(), doc.getData()));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,154 @@
+package com.projet.route.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Index spatial en grille régulière : chaque point (identifiant long) est rangé dans la
+ * case de taille {@code cellDegrees} qui le contient. Les cases stockent identifiants et
+ * coordonnées dans des tableaux primitifs. Non synchronisé.
+ */
+public class GeoGridIndex {
+
+    @FunctionalInterface
+    public interface PointVisitor {
+        void visit(long id, double lat, double lng);
+    }
+
+    private static final class Cell {
+        long[] ids = new long[4];
+        double[] lats = new double[4];
+        double[] lngs = new double[4];
+        int size;
+
+        void add(long id, double lat, double lng) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                lats = Arrays.copyOf(lats, size * 2);
+                lngs = Arrays.copyOf(lngs, size * 2);
+            }
+            ids[size] = id;
+            lats[size] = lat;
+            lngs[size] = lng;
+            size++;
+        }
+
+        void remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    size--;
+                    ids[i] = ids[size];
+                    lats[i] = lats[size];
+                    lngs[i] = lngs[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    private final double cellDegrees;
+    private final Map<Long, Cell> cells = new HashMap<>();
+    // id -> {lat, lng}, pour retirer ou déplacer un point
+    private final Map<Long, double[]> positions = new HashMap<>();
+
+    public GeoGridIndex(double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+    }
+
+    public double getCellDegrees() {
+        return cellDegrees;
+    }
+
+    public int size() {
+        return positions.size();
+    }
+
+    public void put(long id, double lat, double lng) {
+        remove(id);
+        positions.put(id, new double[]{lat, lng});
+        cells.computeIfAbsent(key(cellOf(lat), cellOf(lng)), k -> new Cell()).add(id, lat, lng);
+    }
+
+    public void remove(long id) {
+        double[] position = positions.remove(id);
+        if (position == null) {
+            return;
+        }
+        long k = key(cellOf(position[0]), cellOf(position[1]));
+        Cell cell = cells.get(k);
+        if (cell != null) {
+            cell.remove(id);
+            if (cell.size == 0) {
+                cells.remove(k);
+            }
+        }
+    }
+
+    public double[] position(long id) {
+        return positions.get(id);
+    }
+
+    /**
+     * Visite les points de toutes les cases recoupant le rectangle (filtre exact au visiteur).
+     * Le rectangle est ramené aux coordonnées valides ; s'il couvre plus de cases qu'il n'y en a
+     * d'occupées, ce sont les cases occupées qui sont parcourues : le nombre de cases visitées ne
+     * dépasse jamais celui des cases non vides.
+     */
+    public void visitCells(double minLat, double minLng, double maxLat, double maxLng, PointVisitor visitor) {
+        if (Double.isNaN(minLat) || Double.isNaN(minLng) || Double.isNaN(maxLat) || Double.isNaN(maxLng)) {
+            return;
+        }
+        long fromLat = cellOf(Math.max(-90, minLat));
+        long toLat = cellOf(Math.min(90, maxLat));
+        long fromLng = cellOf(Math.max(-180, minLng));
+        long toLng = cellOf(Math.min(180, maxLng));
+        if (fromLat > toLat || fromLng > toLng) {
+            return;
+        }
+        if ((double) (toLat - fromLat + 1) * (toLng - fromLng + 1) > cells.size()) {
+            for (Map.Entry<Long, Cell> entry : cells.entrySet()) {
+                long k = entry.getKey();
+                long la = k >> 32;
+                long ln = (int) k;
+                if (la >= fromLat && la <= toLat && ln >= fromLng && ln <= toLng) {
+                    Cell cell = entry.getValue();
+                    for (int i = 0; i < cell.size; i++) {
+                        visitor.visit(cell.ids[i], cell.lats[i], cell.lngs[i]);
+                    }
+                }
+            }
+            return;
+        }
+        for (long la = fromLat; la <= toLat; la++) {
+            for (long ln = fromLng; ln <= toLng; ln++) {
+                Cell cell = cells.get(key(la, ln));
+                if (cell == null) {
+                    continue;
+                }
+                for (int i = 0; i < cell.size; i++) {
+                    visitor.visit(cell.ids[i], cell.lats[i], cell.lngs[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Visite les points situés dans le rectangle.
+     */
+    public void visitBox(double minLat, double minLng, double maxLat, double maxLng, PointVisitor visitor) {
+        visitCells(minLat, minLng, maxLat, maxLng, (id, lat, lng) -> {
+            if (lat >= minLat && lat <= maxLat && lng >= minLng && lng <= maxLng) {
+                visitor.visit(id, lat, lng);
+            }
+        });
+    }
+
+    private long cellOf(double degrees) {
+        return (long) Math.floor(degrees / cellDegrees);
+    }
+
+    private static long key(long latCell, long lngCell) {
+        return (latCell << 32) ^ (lngCell & 0xffffffffL);
+    }
+}
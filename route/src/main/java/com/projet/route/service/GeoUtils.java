@@ -0,0 +1,91 @@
+package com.projet.route.service;
+
+/**
+ * Calculs géométriques en projection équirectangulaire locale, suffisante à l'échelle
+ * d'une ville (erreur négligeable sur quelques kilomètres).
+ */
+public final class GeoUtils {
+
+    public static final double METRES_PER_DEGREE_LAT = 111_320.0;
+    private static final double EARTH_RADIUS = 6_371_008.8;
+
+    private GeoUtils() {
+    }
+
+    // Au-delà, un degré de longitude tend vers 0 m et les boîtes de recherche vers le monde entier
+    private static final double MAX_BOX_LATITUDE = 89.0;
+
+    public static double metresPerDegreeLng(double latitude) {
+        return METRES_PER_DEGREE_LAT * Math.cos(Math.toRadians(latitude));
+    }
+
+    /**
+     * Demi-largeur en degrés de longitude d'une boîte de {@code metres} autour de {@code latitude},
+     * latitude plafonnée à 89° et résultat à 180°.
+     */
+    public static double lngDegrees(double metres, double latitude) {
+        double clamped = Math.min(Math.abs(latitude), MAX_BOX_LATITUDE);
+        return Math.min(180, metres / metresPerDegreeLng(clamped));
+    }
+
+    public static boolean isValidPosition(double lat, double lng) {
+        return lat >= -90 && lat <= 90 && lng >= -180 && lng <= 180;
+    }
+
+    public static double haversine(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    public static double distance(double lat1, double lng1, double lat2, double lng2) {
+        double dx = (lng2 - lng1) * metresPerDegreeLng((lat1 + lat2) / 2);
+        double dy = (lat2 - lat1) * METRES_PER_DEGREE_LAT;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * Distance en mètres du point P au segment [A, B], et position relative t ∈ [0, 1]
+     * de sa projection sur le segment. Renvoie {distance, t}.
+     */
+    public static double[] pointToSegment(double lat, double lng, double latA, double lngA, double latB, double lngB) {
+        double mLng = metresPerDegreeLng((latA + latB) / 2);
+        double bx = (lngB - lngA) * mLng;
+        double by = (latB - latA) * METRES_PER_DEGREE_LAT;
+        double px = (lng - lngA) * mLng;
+        double py = (lat - latA) * METRES_PER_DEGREE_LAT;
+        double lengthSq = bx * bx + by * by;
+        double t = lengthSq == 0 ? 0 : Math.max(0, Math.min(1, (px * bx + py * by) / lengthSq));
+        double dx = px - t * bx;
+        double dy = py - t * by;
+        return new double[]{Math.sqrt(dx * dx + dy * dy), t};
+    }
+
+    public static double segmentLength(double latA, double lngA, double latB, double lngB) {
+        double mLng = metresPerDegreeLng((latA + latB) / 2);
+        double dx = (lngB - lngA) * mLng;
+        double dy = (latB - latA) * METRES_PER_DEGREE_LAT;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * Test pair-impair sur tous les anneaux d'un polygone (extérieur puis trous),
+     * sommets en {@code lats[anneau][i]}, {@code lngs[anneau][i]}.
+     */
+    public static boolean pointInRings(double lat, double lng, double[][] lats, double[][] lngs) {
+        boolean inside = false;
+        for (int r = 0; r < lats.length; r++) {
+            double[] ys = lats[r];
+            double[] xs = lngs[r];
+            for (int i = 0, j = ys.length - 1; i < ys.length; j = i++) {
+                if ((ys[i] > lat) != (ys[j] > lat)
+                        && lng < (xs[j] - xs[i]) * (lat - ys[i]) / (ys[j] - ys[i]) + xs[i]) {
+                    inside = !inside;
+                }
+            }
+        }
+        return inside;
+    }
+}
@@ -0,0 +1,330 @@
+package com.projet.route.service;
+
+import com.projet.route.models.AbonnementZone;
+import com.projet.route.models.Signalement;
+import com.projet.route.repository.AbonnementZoneRepository;
+import com.projet.route.service.notification.Notification;
+import com.projet.route.service.notification.NotificationDispatcher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Abonnements à des zones (cercles ou polygones). Les zones actives sont rangées dans une
+ * grille régulière (case -> zones dont l'emprise la recoupe) : un signalement n'est testé
+ * exactement que contre les zones de sa case. Le rapprochement a lieu après commit et
+ * ne fait que déposer des notifications dans la file de NotificationDispatcher.
+ */
+@Service
+public class GeofenceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeofenceService.class);
+
+    @Autowired
+    private AbonnementZoneRepository abonnementZoneRepository;
+
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final double cellDegrees;
+
+    // Bornes d'une zone : rayon (m), sommets du polygone, cases de la grille couvertes
+    @Value("${abonnements.max-rayon:50000}")
+    private double maxRadius = 50000;
+
+    @Value("${abonnements.max-sommets:1000}")
+    private int maxVertices = 1000;
+
+    @Value("${abonnements.max-cases:10000}")
+    private long maxCells = 10000;
+
+    private final Map<Long, Zone> zones = new HashMap<>();
+    private final Map<Long, List<Zone>> cells = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private static final class Zone {
+        final long id;
+        final String nom;
+        final String canal;
+        final String destinataire;
+        // Cercle : centre et rayon ; polygone : anneaux
+        final double lat, lng, radius;
+        final double[][] lats;
+        final double[][] lngs;
+        final double minLat, minLng, maxLat, maxLng;
+
+        Zone(AbonnementZone abonnement, double[][] lats, double[][] lngs) {
+            this.id = abonnement.getId();
+            this.nom = abonnement.getNom();
+            this.canal = abonnement.getCanal();
+            this.destinataire = abonnement.getDestinataire();
+            this.lats = lats;
+            this.lngs = lngs;
+            if (lats == null) {
+                this.lat = abonnement.getCentreLatitude();
+                this.lng = abonnement.getCentreLongitude();
+                this.radius = abonnement.getRayon();
+                double dLat = radius / GeoUtils.METRES_PER_DEGREE_LAT;
+                double dLng = GeoUtils.lngDegrees(radius, lat);
+                this.minLat = lat - dLat;
+                this.maxLat = lat + dLat;
+                this.minLng = lng - dLng;
+                this.maxLng = lng + dLng;
+            } else {
+                this.lat = 0;
+                this.lng = 0;
+                this.radius = 0;
+                double aMinLat = Double.MAX_VALUE, aMinLng = Double.MAX_VALUE;
+                double aMaxLat = -Double.MAX_VALUE, aMaxLng = -Double.MAX_VALUE;
+                for (int i = 0; i < lats[0].length; i++) {
+                    aMinLat = Math.min(aMinLat, lats[0][i]);
+                    aMaxLat = Math.max(aMaxLat, lats[0][i]);
+                    aMinLng = Math.min(aMinLng, lngs[0][i]);
+                    aMaxLng = Math.max(aMaxLng, lngs[0][i]);
+                }
+                this.minLat = aMinLat;
+                this.minLng = aMinLng;
+                this.maxLat = aMaxLat;
+                this.maxLng = aMaxLng;
+            }
+        }
+
+        boolean contains(double pLat, double pLng) {
+            if (pLat < minLat || pLat > maxLat || pLng < minLng || pLng > maxLng) {
+                return false;
+            }
+            return lats == null
+                    ? GeoUtils.distance(lat, lng, pLat, pLng) <= radius
+                    : GeoUtils.pointInRings(pLat, pLng, lats, lngs);
+        }
+    }
+
+    public GeofenceService(@Value("${abonnements.cell-degrees:0.01}") double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            List<AbonnementZone> actifs = abonnementZoneRepository.findByActifTrue();
+            lock.writeLock().lock();
+            try {
+                for (AbonnementZone abonnement : actifs) {
+                    try {
+                        index(toZone(abonnement));
+                    } catch (IllegalArgumentException e) {
+                        logger.warn("Abonnement {} ignoré: {}", abonnement.getId(), e.getMessage());
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("Abonnements de zone chargés: {}", actifs.size());
+        } catch (Exception e) {
+            logger.warn("Chargement des abonnements de zone impossible: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Valide, enregistre et indexe un abonnement ; IllegalArgumentException si la géométrie
+     * ou le canal est invalide.
+     */
+    public AbonnementZone create(AbonnementZone abonnement) {
+        if (abonnement.getDestinataire() == null || abonnement.getDestinataire().isBlank()) {
+            throw new IllegalArgumentException("Le destinataire est requis");
+        }
+        if (!notificationDispatcher.supports(abonnement.getCanal())) {
+            throw new IllegalArgumentException("Canal inconnu: " + abonnement.getCanal());
+        }
+        abonnement.setId(null);
+        abonnement.setActif(true);
+        toZone(abonnement);
+        AbonnementZone saved = abonnementZoneRepository.save(abonnement);
+        Zone zone = toZone(saved);
+        lock.writeLock().lock();
+        try {
+            index(zone);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return saved;
+    }
+
+    public boolean delete(Long id) {
+        if (!abonnementZoneRepository.existsById(id)) {
+            return false;
+        }
+        abonnementZoneRepository.deleteById(id);
+        lock.writeLock().lock();
+        try {
+            unindex(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return true;
+    }
+
+    /**
+     * Identifiants des zones contenant le point.
+     */
+    public List<Long> match(double lat, double lng) {
+        List<Long> result = new ArrayList<>();
+        for (Zone zone : zonesAt(lat, lng)) {
+            result.add(zone.id);
+        }
+        return result;
+    }
+
+    /**
+     * Appelé par SignalementListener à chaque création ou modification.
+     */
+    public void onSignalementSaved(Signalement signalement, boolean created) {
+        if (signalement.getLatitude() == null || signalement.getLongitude() == null) {
+            return;
+        }
+        Long id = signalement.getIdSignalement();
+        double lat = signalement.getLatitude().doubleValue();
+        double lng = signalement.getLongitude().doubleValue();
+        String titre = created ? "Nouveau signalement" : "Signalement mis à jour";
+        String detail = (signalement.getTypeProbleme() != null ? signalement.getTypeProbleme() : "signalement")
+                + " (" + signalement.getStatut() + ")";
+        Runnable notify = () -> {
+            for (Zone zone : zonesAt(lat, lng)) {
+                notificationDispatcher.enqueue(new Notification(zone.canal, zone.destinataire, zone.id, id,
+                        titre, detail + (zone.nom != null ? " dans " + zone.nom : "")));
+            }
+        };
+        TransactionHooks.afterCommit(notify);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return zones.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Zone> zonesAt(double lat, double lng) {
+        List<Zone> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            List<Zone> candidates = cells.get(key((long) Math.floor(lat / cellDegrees), (long) Math.floor(lng / cellDegrees)));
+            if (candidates != null) {
+                for (Zone zone : candidates) {
+                    if (zone.contains(lat, lng)) {
+                        result.add(zone);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    private Zone toZone(AbonnementZone abonnement) {
+        if (abonnement.getPolygone() != null && !abonnement.getPolygone().isBlank()) {
+            JsonNode ring;
+            try {
+                ring = objectMapper.readTree(abonnement.getPolygone());
+            } catch (JacksonException e) {
+                throw new IllegalArgumentException("Polygone illisible: " + e.getOriginalMessage());
+            }
+            if (!ring.isArray() || ring.size() < 3) {
+                throw new IllegalArgumentException("Le polygone doit avoir au moins trois sommets [lng, lat]");
+            }
+            if (ring.size() > maxVertices) {
+                throw new IllegalArgumentException("Le polygone dépasse " + maxVertices + " sommets");
+            }
+            double[][] lats = new double[1][ring.size()];
+            double[][] lngs = new double[1][ring.size()];
+            for (int i = 0; i < ring.size(); i++) {
+                JsonNode vertex = ring.get(i);
+                if (!vertex.isArray() || vertex.size() < 2 || !vertex.get(0).isNumber() || !vertex.get(1).isNumber()) {
+                    throw new IllegalArgumentException("Sommet " + i + " invalide, [lng, lat] attendu");
+                }
+                lngs[0][i] = vertex.get(0).asDouble();
+                lats[0][i] = vertex.get(1).asDouble();
+                if (!GeoUtils.isValidPosition(lats[0][i], lngs[0][i])) {
+                    throw new IllegalArgumentException("Sommet " + i + " hors des coordonnées valides");
+                }
+            }
+            return checkCells(new Zone(abonnement, lats, lngs));
+        }
+        if (abonnement.getCentreLatitude() == null || abonnement.getCentreLongitude() == null
+                || abonnement.getRayon() == null || !(abonnement.getRayon() > 0)) {
+            throw new IllegalArgumentException("Un cercle (centre et rayon positif) ou un polygone est requis");
+        }
+        if (!GeoUtils.isValidPosition(abonnement.getCentreLatitude(), abonnement.getCentreLongitude())) {
+            throw new IllegalArgumentException("Centre hors des coordonnées valides");
+        }
+        if (abonnement.getRayon() > maxRadius) {
+            throw new IllegalArgumentException("Le rayon dépasse " + Math.round(maxRadius) + " m");
+        }
+        return checkCells(new Zone(abonnement, null, null));
+    }
+
+    // Borne le nombre de cases de la grille touchées par l'emprise (près des pôles notamment)
+    private Zone checkCells(Zone zone) {
+        long rows = (long) Math.floor(zone.maxLat / cellDegrees) - (long) Math.floor(zone.minLat / cellDegrees) + 1;
+        long cols = (long) Math.floor(zone.maxLng / cellDegrees) - (long) Math.floor(zone.minLng / cellDegrees) + 1;
+        if (rows * cols > maxCells) {
+            throw new IllegalArgumentException("Zone trop étendue (" + rows * cols + " cases, maximum " + maxCells + ")");
+        }
+        return zone;
+    }
+
+    // Appelants : verrou en écriture tenu
+    private void index(Zone zone) {
+        unindex(zone.id);
+        zones.put(zone.id, zone);
+        for (long la = (long) Math.floor(zone.minLat / cellDegrees); la <= (long) Math.floor(zone.maxLat / cellDegrees); la++) {
+            for (long ln = (long) Math.floor(zone.minLng / cellDegrees); ln <= (long) Math.floor(zone.maxLng / cellDegrees); ln++) {
+                cells.computeIfAbsent(key(la, ln), k -> new ArrayList<>()).add(zone);
+            }
+        }
+    }
+
+    private void unindex(long id) {
+        Zone zone = zones.remove(id);
+        if (zone == null) {
+            return;
+        }
+        for (long la = (long) Math.floor(zone.minLat / cellDegrees); la <= (long) Math.floor(zone.maxLat / cellDegrees); la++) {
+            for (long ln = (long) Math.floor(zone.minLng / cellDegrees); ln <= (long) Math.floor(zone.maxLng / cellDegrees); ln++) {
+                long k = key(la, ln);
+                List<Zone> list = cells.get(k);
+                if (list != null) {
+                    list.remove(zone);
+                    if (list.isEmpty()) {
+                        cells.remove(k);
+                    }
+                }
+            }
+        }
+    }
+
+    private static long key(long latCell, long lngCell) {
+        return (latCell << 32) ^ (lngCell & 0xffffffffL);
+    }
+}
@@ -0,0 +1,350 @@
+package com.projet.route.service;
+
+import com.projet.route.models.Signalement;
+import com.projet.route.repository.SignalementRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Grille de densité multi-résolution des signalements, pondérée par la surface, sur l'emprise
+ * de la carte. Chaque couple (statut, typeProbleme) a sa pyramide : un quadtree implicite
+ * stocké dans un float[] (niveau l = 2^l x 2^l cases, à l'offset (4^l - 1) / 3), où chaque
+ * case vaut la somme de ses quatre filles. Un signalement ajoute son poids à une case par niveau.
+ */
+@Service
+public class HeatmapService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HeatmapService.class);
+
+    public static final int MAX_PIXELS = 1024;
+
+    @Autowired
+    private SignalementRepository signalementRepository;
+
+    private final double minLng;
+    private final double minLat;
+    private final double maxLng;
+    private final double maxLat;
+    private final int maxLevel;
+    private final int pyramidSize;
+
+    private final List<Layer> layers = new ArrayList<>();
+    // Contribution actuelle de chaque signalement, pour la retirer lors d'une mise à jour
+    private final Map<Long, Contribution> contributions = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Écritures validées pendant une reconstruction, rejouées sur son résultat ; null hors reconstruction
+    private Map<Long, Point> pendingDuringRebuild;
+
+    private static final class Layer {
+        final String statut;
+        final String typeProbleme;
+        final float[] cells;
+
+        Layer(String statut, String typeProbleme, int size) {
+            this.statut = statut;
+            this.typeProbleme = typeProbleme;
+            this.cells = new float[size];
+        }
+    }
+
+    private static final class Contribution {
+        final Layer layer;
+        final int x;
+        final int y;
+        final float weight;
+
+        Contribution(Layer layer, int x, int y, float weight) {
+            this.layer = layer;
+            this.x = x;
+            this.y = y;
+            this.weight = weight;
+        }
+    }
+
+    // Position et attributs d'un signalement relevés au flush, appliqués après validation
+    private static final class Point {
+        final double lat;
+        final double lng;
+        final BigDecimal surface;
+        final String statut;
+        final String typeProbleme;
+
+        Point(double lat, double lng, BigDecimal surface, String statut, String typeProbleme) {
+            this.lat = lat;
+            this.lng = lng;
+            this.surface = surface;
+            this.statut = statut;
+            this.typeProbleme = typeProbleme;
+        }
+    }
+
+    /**
+     * Matrice de densité d'une fenêtre : {@code values[row * width + col]}, ligne 0 au nord.
+     */
+    public static class Matrix {
+        private final int width;
+        private final int height;
+        private final int level;
+        private final float max;
+        private final float[] values;
+
+        Matrix(int width, int height, int level, float max, float[] values) {
+            this.width = width;
+            this.height = height;
+            this.level = level;
+            this.max = max;
+            this.values = values;
+        }
+
+        public int getWidth() { return width; }
+        public int getHeight() { return height; }
+        public int getLevel() { return level; }
+        public float getMax() { return max; }
+        public float[] getValues() { return values; }
+    }
+
+    public HeatmapService(@Value("${heatmap.bounds:47.37,-19.025,47.679,-18.772}") String bounds,
+                          @Value("${heatmap.max-level:9}") int maxLevel) {
+        // Format de CARTE/config.json : minLng, minLat, maxLng, maxLat
+        String[] parts = bounds.split(",");
+        this.minLng = Double.parseDouble(parts[0].trim());
+        this.minLat = Double.parseDouble(parts[1].trim());
+        this.maxLng = Double.parseDouble(parts[2].trim());
+        this.maxLat = Double.parseDouble(parts[3].trim());
+        this.maxLevel = maxLevel;
+        this.pyramidSize = offset(maxLevel + 1);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.warn("Construction de la grille de densité impossible: {}", e.getMessage());
+        }
+    }
+
+    // Reconstruction périodique : borne la dérive des additions/soustractions en float
+    @Scheduled(initialDelayString = "${heatmap.rebuild-ms:3600000}", fixedDelayString = "${heatmap.rebuild-ms:3600000}")
+    public void rebuild() {
+        // Avant la lecture : toute écriture validée ensuite est rejouée sur la nouvelle grille
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<Object[]> rows;
+        try {
+            rows = signalementRepository.findHeatmapProjection();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            layers.clear();
+            contributions.clear();
+            for (Object[] row : rows) {
+                add((Long) row[0], ((BigDecimal) row[1]).doubleValue(), ((BigDecimal) row[2]).doubleValue(),
+                        (BigDecimal) row[3], (String) row[4], (String) row[5]);
+            }
+            pendingDuringRebuild.forEach(this::replace);
+            pendingDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Grille de densité construite: {} signalements dans l'emprise, {} couches", contributions.size(), layers.size());
+    }
+
+    /**
+     * Applique, après validation de la transaction, la position d'un signalement créé ou modifié.
+     */
+    public void onSaved(Signalement signalement) {
+        if (signalement.getIdSignalement() == null || signalement.getLatitude() == null || signalement.getLongitude() == null) {
+            return;
+        }
+        Long id = signalement.getIdSignalement();
+        // Valeurs lues maintenant : l'entité peut encore changer avant le commit
+        Point point = new Point(signalement.getLatitude().doubleValue(), signalement.getLongitude().doubleValue(),
+                signalement.getSurface(), signalement.getStatut(), signalement.getTypeProbleme());
+        TransactionHooks.afterCommit(() -> apply(id, point));
+    }
+
+    public void onDeleted(Long id) {
+        if (id == null) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> apply(id, null));
+    }
+
+    private void apply(Long id, Point point) {
+        lock.writeLock().lock();
+        try {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.put(id, point);
+            }
+            replace(id, point);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Appelants : verrou en écriture tenu ; point null = signalement supprimé
+    private void replace(Long id, Point point) {
+        remove(id);
+        if (point != null) {
+            add(id, point.lat, point.lng, point.surface, point.statut, point.typeProbleme);
+        }
+    }
+
+    /**
+     * Densité sur la fenêtre demandée, échantillonnée en {@code width} x {@code height} pixels
+     * depuis le niveau le plus grossier dont les cases ne dépassent pas un pixel.
+     * {@code statut} et {@code typeProbleme} null : pas de filtre.
+     */
+    public Matrix query(double vMinLat, double vMinLng, double vMaxLat, double vMaxLng,
+                        int width, int height, String statut, String typeProbleme) {
+        if (vMaxLat <= vMinLat || vMaxLng <= vMinLng) {
+            throw new IllegalArgumentException("Fenêtre vide");
+        }
+        if (width <= 0 || height <= 0 || width > MAX_PIXELS || height > MAX_PIXELS) {
+            throw new IllegalArgumentException("Résolution attendue entre 1 et " + MAX_PIXELS + " pixels");
+        }
+        double viewWidth = vMaxLng - vMinLng;
+        double viewHeight = vMaxLat - vMinLat;
+        double needed = Math.max(width * (maxLng - minLng) / viewWidth, height * (maxLat - minLat) / viewHeight);
+        int level = (int) Math.min(maxLevel, Math.max(0, Math.ceil(Math.log(needed) / Math.log(2))));
+        int n = 1 << level;
+        int base = offset(level);
+        double cellLng = (maxLng - minLng) / n;
+        double cellLat = (maxLat - minLat) / n;
+        int x0 = clamp((int) Math.floor((vMinLng - minLng) / cellLng), n);
+        int x1 = clamp((int) Math.floor((vMaxLng - minLng) / cellLng), n);
+        int y0 = clamp((int) Math.floor((vMinLat - minLat) / cellLat), n);
+        int y1 = clamp((int) Math.floor((vMaxLat - minLat) / cellLat), n);
+
+        float[] values = new float[width * height];
+        float max = 0;
+        lock.readLock().lock();
+        try {
+            for (Layer layer : layers) {
+                if ((statut != null && !statut.equals(layer.statut))
+                        || (typeProbleme != null && !typeProbleme.equals(layer.typeProbleme))) {
+                    continue;
+                }
+                float[] cells = layer.cells;
+                for (int y = y0; y <= y1; y++) {
+                    // Centre de la case : chaque case du niveau tombe dans un seul pixel
+                    double lat = minLat + (y + 0.5) * cellLat;
+                    int row = (int) Math.floor((vMaxLat - lat) / viewHeight * height);
+                    if (row < 0 || row >= height) {
+                        continue;
+                    }
+                    int rowStart = base + y * n;
+                    for (int x = x0; x <= x1; x++) {
+                        float v = cells[rowStart + x];
+                        if (v == 0) {
+                            continue;
+                        }
+                        double lng = minLng + (x + 0.5) * cellLng;
+                        int col = (int) Math.floor((lng - vMinLng) / viewWidth * width);
+                        if (col < 0 || col >= width) {
+                            continue;
+                        }
+                        float sum = values[row * width + col] += v;
+                        if (sum > max) {
+                            max = sum;
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new Matrix(width, height, level, max, values);
+    }
+
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("signalements", contributions.size());
+            stats.put("couches", layers.size());
+            stats.put("niveauMax", maxLevel);
+            stats.put("octets", (long) layers.size() * pyramidSize * Float.BYTES);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Appelants : verrou en écriture tenu
+    private void add(long id, double lat, double lng, BigDecimal surface, String statut, String typeProbleme) {
+        if (lat < minLat || lat >= maxLat || lng < minLng || lng >= maxLng) {
+            return;
+        }
+        int n = 1 << maxLevel;
+        int x = Math.min(n - 1, (int) ((lng - minLng) / (maxLng - minLng) * n));
+        int y = Math.min(n - 1, (int) ((lat - minLat) / (maxLat - minLat) * n));
+        // Signalement sans surface renseignée : poids unitaire
+        float weight = surface == null || surface.signum() <= 0 ? 1f : surface.floatValue();
+        Layer layer = layer(statut, typeProbleme);
+        accumulate(layer.cells, x, y, weight);
+        contributions.put(id, new Contribution(layer, x, y, weight));
+    }
+
+    private void remove(long id) {
+        Contribution previous = contributions.remove(id);
+        if (previous != null) {
+            accumulate(previous.layer.cells, previous.x, previous.y, -previous.weight);
+        }
+    }
+
+    private void accumulate(float[] cells, int x, int y, float weight) {
+        for (int level = maxLevel; level >= 0; level--) {
+            int shift = maxLevel - level;
+            cells[offset(level) + (y >> shift) * (1 << level) + (x >> shift)] += weight;
+        }
+    }
+
+    private Layer layer(String statut, String typeProbleme) {
+        for (Layer layer : layers) {
+            if (Objects.equals(layer.statut, statut) && Objects.equals(layer.typeProbleme, typeProbleme)) {
+                return layer;
+            }
+        }
+        Layer layer = new Layer(statut, typeProbleme, pyramidSize);
+        layers.add(layer);
+        return layer;
+    }
+
+    private static int offset(int level) {
+        return (int) (((1L << (2 * level)) - 1) / 3);
+    }
+
+    private static int clamp(int cell, int n) {
+        return Math.max(0, Math.min(n - 1, cell));
+    }
+}
@@ -0,0 +1,139 @@
+package com.projet.route.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Maintenance des partitions mensuelles de historiques_travaux : création des mois à venir
+ * et archivage (détachement vers le schéma "archive") des mois au-delà de la rétention.
+ * Sans effet si la table n'est pas partitionnée (voir db/migration/V3__historiques_travaux_partitionnes.sql).
+ */
+@Service
+public class HistoriquesPartitionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoriquesPartitionService.class);
+
+    private static final String TABLE = "historiques_travaux";
+    private static final String DEFAULT_PARTITION = TABLE + "_default";
+    private static final String ARCHIVE_SCHEMA = "archive";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${historiques.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${historiques.partitions.retention-months:24}")
+    private int retentionMonths;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            maintainPartitions();
+        } catch (Exception e) {
+            // La base peut ne pas être migrée : l'application doit démarrer quand même
+            logger.warn("Maintenance des partitions {} impossible: {}", TABLE, e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${historiques.partitions.cron:0 30 2 * * *}")
+    public void maintainPartitions() {
+        if (!isPartitioned()) {
+            logger.debug("{} n'est pas partitionnée, maintenance ignorée", TABLE);
+            return;
+        }
+        LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(currentMonth.plusMonths(i));
+        }
+        archivePartitionsBefore(currentMonth.minusMonths(retentionMonths));
+    }
+
+    public boolean isPartitioned() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_partitioned_table p JOIN pg_class c ON c.oid = p.partrelid "
+                        + "WHERE c.relname = ? AND c.relnamespace = 'public'::regnamespace",
+                Integer.class, TABLE);
+        return count != null && count > 0;
+    }
+
+    /**
+     * Crée la partition du mois. Si la partition DEFAULT contient déjà des lignes de ce mois,
+     * un simple PARTITION OF échouerait : la table est alors créée à part, les lignes y sont
+     * déplacées puis elle est attachée, le tout dans une transaction qui bloque les insertions
+     * dans DEFAULT pendant l'opération.
+     */
+    public void createPartition(LocalDate month) {
+        String name = partitionName(month);
+        // Noms et bornes générés ici, jamais issus d'une saisie utilisateur
+        String bounds = "FOR VALUES FROM ('" + month + "') TO ('" + month.plusMonths(1) + "')";
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            if (jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name)) {
+                return;
+            }
+            boolean hasDefault = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, DEFAULT_PARTITION);
+            if (hasDefault) {
+                jdbcTemplate.execute("LOCK TABLE " + DEFAULT_PARTITION + " IN SHARE ROW EXCLUSIVE MODE");
+            }
+            String range = "date_modification >= '" + month + "' AND date_modification < '" + month.plusMonths(1) + "'";
+            boolean rowsInDefault = hasDefault && jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION + " WHERE " + range + ")", Boolean.class);
+            if (!rowsInDefault) {
+                jdbcTemplate.execute("CREATE TABLE " + name + " PARTITION OF " + TABLE + " " + bounds);
+                return;
+            }
+            jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE " + TABLE + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            int moved = jdbcTemplate.update("WITH deplacees AS (DELETE FROM " + DEFAULT_PARTITION + " WHERE " + range
+                    + " RETURNING *) INSERT INTO " + name + " SELECT * FROM deplacees");
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + name + " " + bounds);
+            logger.info("Partition {} créée avec {} lignes reprises de {}", name, moved, DEFAULT_PARTITION);
+        });
+    }
+
+    /**
+     * Détache et déplace dans le schéma archive les partitions mensuelles antérieures à {@code limit}.
+     */
+    public List<String> archivePartitionsBefore(LocalDate limit) {
+        List<String> archived = new ArrayList<>();
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "JOIN pg_class p ON p.oid = i.inhparent WHERE p.relname = ? ORDER BY c.relname",
+                String.class, TABLE);
+        String limitName = partitionName(limit);
+        for (String partition : partitions) {
+            // historiques_travaux_AAAA_MM : l'ordre lexical suit l'ordre chronologique
+            if (!partition.matches(TABLE + "_\\d{4}_\\d{2}") || partition.compareTo(limitName) >= 0) {
+                continue;
+            }
+            jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + ARCHIVE_SCHEMA);
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition);
+            jdbcTemplate.execute("ALTER TABLE " + partition + " SET SCHEMA " + ARCHIVE_SCHEMA);
+            logger.info("Partition {} archivée dans le schéma {}", partition, ARCHIVE_SCHEMA);
+            archived.add(partition);
+        }
+        return archived;
+    }
+
+    private static String partitionName(LocalDate month) {
+        return TABLE + "_" + month.format(SUFFIX);
+    }
+}
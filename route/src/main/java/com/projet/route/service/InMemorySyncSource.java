@@ -0,0 +1,197 @@
+package com.projet.route.service;
+
+import com.google.cloud.Timestamp;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Source en mémoire alimentée par des documents synthétiques.
+ * Activée avec {@code sync.source=memory} ; sert aussi de base au benchmark d'import.
+ * {@code sync.memory.latency-ms} simule le temps de réponse de Firestore : chaque appel bloque
+ * le thread appelant comme un ApiFuture.get().
+ */
+@Component
+@ConditionalOnProperty(name = "sync.source", havingValue = "memory")
+public class InMemorySyncSource implements SyncSource {
+
+    private static final String[] TYPES = {"nid-de-poule", "route-inondee", "route-endommagee", "signalisation-manquante", "eclairage-defectueux", "autre"};
+    private static final String[] STATUTS = {"nouveau", "en cours", "terminé"};
+
+    // Emprise approximative d'Antananarivo (cf. CARTE)
+    private static final double LAT_MIN = -18.98;
+    private static final double LAT_MAX = -18.82;
+    private static final double LNG_MIN = 47.45;
+    private static final double LNG_MAX = 47.60;
+
+    private final Map<String, Map<String, Map<String, Object>>> collections = new ConcurrentHashMap<>();
+
+    private volatile long latencyMs;
+
+    public InMemorySyncSource() {
+    }
+
+    @Autowired
+    public InMemorySyncSource(@Value("${sync.memory.signalements:0}") int signalements,
+                              @Value("${sync.memory.travaux:0}") int travaux,
+                              @Value("${sync.memory.latency-ms:0}") long latencyMs) {
+        generate(signalements, travaux, 42L);
+        this.latencyMs = latencyMs;
+    }
+
+    public void setLatencyMs(long latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
+    /**
+     * Génère {@code signalements} signalements et {@code travaux} travaux synthétiques.
+     * Les types de coordonnées alternent entre Double, Long et String pour couvrir
+     * toutes les branches de conversion de l'import.
+     */
+    public void generate(int signalements, int travaux, long seed) {
+        Random random = new Random(seed);
+        Map<String, Map<String, Object>> sigs = collection(SIGNALEMENTS);
+        for (int i = 0; i < signalements; i++) {
+            Map<String, Object> data = new HashMap<>();
+            double lat = LAT_MIN + random.nextDouble() * (LAT_MAX - LAT_MIN);
+            double lng = LNG_MIN + random.nextDouble() * (LNG_MAX - LNG_MIN);
+            switch (i % 3) {
+                case 0:
+                    data.put("latitude", lat);
+                    data.put("longitude", lng);
+                    data.put("surface", 1 + random.nextDouble() * 50);
+                    break;
+                case 1:
+                    data.put("latitude", String.valueOf(lat));
+                    data.put("longitude", String.valueOf(lng));
+                    data.put("surface", (long) (1 + random.nextInt(50)));
+                    break;
+                default:
+                    data.put("latitude", lat);
+                    data.put("longitude", String.valueOf(lng));
+                    data.put("surface", String.valueOf(1 + random.nextInt(50)));
+                    break;
+            }
+            data.put("Id_User", "user-" + random.nextInt(1000));
+            data.put("type_probleme", TYPES[random.nextInt(TYPES.length)]);
+            data.put("description", "Signalement synthétique " + i);
+            data.put("statut", STATUTS[random.nextInt(STATUTS.length)]);
+            data.put("date_ajoute", Timestamp.ofTimeSecondsAndNanos(1_700_000_000L + random.nextInt(30_000_000), 0));
+            sigs.put(String.format("sig-%08d", i), data);
+        }
+
+        Map<String, Map<String, Object>> trvx = collection(TRAVAUX);
+        for (int i = 0; i < travaux; i++) {
+            Map<String, Object> data = new HashMap<>();
+            if (signalements > 0) {
+                data.put("id_signalement", String.format("sig-%08d", random.nextInt(signalements)));
+            }
+            data.put("budget", 100_000 + random.nextDouble() * 10_000_000);
+            long debut = 1_700_000_000L + random.nextInt(30_000_000);
+            data.put("date_debut_travaux", Timestamp.ofTimeSecondsAndNanos(debut, 0));
+            data.put("date_fin_travaux", Timestamp.ofTimeSecondsAndNanos(debut + 86_400L * (1 + random.nextInt(120)), 0));
+            data.put("avancement", (double) random.nextInt(101));
+            trvx.put(String.format("trv-%08d", i), data);
+        }
+    }
+
+    public void clear() {
+        collections.clear();
+    }
+
+    public int size(String collection) {
+        return collection(collection).size();
+    }
+
+    @Override
+    public List<SyncDocument> fetchAll(String collection) throws InterruptedException {
+        simulateLatency();
+        Map<String, Map<String, Object>> docs = collection(collection);
+        List<SyncDocument> result = new ArrayList<>(docs.size());
+        docs.forEach((id, data) -> result.add(new SyncDocument(id, new HashMap<>(data))));
+        return result;
+    }
+
+    @Override
+    public SyncDocument fetch(String collection, String docId) throws InterruptedException {
+        simulateLatency();
+        Map<String, Object> data = collection(collection).get(docId);
+        return data == null ? null : new SyncDocument(docId, new HashMap<>(data));
+    }
+
+    @Override
+    public List<SyncDocument> fetchPage(String collection, String startAfter, int limit, String... fields) throws InterruptedException {
+        simulateLatency();
+        TreeMap<String, Map<String, Object>> sorted = sorted(collection);
+        NavigableMap<String, Map<String, Object>> tail = startAfter == null ? sorted : sorted.tailMap(startAfter, false);
+        List<SyncDocument> result = new ArrayList<>(Math.min(limit, tail.size()));
+        for (var entry : tail.entrySet()) {
+            if (result.size() == limit) {
+                break;
+            }
+            Map<String, Object> data = new HashMap<>(entry.getValue());
+            if (fields.length > 0) {
+                data.keySet().retainAll(List.of(fields));
+            }
+            result.add(new SyncDocument(entry.getKey(), data));
+        }
+        return result;
+    }
+
+    @Override
+    public List<SyncDocument> fetchRange(String collection, String from, String to) throws InterruptedException {
+        simulateLatency();
+        TreeMap<String, Map<String, Object>> sorted = sorted(collection);
+        NavigableMap<String, Map<String, Object>> range = from == null ? sorted : sorted.tailMap(from, true);
+        if (to != null) {
+            range = range.headMap(to, false);
+        }
+        List<SyncDocument> result = new ArrayList<>(range.size());
+        range.forEach((id, data) -> result.add(new SyncDocument(id, new HashMap<>(data))));
+        return result;
+    }
+
+    @Override
+    public void write(String collection, String docId, Map<String, Object> data) throws InterruptedException {
+        simulateLatency();
+        collection(collection).put(docId, new HashMap<>(data));
+    }
+
+    @Override
+    public void writeBatch(List<SyncWrite> writes) throws InterruptedException {
+        // Un seul aller-retour pour tout le batch, comme WriteBatch.commit()
+        simulateLatency();
+        for (SyncWrite write : writes) {
+            collection(write.getCollection()).put(write.getDocId(), new HashMap<>(write.getData()));
+        }
+    }
+
+    private void simulateLatency() throws InterruptedException {
+        if (latencyMs > 0) {
+            Thread.sleep(latencyMs);
+        }
+    }
+
+    private TreeMap<String, Map<String, Object>> sorted(String name) {
+        Map<String, Map<String, Object>> docs = collection(name);
+        synchronized (docs) {
+            return new TreeMap<>(docs);
+        }
+    }
+
+    private Map<String, Map<String, Object>> collection(String name) {
+        return collections.computeIfAbsent(name, k -> Collections.synchronizedMap(new LinkedHashMap<>()));
+    }
+}
@@ -0,0 +1,193 @@
+package com.projet.route.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongToDoubleFunction;
+
+/**
+ * Tas binaire max indexé : identifiants long et scores double en tableaux parallèles,
+ * avec la position de chaque identifiant pour modifier ou retirer en O(log n).
+ * Les k plus grands sont lus sans modifier le tas en O(k log k). Non synchronisé.
+ */
+public class IndexedMaxHeap {
+
+    private long[] ids = new long[16];
+    private double[] scores = new double[16];
+    private final Map<Long, Integer> positions = new HashMap<>();
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(long id) {
+        return positions.containsKey(id);
+    }
+
+    public double score(long id) {
+        Integer position = positions.get(id);
+        return position == null ? Double.NaN : scores[position];
+    }
+
+    /**
+     * Insère l'identifiant ou met à jour son score.
+     */
+    public void put(long id, double score) {
+        Integer position = positions.get(id);
+        if (position == null) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            ids[size] = id;
+            scores[size] = score;
+            positions.put(id, size);
+            siftUp(size++);
+            return;
+        }
+        double previous = scores[position];
+        scores[position] = score;
+        if (score > previous) {
+            siftUp(position);
+        } else {
+            siftDown(position);
+        }
+    }
+
+    public void remove(long id) {
+        Integer position = positions.remove(id);
+        if (position == null) {
+            return;
+        }
+        size--;
+        if (position == size) {
+            return;
+        }
+        ids[position] = ids[size];
+        scores[position] = scores[size];
+        positions.put(ids[position], position);
+        siftUp(position);
+        siftDown(positions.get(ids[position]));
+    }
+
+    public void clear() {
+        positions.clear();
+        size = 0;
+    }
+
+    /**
+     * Remplace tous les scores puis reconstruit le tas en O(n).
+     */
+    public void rescoreAll(LongToDoubleFunction scorer) {
+        for (int i = 0; i < size; i++) {
+            scores[i] = scorer.applyAsDouble(ids[i]);
+        }
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * Les k identifiants de plus fort score, dans l'ordre décroissant. Un second petit tas
+     * de positions candidates part de la racine ; chaque extraction y ajoute les deux enfants.
+     */
+    public long[] top(int k) {
+        int count = Math.min(k, size);
+        long[] result = new long[count];
+        if (count == 0) {
+            return result;
+        }
+        int[] frontier = new int[2 * count + 1];
+        int frontierSize = 0;
+        frontier[frontierSize++] = 0;
+        for (int n = 0; n < count; n++) {
+            int best = frontier[0];
+            frontier[0] = frontier[--frontierSize];
+            siftDownFrontier(frontier, frontierSize, 0);
+            result[n] = ids[best];
+            for (int child = 2 * best + 1; child <= 2 * best + 2; child++) {
+                if (child < size) {
+                    frontier[frontierSize] = child;
+                    siftUpFrontier(frontier, frontierSize++);
+                }
+            }
+        }
+        return result;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (scores[parent] >= scores[i]) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int largest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && scores[left] > scores[largest]) {
+                largest = left;
+            }
+            if (right < size && scores[right] > scores[largest]) {
+                largest = right;
+            }
+            if (largest == i) {
+                return;
+            }
+            swap(i, largest);
+            i = largest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+        positions.put(ids[a], a);
+        positions.put(ids[b], b);
+    }
+
+    private void siftUpFrontier(int[] frontier, int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (scores[frontier[parent]] >= scores[frontier[i]]) {
+                break;
+            }
+            int tmp = frontier[parent];
+            frontier[parent] = frontier[i];
+            frontier[i] = tmp;
+            i = parent;
+        }
+    }
+
+    private void siftDownFrontier(int[] frontier, int frontierSize, int i) {
+        while (true) {
+            int largest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < frontierSize && scores[frontier[left]] > scores[frontier[largest]]) {
+                largest = left;
+            }
+            if (right < frontierSize && scores[frontier[right]] > scores[frontier[largest]]) {
+                largest = right;
+            }
+            if (largest == i) {
+                return;
+            }
+            int tmp = frontier[largest];
+            frontier[largest] = frontier[i];
+            frontier[i] = tmp;
+            i = largest;
+        }
+    }
+}
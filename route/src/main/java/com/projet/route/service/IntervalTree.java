@@ -0,0 +1,158 @@
+package com.projet.route.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Arbre d'intervalles fermés [start, end] sur des entiers (ici des jours epoch),
+ * implémenté en treap augmenté du maximum des fins de chaque sous-arbre.
+ * Insertion, suppression en O(log n) attendu ; recherche des k intervalles
+ * chevauchant une fenêtre en O(log n + k). Non synchronisé.
+ */
+public class IntervalTree<V> {
+
+    private static final class Node<V> {
+        final long start;
+        final long end;
+        final long id;
+        final V value;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        long maxEnd;
+        Node<V> left;
+        Node<V> right;
+
+        Node(long start, long end, long id, V value) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.value = value;
+            this.maxEnd = end;
+        }
+    }
+
+    private Node<V> root;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Ajoute l'intervalle identifié par {@code id} ; l'identifiant départage les débuts égaux.
+     */
+    public void insert(long start, long end, long id, V value) {
+        if (end < start) {
+            throw new IllegalArgumentException("Intervalle invalide: [" + start + ", " + end + "]");
+        }
+        root = insert(root, new Node<>(start, end, id, value));
+        size++;
+    }
+
+    public boolean remove(long start, long id) {
+        int before = size;
+        root = remove(root, start, id);
+        return size < before;
+    }
+
+    /**
+     * Valeurs des intervalles qui chevauchent [from, to].
+     */
+    public List<V> overlapping(long from, long to) {
+        List<V> result = new ArrayList<>();
+        collect(root, from, to, result);
+        return result;
+    }
+
+    private void collect(Node<V> node, long from, long to, List<V> result) {
+        if (node == null || node.maxEnd < from) {
+            return;
+        }
+        collect(node.left, from, to, result);
+        if (node.start <= to) {
+            if (node.end >= from) {
+                result.add(node.value);
+            }
+            collect(node.right, from, to, result);
+        }
+    }
+
+    private static int compare(long start, long id, Node<?> node) {
+        int c = Long.compare(start, node.start);
+        return c != 0 ? c : Long.compare(id, node.id);
+    }
+
+    private Node<V> insert(Node<V> node, Node<V> added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.id, node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private Node<V> remove(Node<V> node, long start, long id) {
+        if (node == null) {
+            return null;
+        }
+        int c = compare(start, id, node);
+        if (c < 0) {
+            node.left = remove(node.left, start, id);
+        } else if (c > 0) {
+            node.right = remove(node.right, start, id);
+        } else {
+            size--;
+            return merge(node.left, node.right);
+        }
+        update(node);
+        return node;
+    }
+
+    private Node<V> merge(Node<V> left, Node<V> right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private Node<V> rotateRight(Node<V> node) {
+        Node<V> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node<V> rotateLeft(Node<V> node) {
+        Node<V> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private void update(Node<V> node) {
+        long max = node.end;
+        if (node.left != null && node.left.maxEnd > max) max = node.left.maxEnd;
+        if (node.right != null && node.right.maxEnd > max) max = node.right.maxEnd;
+        node.maxEnd = max;
+    }
+}
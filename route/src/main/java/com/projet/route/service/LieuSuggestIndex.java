@@ -0,0 +1,287 @@
+package com.projet.route.service;
+
+import com.projet.route.models.Lieu;
+import com.projet.route.repository.LieuRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Index d'autocomplétion des lieux, insensible à la casse et aux accents : préfixes des mots
+ * de libelle et ville (TreeMap mot -> lieux) et trigrammes pour les fautes de frappe
+ * et les sous-chaînes. Construit au démarrage, mis à jour par LieuService.
+ */
+@Service
+public class LieuSuggestIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(LieuSuggestIndex.class);
+
+    public static final int MAX_RESULTS = 20;
+    // Au-delà, une requête trop courte ("a") cesse de collecter des candidats
+    private static final int MAX_CANDIDATES = 2000;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
+    @Autowired
+    private LieuRepository lieuRepository;
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final NavigableMap<String, Set<Long>> words = new TreeMap<>();
+    private final Map<String, Set<Long>> trigrams = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private static final class Entry {
+        final long id;
+        final String libelle;
+        final String ville;
+        final String normalizedLibelle;
+        final String[] tokens;
+        final Set<String> grams;
+
+        Entry(long id, String libelle, String ville) {
+            this.id = id;
+            this.libelle = libelle;
+            this.ville = ville;
+            this.normalizedLibelle = normalize(libelle);
+            Set<String> all = new HashSet<>();
+            for (String token : SEPARATORS.split(normalizedLibelle + " " + normalize(ville))) {
+                if (!token.isEmpty()) {
+                    all.add(token);
+                }
+            }
+            this.tokens = all.toArray(new String[0]);
+            this.grams = trigramsOf(normalizedLibelle);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.warn("Construction de l'index des lieux impossible: {}", e.getMessage());
+        }
+    }
+
+    public void rebuild() {
+        List<Lieu> lieux = lieuRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            words.clear();
+            trigrams.clear();
+            for (Lieu lieu : lieux) {
+                add(new Entry(lieu.getIdLieux(), lieu.getLibelle(), lieu.getVille()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Index des lieux construit: {} lieux, {} mots, {} trigrammes", lieux.size(), words.size(), trigrams.size());
+    }
+
+    public void put(Long id, String libelle, String ville) {
+        if (id == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeEntry(id);
+            add(new Entry(id, libelle, ville));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        if (id == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeEntry(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Au plus {@code limit} lieux correspondant à la saisie, du plus pertinent au moins pertinent :
+     * libellé identique, libellé commençant par la saisie, chaque mot saisi préfixe d'un mot
+     * du libellé ou de la ville, puis similarité de trigrammes.
+     */
+    public List<Map<String, Object>> suggest(String query, int limit) {
+        String q = normalize(query).trim();
+        int max = Math.max(1, Math.min(limit, MAX_RESULTS));
+        if (q.isEmpty()) {
+            return List.of();
+        }
+        String[] queryTokens = SEPARATORS.split(q);
+        List<Scored> scored = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Set<Long> candidates = prefixCandidates(queryTokens);
+            for (Long id : candidates) {
+                Entry entry = entries.get(id);
+                scored.add(new Scored(entry, prefixScore(entry, q)));
+            }
+            if (candidates.size() < max && q.length() >= 3) {
+                Set<String> queryGrams = trigramsOf(q);
+                Map<Long, Integer> shared = new HashMap<>();
+                for (String gram : queryGrams) {
+                    Set<Long> ids = trigrams.get(gram);
+                    if (ids != null) {
+                        for (Long id : ids) {
+                            shared.merge(id, 1, Integer::sum);
+                        }
+                    }
+                }
+                for (Map.Entry<Long, Integer> e : shared.entrySet()) {
+                    if (candidates.contains(e.getKey()) || e.getValue() * 2 < queryGrams.size()) {
+                        continue;
+                    }
+                    Entry entry = entries.get(e.getKey());
+                    // Coefficient de Jaccard sur les trigrammes
+                    double similarity = (double) e.getValue() / (queryGrams.size() + entry.grams.size() - e.getValue());
+                    scored.add(new Scored(entry, (int) Math.round(similarity * 100)));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        scored.sort((a, b) -> a.score != b.score ? Integer.compare(b.score, a.score)
+                : a.entry.libelle.length() != b.entry.libelle.length() ? Integer.compare(a.entry.libelle.length(), b.entry.libelle.length())
+                : a.entry.libelle.compareTo(b.entry.libelle));
+        List<Map<String, Object>> result = new ArrayList<>(Math.min(max, scored.size()));
+        for (Scored s : scored.subList(0, Math.min(max, scored.size()))) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("idLieux", s.entry.id);
+            item.put("libelle", s.entry.libelle);
+            item.put("ville", s.entry.ville);
+            item.put("score", s.score);
+            result.add(item);
+        }
+        return result;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static final class Scored {
+        final Entry entry;
+        final int score;
+
+        Scored(Entry entry, int score) {
+            this.entry = entry;
+            this.score = score;
+        }
+    }
+
+    // Lieux dont chaque mot saisi préfixe au moins un mot (libelle ou ville)
+    private Set<Long> prefixCandidates(String[] queryTokens) {
+        Set<Long> result = null;
+        for (String token : queryTokens) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            Set<Long> matching = new HashSet<>();
+            for (Set<Long> ids : words.subMap(token, true, token + Character.MAX_VALUE, false).values()) {
+                matching.addAll(ids);
+                if (matching.size() >= MAX_CANDIDATES) {
+                    break;
+                }
+            }
+            if (result == null) {
+                result = matching;
+            } else {
+                result.retainAll(matching);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result == null ? new HashSet<>() : result;
+    }
+
+    private static int prefixScore(Entry entry, String q) {
+        if (entry.normalizedLibelle.equals(q)) {
+            return 1000;
+        }
+        if (entry.normalizedLibelle.startsWith(q)) {
+            return 500;
+        }
+        return 300;
+    }
+
+    private void add(Entry entry) {
+        entries.put(entry.id, entry);
+        for (String token : entry.tokens) {
+            words.computeIfAbsent(token, k -> new HashSet<>()).add(entry.id);
+        }
+        for (String gram : entry.grams) {
+            trigrams.computeIfAbsent(gram, k -> new HashSet<>()).add(entry.id);
+        }
+    }
+
+    private void removeEntry(long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (String token : entry.tokens) {
+            Set<Long> ids = words.get(token);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                words.remove(token);
+            }
+        }
+        for (String gram : entry.grams) {
+            Set<Long> ids = trigrams.get(gram);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                trigrams.remove(gram);
+            }
+        }
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value.toLowerCase(), Normalizer.Form.NFD);
+        return SEPARATORS.matcher(MARKS.matcher(decomposed).replaceAll("")).replaceAll(" ");
+    }
+
+    // Trigrammes du texte encadré d'espaces, pour que les débuts de mots comptent
+    private static Set<String> trigramsOf(String normalized) {
+        String padded = "  " + normalized.trim() + " ";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,142 @@
+package com.projet.route.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Arbre de hachage (type Merkle) sur des plages contiguës d'identifiants Firestore.
+ * Les plages sont données par leurs premières clés, triées dans l'ordre binaire (celui de
+ * Firestore et de {@code COLLATE "C"}) : la feuille i couvre [bornes[i], bornes[i+1]),
+ * la première s'étend vers le bas et la dernière vers le haut. Une feuille contient la
+ * somme des empreintes de ses documents (indépendante de l'ordre de lecture), soit calculée
+ * par Postgres, soit accumulée avec {@link #add} ; chaque noeud interne combine ses deux fils.
+ */
+public class RangeHashTree {
+
+    private final String[] bounds;
+    private final int leaves;
+    // Tas implicite : racine en 1, fils de i en 2i et 2i+1, feuilles en [leaves, 2*leaves)
+    private final long[] nodes;
+    private boolean built;
+
+    public RangeHashTree(String[] bounds) {
+        if (bounds.length == 0) {
+            throw new IllegalArgumentException("Au moins une plage est nécessaire");
+        }
+        for (int i = 1; i < bounds.length; i++) {
+            if (bounds[i - 1].compareTo(bounds[i]) >= 0) {
+                throw new IllegalArgumentException("Bornes non strictement croissantes à l'indice " + i);
+            }
+        }
+        this.bounds = bounds.clone();
+        int size = 1;
+        while (size < bounds.length) {
+            size <<= 1;
+        }
+        this.leaves = size;
+        this.nodes = new long[2 * leaves];
+    }
+
+    public int getRanges() { return bounds.length; }
+
+    public String[] getBounds() { return bounds.clone(); }
+
+    public int leafOf(String id) {
+        int i = Arrays.binarySearch(bounds, id);
+        return i >= 0 ? i : Math.max(0, -i - 2);
+    }
+
+    /**
+     * Borne basse incluse de la plage, ou null pour la première.
+     */
+    public String from(int leaf) {
+        return leaf == 0 ? null : bounds[leaf];
+    }
+
+    /**
+     * Borne haute exclue de la plage, ou null pour la dernière.
+     */
+    public String to(int leaf) {
+        return leaf + 1 < bounds.length ? bounds[leaf + 1] : null;
+    }
+
+    public void setLeaf(int leaf, long hash) {
+        nodes[leaves + leaf] = hash;
+        built = false;
+    }
+
+    /**
+     * Ajoute un document à sa plage ; {@code hash} vient de {@link #rowHash}.
+     */
+    public void add(String id, long hash) {
+        nodes[leaves + leafOf(id)] += hash;
+        built = false;
+    }
+
+    public long rootHash() {
+        build();
+        return nodes[1];
+    }
+
+    /**
+     * Feuilles dont le hachage diffère, en ne descendant que dans les sous-arbres divergents.
+     */
+    public List<Integer> divergentLeaves(RangeHashTree other, int[] comparisons) {
+        if (!Arrays.equals(bounds, other.bounds)) {
+            throw new IllegalArgumentException("Les deux arbres doivent partager les mêmes plages");
+        }
+        build();
+        other.build();
+        List<Integer> result = new ArrayList<>();
+        collect(1, other, result, comparisons);
+        return result;
+    }
+
+    private void collect(int node, RangeHashTree other, List<Integer> result, int[] comparisons) {
+        comparisons[0]++;
+        if (nodes[node] == other.nodes[node]) {
+            return;
+        }
+        if (node >= leaves) {
+            result.add(node - leaves);
+            return;
+        }
+        collect(2 * node, other, result, comparisons);
+        collect(2 * node + 1, other, result, comparisons);
+    }
+
+    private void build() {
+        if (built) {
+            return;
+        }
+        for (int i = leaves - 1; i >= 1; i--) {
+            nodes[i] = mix(nodes[2 * i] * 31 + nodes[2 * i + 1]);
+        }
+        built = true;
+    }
+
+    /**
+     * Empreinte d'un document : 64 premiers bits de md5(clé|forme canonique), comme
+     * {@code CAST(CAST('x' || substr(md5(...), 1, 16) AS bit(64)) AS bigint)} côté Postgres.
+     */
+    public static long rowHash(String key, String canonical) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest((key + '|' + canonical).getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 indisponible", e);
+        }
+    }
+
+    // Finaliseur de SplitMix64, pour répartir les bits des noeuds internes
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
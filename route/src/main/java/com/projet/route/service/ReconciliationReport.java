@@ -0,0 +1,88 @@
+package com.projet.route.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Résultat d'une réconciliation Postgres / Firestore.
+ */
+public class ReconciliationReport {
+
+    private static final int MAX_IDS = 100;
+
+    private final LocalDateTime date = LocalDateTime.now();
+    private final boolean repair;
+    private final List<CollectionReport> collections = new ArrayList<>();
+
+    public ReconciliationReport(boolean repair) {
+        this.repair = repair;
+    }
+
+    public LocalDateTime getDate() { return date; }
+    public boolean isRepair() { return repair; }
+    public List<CollectionReport> getCollections() { return collections; }
+
+    public boolean isConsistent() {
+        return collections.stream().allMatch(c -> c.getDivergentRanges() == 0);
+    }
+
+    public static class CollectionReport {
+        private final String collection;
+        private int localCount;
+        private int remoteCount;
+        private int ranges;
+        private int hashComparisons;
+        private int divergentRanges;
+        private int missingLocalCount;
+        private int missingRemoteCount;
+        private int differentCount;
+        private int repaired;
+        // Écritures Firestore mises en file, pas encore confirmées
+        private int enqueued;
+        private final List<String> missingLocal = new ArrayList<>();
+        private final List<String> missingRemote = new ArrayList<>();
+        private final List<String> different = new ArrayList<>();
+
+        public CollectionReport(String collection) {
+            this.collection = collection;
+        }
+
+        void addMissingLocal(String id) {
+            missingLocalCount++;
+            if (missingLocal.size() < MAX_IDS) missingLocal.add(id);
+        }
+
+        void addMissingRemote(String id) {
+            missingRemoteCount++;
+            if (missingRemote.size() < MAX_IDS) missingRemote.add(id);
+        }
+
+        void addDifferent(String id) {
+            differentCount++;
+            if (different.size() < MAX_IDS) different.add(id);
+        }
+
+        public String getCollection() { return collection; }
+        public int getLocalCount() { return localCount; }
+        void setLocalCount(int localCount) { this.localCount = localCount; }
+        public int getRemoteCount() { return remoteCount; }
+        void setRemoteCount(int remoteCount) { this.remoteCount = remoteCount; }
+        public int getRanges() { return ranges; }
+        void setRanges(int ranges) { this.ranges = ranges; }
+        public int getHashComparisons() { return hashComparisons; }
+        void setHashComparisons(int hashComparisons) { this.hashComparisons = hashComparisons; }
+        public int getDivergentRanges() { return divergentRanges; }
+        void setDivergentRanges(int divergentRanges) { this.divergentRanges = divergentRanges; }
+        public int getMissingLocalCount() { return missingLocalCount; }
+        public int getMissingRemoteCount() { return missingRemoteCount; }
+        public int getDifferentCount() { return differentCount; }
+        public int getRepaired() { return repaired; }
+        void incrementRepaired() { repaired++; }
+        public int getEnqueued() { return enqueued; }
+        void incrementEnqueued() { enqueued++; }
+        public List<String> getMissingLocal() { return missingLocal; }
+        public List<String> getMissingRemote() { return missingRemote; }
+        public List<String> getDifferent() { return different; }
+    }
+}
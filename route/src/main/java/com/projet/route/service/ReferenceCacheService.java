@@ -0,0 +1,130 @@
+package com.projet.route.service;
+
+import com.projet.route.models.Entreprise;
+import com.projet.route.models.Lieu;
+import com.projet.route.models.Lieux;
+import com.projet.route.models.ParametreAuth;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache de second niveau Hibernate des données de référence (entreprises, lieux, rôles,
+ * paramètres d'authentification) : invalidation explicite et taux de succès par région.
+ *
+ * Hibernate tient déjà le cache à jour pour les écritures faites par entité ; l'invalidation
+ * explicite couvre les deux entités Lieu et Lieux mappées sur la même table (une écriture de
+ * l'une ne touche pas la région de l'autre) et les résultats de requêtes en cache.
+ * Tailles des régions : src/main/resources/application.conf.
+ */
+@Service
+public class ReferenceCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceCacheService.class);
+
+    // Région des requêtes de référence marquées org.hibernate.cacheable dans les repositories
+    public static final String REGION_REQUETES = "reference-requetes";
+
+    private static final List<String> REGIONS = List.of("entreprise", "lieu", "lieux", "role", "parametre_auth");
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    public void evictEntreprise(Long idEntreprise) {
+        TransactionHooks.afterCommit(() -> {
+            cache().evict(Entreprise.class, idEntreprise);
+            evictRequetes();
+        });
+    }
+
+    public void evictLieu(Long idLieux) {
+        TransactionHooks.afterCommit(() -> {
+            cache().evict(Lieu.class, idLieux);
+            cache().evict(Lieux.class, idLieux);
+            evictRequetes();
+        });
+    }
+
+    public void evictParametre(String cle) {
+        TransactionHooks.afterCommit(() -> {
+            cache().evict(ParametreAuth.class, cle);
+            evictRequetes();
+        });
+    }
+
+    public void evictAll() {
+        sessionFactory().getCache().evictAll();
+        logger.info("Cache de second niveau vidé");
+    }
+
+    private void evictRequetes() {
+        sessionFactory().getCache().evictQueryRegion(REGION_REQUETES);
+    }
+
+    private jakarta.persistence.Cache cache() {
+        return entityManagerFactory.getCache();
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    /**
+     * Succès, échecs, insertions et taux de succès par région d'entité et pour les requêtes
+     * (statistiques Hibernate depuis le démarrage).
+     */
+    public Map<String, Object> getStats() {
+        Statistics statistics = sessionFactory().getStatistics();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("statistiquesActives", statistics.isStatisticsEnabled());
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String region : REGIONS) {
+            try {
+                regions.put(region, regionStats(statistics.getDomainDataRegionStatistics(region)));
+            } catch (IllegalArgumentException e) {
+                // Région absente : cache de second niveau désactivé
+                regions.put(region, Map.of());
+            }
+        }
+        // Région créée à la première requête mise en cache
+        regions.put(REGION_REQUETES, regionStats(statistics.getQueryRegionStatistics(REGION_REQUETES)));
+        stats.put("regions", regions);
+
+        long hits = statistics.getSecondLevelCacheHitCount();
+        long misses = statistics.getSecondLevelCacheMissCount();
+        stats.put("succes", hits);
+        stats.put("echecs", misses);
+        stats.put("tauxSucces", ratio(hits, misses));
+        stats.put("tauxSuccesRequetes", ratio(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount()));
+        return stats;
+    }
+
+    private Map<String, Object> regionStats(CacheRegionStatistics region) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        if (region == null) {
+            return stats;
+        }
+        stats.put("succes", region.getHitCount());
+        stats.put("echecs", region.getMissCount());
+        stats.put("insertions", region.getPutCount());
+        stats.put("tauxSucces", ratio(region.getHitCount(), region.getMissCount()));
+        if (region.getElementCountInMemory() >= 0) {
+            stats.put("elements", region.getElementCountInMemory());
+        }
+        return stats;
+    }
+
+    private static Double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? null : Math.round(hits * 10000.0 / total) / 10000.0;
+    }
+}
@@ -0,0 +1,335 @@
+package com.projet.route.service;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import com.projet.route.models.Lieux;
+import com.projet.route.models.Signalement;
+import com.projet.route.repository.LieuxRepository;
+import com.projet.route.repository.SignalementRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Géocodage inverse hors ligne : les polygones des quartiers sont lus depuis un fichier
+ * GeoJSON local et rattachés à une ligne de la table lieux (créée si besoin). Un point est
+ * localisé via une grille régulière (case -> polygones dont l'emprise la recoupe), puis
+ * un test pair-impair sur les anneaux du polygone (les trous sont donc exclus).
+ */
+@Service
+public class ReverseGeocodingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReverseGeocodingService.class);
+
+    // Longueur de lieux.libelle / lieux.ville
+    private static final int MAX_LIBELLE = 50;
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LieuxRepository lieuxRepository;
+
+    @Autowired
+    private SignalementRepository signalementRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private LieuSuggestIndex lieuSuggestIndex;
+
+    @Value("${geocodage.quartiers:classpath:quartiers.geojson}")
+    private String quartiersLocation;
+
+    @Value("${geocodage.cell-degrees:0.005}")
+    private double cellDegrees;
+
+    @Value("${geocodage.backfill-au-demarrage:false}")
+    private boolean backfillOnStartup;
+
+    @Value("${geocodage.backfill.batch-size:1000}")
+    private int backfillBatchSize;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    private static final class Polygon {
+        final long idLieux;
+        final double[][] lats;
+        final double[][] lngs;
+        final double minLat, minLng, maxLat, maxLng;
+
+        Polygon(long idLieux, double[][] lats, double[][] lngs) {
+            this.idLieux = idLieux;
+            this.lats = lats;
+            this.lngs = lngs;
+            double aMinLat = Double.MAX_VALUE, aMinLng = Double.MAX_VALUE;
+            double aMaxLat = -Double.MAX_VALUE, aMaxLng = -Double.MAX_VALUE;
+            // L'anneau extérieur suffit pour l'emprise
+            for (int i = 0; i < lats[0].length; i++) {
+                aMinLat = Math.min(aMinLat, lats[0][i]);
+                aMaxLat = Math.max(aMaxLat, lats[0][i]);
+                aMinLng = Math.min(aMinLng, lngs[0][i]);
+                aMaxLng = Math.max(aMaxLng, lngs[0][i]);
+            }
+            this.minLat = aMinLat;
+            this.minLng = aMinLng;
+            this.maxLat = aMaxLat;
+            this.maxLng = aMaxLng;
+        }
+
+        boolean contains(double lat, double lng) {
+            if (lat < minLat || lat > maxLat || lng < minLng || lng > maxLng) {
+                return false;
+            }
+            return GeoUtils.pointInRings(lat, lng, lats, lngs);
+        }
+    }
+
+    /**
+     * Index immuable, remplacé d'un bloc au rechargement.
+     */
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new Polygon[0], new HashMap<>(), 1);
+
+        final Polygon[] polygons;
+        final Map<Long, int[]> cells;
+        final double cellDegrees;
+
+        Snapshot(Polygon[] polygons, Map<Long, int[]> cells, double cellDegrees) {
+            this.polygons = polygons;
+            this.cells = cells;
+            this.cellDegrees = cellDegrees;
+        }
+
+        long cellKey(double lat, double lng) {
+            return key((long) Math.floor(lat / cellDegrees), (long) Math.floor(lng / cellDegrees));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            reload();
+            if (backfillOnStartup) {
+                backfill();
+            }
+        } catch (Exception e) {
+            logger.warn("Chargement des quartiers impossible ({}): {}", quartiersLocation, e.getMessage());
+        }
+    }
+
+    /**
+     * Relit le fichier GeoJSON (FeatureCollection de Polygon / MultiPolygon, nom du quartier
+     * dans properties.nom ou properties.name, ville optionnelle dans properties.ville).
+     */
+    public int reload() throws IOException {
+        Resource resource = resourceLoader.getResource(quartiersLocation);
+        if (!resource.exists()) {
+            logger.info("Aucun fichier de quartiers ({}), géocodage inverse désactivé", quartiersLocation);
+            snapshot = Snapshot.EMPTY;
+            return 0;
+        }
+        JsonNode root;
+        try (InputStream in = resource.getInputStream()) {
+            root = objectMapper.readTree(in);
+        }
+
+        List<Polygon> polygons = new ArrayList<>();
+        JsonNode features = root.path("features");
+        for (int f = 0; f < features.size(); f++) {
+            JsonNode feature = features.get(f);
+            JsonNode properties = feature.path("properties");
+            String nom = properties.hasNonNull("nom") ? properties.get("nom").asString()
+                    : properties.hasNonNull("name") ? properties.get("name").asString() : null;
+            JsonNode geometry = feature.path("geometry");
+            if (nom == null || nom.isBlank() || geometry.isMissingNode()) {
+                continue;
+            }
+            String ville = properties.hasNonNull("ville") ? truncate(properties.get("ville").asString()) : null;
+            long idLieux = resolveLieux(truncate(nom), ville);
+            String type = geometry.path("type").asString();
+            if ("Polygon".equals(type)) {
+                polygons.add(toPolygon(idLieux, geometry.path("coordinates")));
+            } else if ("MultiPolygon".equals(type)) {
+                JsonNode parts = geometry.path("coordinates");
+                for (int i = 0; i < parts.size(); i++) {
+                    polygons.add(toPolygon(idLieux, parts.get(i)));
+                }
+            }
+        }
+
+        Map<Long, List<Integer>> building = new HashMap<>();
+        for (int p = 0; p < polygons.size(); p++) {
+            Polygon polygon = polygons.get(p);
+            for (long la = (long) Math.floor(polygon.minLat / cellDegrees); la <= (long) Math.floor(polygon.maxLat / cellDegrees); la++) {
+                for (long ln = (long) Math.floor(polygon.minLng / cellDegrees); ln <= (long) Math.floor(polygon.maxLng / cellDegrees); ln++) {
+                    building.computeIfAbsent(key(la, ln), k -> new ArrayList<>()).add(p);
+                }
+            }
+        }
+        Map<Long, int[]> cells = new HashMap<>(building.size() * 2);
+        for (Map.Entry<Long, List<Integer>> entry : building.entrySet()) {
+            cells.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+        snapshot = new Snapshot(polygons.toArray(new Polygon[0]), cells, cellDegrees);
+        logger.info("Quartiers chargés: {} polygones, {} cases", polygons.size(), cells.size());
+        return polygons.size();
+    }
+
+    /**
+     * Identifiant du lieu contenant le point, ou null. En cas de chevauchement, le premier
+     * polygone du fichier l'emporte.
+     */
+    public Long locate(double lat, double lng) {
+        Snapshot current = snapshot;
+        int[] candidates = current.cells.get(current.cellKey(lat, lng));
+        if (candidates == null) {
+            return null;
+        }
+        for (int p : candidates) {
+            Polygon polygon = current.polygons[p];
+            if (polygon.contains(lat, lng)) {
+                return polygon.idLieux;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Renseigne le lieu d'un signalement qui n'en a pas, avant enregistrement.
+     */
+    public void assign(Signalement signalement) {
+        if (signalement.getLieux() != null || signalement.getLatitude() == null || signalement.getLongitude() == null) {
+            return;
+        }
+        Long idLieux = locate(signalement.getLatitude().doubleValue(), signalement.getLongitude().doubleValue());
+        if (idLieux != null) {
+            signalement.setLieux(lieuxRepository.getReferenceById(idLieux));
+        }
+    }
+
+    /**
+     * Géocode par lots les signalements existants sans lieu. Le parcours ne lit qu'identifiant
+     * et position ; les signalements à rattacher sont ensuite enregistrés via le repository,
+     * une transaction par lot, pour que les listeners JPA mettent à jour les index en mémoire.
+     */
+    public Map<String, Object> backfill() {
+        long start = System.nanoTime();
+        long after = 0;
+        int scanned = 0;
+        int assigned = 0;
+        while (true) {
+            List<Object[]> rows = signalementRepository.findPositionsSansLieu(after, PageRequest.of(0, backfillBatchSize));
+            if (rows.isEmpty()) {
+                break;
+            }
+            Map<Long, Long> updates = new HashMap<>();
+            for (Object[] row : rows) {
+                Long id = (Long) row[0];
+                Long idLieux = locate(((BigDecimal) row[1]).doubleValue(), ((BigDecimal) row[2]).doubleValue());
+                if (idLieux != null) {
+                    updates.put(id, idLieux);
+                }
+                after = id;
+            }
+            if (!updates.isEmpty()) {
+                assigned += assignBatch(updates);
+            }
+            scanned += rows.size();
+        }
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        logger.info("geocodage.backfill scanned={} assigned={} durationMs={}", scanned, assigned, durationMs);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("parcourus", scanned);
+        report.put("rattaches", assigned);
+        report.put("dureeMs", durationMs);
+        return report;
+    }
+
+    // Un lieu renseigné entre le parcours et l'écriture n'est pas écrasé
+    private int assignBatch(Map<Long, Long> updates) {
+        Integer count = new TransactionTemplate(transactionManager).execute(status -> {
+            List<Signalement> changed = new ArrayList<>();
+            for (Signalement signalement : signalementRepository.findAllById(updates.keySet())) {
+                if (signalement.getLieux() == null) {
+                    signalement.setLieux(lieuxRepository.getReferenceById(updates.get(signalement.getIdSignalement())));
+                    changed.add(signalement);
+                }
+            }
+            signalementRepository.saveAll(changed);
+            return changed.size();
+        });
+        return count == null ? 0 : count;
+    }
+
+    public Map<String, Object> getStats() {
+        Snapshot current = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("fichier", quartiersLocation);
+        stats.put("polygones", current.polygons.length);
+        stats.put("cases", current.cells.size());
+        return stats;
+    }
+
+    private long resolveLieux(String libelle, String ville) {
+        return lieuxRepository.findFirstByLibelleAndVille(libelle, ville)
+                .orElseGet(() -> {
+                    Lieux lieux = new Lieux();
+                    lieux.setLibelle(libelle);
+                    lieux.setVille(ville);
+                    lieux.setDescription("Quartier importé depuis " + quartiersLocation);
+                    Lieux saved = lieuxRepository.save(lieux);
+                    lieuSuggestIndex.put(saved.getIdLieux(), saved.getLibelle(), saved.getVille());
+                    return saved;
+                })
+                .getIdLieux();
+    }
+
+    // Coordonnées GeoJSON : [longitude, latitude], premier anneau extérieur puis trous
+    private static Polygon toPolygon(long idLieux, JsonNode rings) {
+        double[][] lats = new double[rings.size()][];
+        double[][] lngs = new double[rings.size()][];
+        for (int r = 0; r < rings.size(); r++) {
+            JsonNode ring = rings.get(r);
+            lats[r] = new double[ring.size()];
+            lngs[r] = new double[ring.size()];
+            for (int i = 0; i < ring.size(); i++) {
+                lngs[r][i] = ring.get(i).get(0).asDouble();
+                lats[r][i] = ring.get(i).get(1).asDouble();
+            }
+        }
+        return new Polygon(idLieux, lats, lngs);
+    }
+
+    private static String truncate(String value) {
+        return value.length() > MAX_LIBELLE ? value.substring(0, MAX_LIBELLE) : value;
+    }
+
+    private static long key(long latCell, long lngCell) {
+        return (latCell << 32) ^ (lngCell & 0xffffffffL);
+    }
+}
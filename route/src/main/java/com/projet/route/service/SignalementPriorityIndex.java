@@ -0,0 +1,274 @@
+package com.projet.route.service;
+
+import com.projet.route.models.Signalement;
+import com.projet.route.models.Travaux;
+import com.projet.route.repository.SignalementRepository;
+import com.projet.route.repository.TravauxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Priorité des signalements ouverts (statut hors {@link StatutsSignalement#FERMES}), tenue dans un
+ * {@link IndexedMaxHeap} mis à jour après le commit de chaque écriture de signalement ou de travaux.
+ *
+ * score = poids(type) x (1 + poids-surface x ln(1 + surface))
+ *         x (1 + poids-age x min(âge en jours, age-max)) x (facteur-travaux si des travaux existent)
+ *
+ * L'âge évolue sans écriture : tous les scores sont recalculés périodiquement.
+ */
+@Service
+public class SignalementPriorityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SignalementPriorityIndex.class);
+
+    public static final int MAX_K = 500;
+
+    @Autowired
+    private SignalementRepository signalementRepository;
+
+    @Autowired
+    private TravauxRepository travauxRepository;
+
+    private final Map<String, Double> typeWeights = new HashMap<>();
+    private final double defaultTypeWeight;
+    private final double surfaceWeight;
+    private final double ageWeight;
+    private final double maxAgeDays;
+    private final double travauxFactor;
+
+    private final IndexedMaxHeap heap = new IndexedMaxHeap();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    // Nombre de travaux par signalement, et signalement de chaque travaux
+    private final Map<Long, Integer> travauxCounts = new HashMap<>();
+    private final Map<Long, Long> travauxSignalement = new HashMap<>();
+    // Écritures validées pendant une reconstruction, rejouées sur son résultat ; null hors reconstruction
+    private List<Runnable> pendingDuringRebuild;
+
+    private static final class Entry {
+        final double surface;
+        final String typeProbleme;
+        final LocalDateTime dateAjoute;
+
+        Entry(BigDecimal surface, String typeProbleme, LocalDateTime dateAjoute) {
+            this.surface = surface == null ? 0 : Math.max(0, surface.doubleValue());
+            this.typeProbleme = typeProbleme;
+            this.dateAjoute = dateAjoute;
+        }
+    }
+
+    public SignalementPriorityIndex(@Value("${priorite.poids-types:}") String types,
+                                    @Value("${priorite.poids-type-defaut:1}") double defaultTypeWeight,
+                                    @Value("${priorite.poids-surface:1}") double surfaceWeight,
+                                    @Value("${priorite.poids-age:0.05}") double ageWeight,
+                                    @Value("${priorite.age-max-jours:90}") double maxAgeDays,
+                                    @Value("${priorite.facteur-travaux:0.5}") double travauxFactor) {
+        // Format "type:poids,type:poids"
+        for (String entry : types.split(",")) {
+            int sep = entry.lastIndexOf(':');
+            if (sep > 0) {
+                typeWeights.put(entry.substring(0, sep).trim(), Double.parseDouble(entry.substring(sep + 1).trim()));
+            }
+        }
+        this.defaultTypeWeight = defaultTypeWeight;
+        this.surfaceWeight = surfaceWeight;
+        this.ageWeight = ageWeight;
+        this.maxAgeDays = maxAgeDays;
+        this.travauxFactor = travauxFactor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.warn("Construction de l'index de priorité impossible: {}", e.getMessage());
+        }
+    }
+
+    public void rebuild() {
+        // Avant la lecture : toute écriture validée ensuite est rejouée sur le nouvel index
+        synchronized (heap) {
+            pendingDuringRebuild = new ArrayList<>();
+        }
+        List<Object[]> signalements;
+        List<Object[]> travaux;
+        try {
+            signalements = signalementRepository.findPriorityProjection();
+            travaux = travauxRepository.findSignalementIds();
+        } catch (RuntimeException e) {
+            synchronized (heap) {
+                pendingDuringRebuild = null;
+            }
+            throw e;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (heap) {
+            heap.clear();
+            entries.clear();
+            travauxCounts.clear();
+            travauxSignalement.clear();
+            for (Object[] row : travaux) {
+                if (row[1] != null) {
+                    travauxSignalement.put((Long) row[0], (Long) row[1]);
+                    travauxCounts.merge((Long) row[1], 1, Integer::sum);
+                }
+            }
+            for (Object[] row : signalements) {
+                if (isOpen((String) row[3])) {
+                    Entry entry = new Entry((BigDecimal) row[1], (String) row[2], (LocalDateTime) row[4]);
+                    entries.put((Long) row[0], entry);
+                    heap.put((Long) row[0], score((Long) row[0], entry, now));
+                }
+            }
+            pendingDuringRebuild.forEach(Runnable::run);
+            pendingDuringRebuild = null;
+        }
+        logger.info("Index de priorité construit: {} signalements ouverts", entries.size());
+    }
+
+    public void onSignalementSaved(Signalement signalement) {
+        Long id = signalement.getIdSignalement();
+        if (id == null) {
+            return;
+        }
+        // Valeurs lues maintenant : l'entité peut encore changer avant le commit
+        boolean open = isOpen(signalement.getStatut());
+        Entry entry = new Entry(signalement.getSurface(), signalement.getTypeProbleme(), signalement.getDateAjoute());
+        TransactionHooks.afterCommit(() -> apply(() -> {
+            if (!open) {
+                entries.remove(id);
+                heap.remove(id);
+                return;
+            }
+            entries.put(id, entry);
+            heap.put(id, score(id, entry, LocalDateTime.now()));
+        }));
+    }
+
+    public void onSignalementDeleted(Long id) {
+        if (id == null) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> apply(() -> {
+            entries.remove(id);
+            heap.remove(id);
+            travauxCounts.remove(id);
+        }));
+    }
+
+    public void onTravauxSaved(Travaux travaux) {
+        Long travauxId = travaux.getId();
+        Long signalementId = travaux.getSignalement() == null ? null : travaux.getSignalement().getIdSignalement();
+        TransactionHooks.afterCommit(() -> apply(() -> {
+            Long previous = travauxId == null ? null : travauxSignalement.get(travauxId);
+            if (Objects.equals(previous, signalementId)) {
+                return;
+            }
+            if (previous != null) {
+                changeTravauxCount(previous, -1);
+            }
+            if (signalementId != null) {
+                travauxSignalement.put(travauxId, signalementId);
+                changeTravauxCount(signalementId, 1);
+            } else {
+                travauxSignalement.remove(travauxId);
+            }
+        }));
+    }
+
+    public void onTravauxDeleted(Long travauxId) {
+        TransactionHooks.afterCommit(() -> apply(() -> {
+            Long previous = travauxSignalement.remove(travauxId);
+            if (previous != null) {
+                changeTravauxCount(previous, -1);
+            }
+        }));
+    }
+
+    // Chaque changement ne dépend que de l'état courant : le rejouer sur un index reconstruit
+    // qui l'inclut déjà ne change rien
+    private void apply(Runnable change) {
+        synchronized (heap) {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(change);
+            }
+            change.run();
+        }
+    }
+
+    /**
+     * Les k signalements ouverts les plus prioritaires et leur score, du plus fort au plus faible.
+     */
+    public Map<Long, Double> top(int k) {
+        Map<Long, Double> result = new LinkedHashMap<>();
+        synchronized (heap) {
+            for (long id : heap.top(Math.max(0, Math.min(k, MAX_K)))) {
+                result.put(id, heap.score(id));
+            }
+        }
+        return result;
+    }
+
+    @Scheduled(initialDelayString = "${priorite.rescore-ms:3600000}", fixedDelayString = "${priorite.rescore-ms:3600000}")
+    public void rescoreAll() {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        int size;
+        synchronized (heap) {
+            heap.rescoreAll(id -> score(id, entries.get(id), now));
+            size = heap.size();
+        }
+        logger.info("priorite.rescore signalements={} durationMs={}", size, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public int size() {
+        synchronized (heap) {
+            return heap.size();
+        }
+    }
+
+    // Appelants : verrou du tas tenu
+    private void changeTravauxCount(Long signalementId, int delta) {
+        int count = travauxCounts.merge(signalementId, delta, Integer::sum);
+        if (count <= 0) {
+            travauxCounts.remove(signalementId);
+        }
+        Entry entry = entries.get(signalementId);
+        if (entry != null && (count <= 0 || count == delta)) {
+            // Passage avec/sans travaux : seul cas où le score change
+            heap.put(signalementId, score(signalementId, entry, LocalDateTime.now()));
+        }
+    }
+
+    private double score(long id, Entry entry, LocalDateTime now) {
+        double typeWeight = entry.typeProbleme == null ? defaultTypeWeight
+                : typeWeights.getOrDefault(entry.typeProbleme, defaultTypeWeight);
+        double ageDays = entry.dateAjoute == null ? 0
+                : Math.max(0, Duration.between(entry.dateAjoute, now).toMinutes() / 1440.0);
+        double score = typeWeight
+                * (1 + surfaceWeight * Math.log1p(entry.surface))
+                * (1 + ageWeight * Math.min(ageDays, maxAgeDays));
+        return travauxCounts.containsKey(id) ? score * travauxFactor : score;
+    }
+
+    private static boolean isOpen(String statut) {
+        return !StatutsSignalement.isFerme(statut);
+    }
+}
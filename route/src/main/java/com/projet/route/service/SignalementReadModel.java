@@ -0,0 +1,735 @@
+package com.projet.route.service;
+
+import com.projet.route.models.Entreprise;
+import com.projet.route.models.Signalement;
+import com.projet.route.models.Travaux;
+import com.projet.route.repository.EntrepriseRepository;
+import com.projet.route.repository.SignalementRepository;
+import com.projet.route.repository.TravauxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Modèle de lecture dénormalisé des signalements, de leurs travaux et de leurs entreprises,
+ * servi par /api/signalements/carte et /api/signalements/vue sans passer par JPA.
+ *
+ * Stockage en colonnes de types primitifs : coordonnées en double, dates en secondes ou jours,
+ * statut et type codés par dictionnaire. Une case par ligne, les cases libérées sont réutilisées.
+ *
+ * Tenu à jour par les listeners d'entités au flush ; une transaction annulée peut laisser un
+ * écart, rattrapé par la vérification périodique contre la base.
+ */
+@Service
+public class SignalementReadModel {
+
+    private static final Logger logger = LoggerFactory.getLogger(SignalementReadModel.class);
+
+    public static final int MAX_TAILLE_PAGE = 500;
+
+    // Identifiant absent (lieu, doublon, entreprise, case libre)
+    private static final long AUCUN = 0L;
+    private static final long SANS_DATE_HEURE = Long.MIN_VALUE;
+    private static final int SANS_DATE = Integer.MIN_VALUE;
+    private static final int MAX_EXEMPLES = 20;
+
+    // Estimations JVM 64 bits à oops compressés : entrée de HashMap (nœud, clé Long, valeur Integer,
+    // case de table) et chaîne compacte Latin-1 (en-têtes String et byte[])
+    private static final int OCTETS_INDEX_PAR_LIGNE = 72;
+    private static final int OCTETS_ENTETE_CHAINE = 40;
+
+    @Autowired
+    private SignalementRepository signalementRepository;
+
+    @Autowired
+    private TravauxRepository travauxRepository;
+
+    @Autowired
+    private EntrepriseRepository entrepriseRepository;
+
+    private final boolean reconstructionAuto;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Tables tables = new Tables();
+    // Écritures reçues pendant une reconstruction, rejouées sur les nouvelles tables
+    private List<Consumer<Tables>> pendantes;
+    private volatile LocalDateTime dateReconstruction;
+    private volatile long dureeReconstructionMs;
+
+    public SignalementReadModel(@Value("${lecture.reconstruction-auto:true}") boolean reconstructionAuto) {
+        this.reconstructionAuto = reconstructionAuto;
+    }
+
+    private record LigneSignalement(long id, double latitude, double longitude, double surface, long dateAjoute,
+                                    String statut, String typeProbleme, long idLieux, long idDoublon,
+                                    String description) {
+    }
+
+    private record LigneTravaux(long id, long idSignalement, long idEntreprise, double budget, double avancement,
+                                int debut, int fin) {
+    }
+
+    /**
+     * Cases numérotées de 0 à haut - 1 ; une case libre porte l'identifiant {@link #AUCUN}.
+     */
+    private abstract static class Colonnes {
+        long[] ids = new long[0];
+        final Map<Long, Integer> cases = new HashMap<>();
+        int haut;
+        private int[] libres = new int[0];
+        private int nbLibres;
+
+        int caseDe(long id) {
+            Integer c = cases.get(id);
+            return c == null ? -1 : c;
+        }
+
+        int allouer(long id) {
+            Integer existante = cases.get(id);
+            if (existante != null) {
+                return existante;
+            }
+            int c;
+            if (nbLibres > 0) {
+                c = libres[--nbLibres];
+            } else {
+                if (haut == ids.length) {
+                    int capacite = Math.max(64, ids.length * 2);
+                    ids = Arrays.copyOf(ids, capacite);
+                    agrandir(capacite);
+                }
+                c = haut++;
+            }
+            ids[c] = id;
+            cases.put(id, c);
+            return c;
+        }
+
+        int liberer(long id) {
+            Integer c = cases.remove(id);
+            if (c == null) {
+                return -1;
+            }
+            ids[c] = AUCUN;
+            if (nbLibres == libres.length) {
+                libres = Arrays.copyOf(libres, Math.max(16, libres.length * 2));
+            }
+            libres[nbLibres++] = c;
+            return c;
+        }
+
+        abstract void agrandir(int capacite);
+
+        // Octets des colonnes pour une case, identifiant compris
+        abstract int octetsParCase();
+    }
+
+    private static final class ColonnesSignalement extends Colonnes {
+        double[] latitude = new double[0];
+        double[] longitude = new double[0];
+        double[] surface = new double[0];
+        long[] dateAjoute = new long[0];
+        long[] idLieux = new long[0];
+        long[] idDoublon = new long[0];
+        int[] statut = new int[0];
+        int[] typeProbleme = new int[0];
+        String[] description = new String[0];
+
+        @Override
+        void agrandir(int capacite) {
+            latitude = Arrays.copyOf(latitude, capacite);
+            longitude = Arrays.copyOf(longitude, capacite);
+            surface = Arrays.copyOf(surface, capacite);
+            dateAjoute = Arrays.copyOf(dateAjoute, capacite);
+            idLieux = Arrays.copyOf(idLieux, capacite);
+            idDoublon = Arrays.copyOf(idDoublon, capacite);
+            statut = Arrays.copyOf(statut, capacite);
+            typeProbleme = Arrays.copyOf(typeProbleme, capacite);
+            description = Arrays.copyOf(description, capacite);
+        }
+
+        @Override
+        int octetsParCase() {
+            return 7 * Long.BYTES + 2 * Integer.BYTES + 4;
+        }
+    }
+
+    private static final class ColonnesTravaux extends Colonnes {
+        long[] idSignalement = new long[0];
+        long[] idEntreprise = new long[0];
+        double[] budget = new double[0];
+        double[] avancement = new double[0];
+        int[] debut = new int[0];
+        int[] fin = new int[0];
+
+        @Override
+        void agrandir(int capacite) {
+            idSignalement = Arrays.copyOf(idSignalement, capacite);
+            idEntreprise = Arrays.copyOf(idEntreprise, capacite);
+            budget = Arrays.copyOf(budget, capacite);
+            avancement = Arrays.copyOf(avancement, capacite);
+            debut = Arrays.copyOf(debut, capacite);
+            fin = Arrays.copyOf(fin, capacite);
+        }
+
+        @Override
+        int octetsParCase() {
+            return 5 * Long.BYTES + 2 * Integer.BYTES;
+        }
+    }
+
+    private static final class Tables {
+        final ColonnesSignalement signalements = new ColonnesSignalement();
+        final ColonnesTravaux travaux = new ColonnesTravaux();
+        // Travaux de chaque signalement, par identifiant
+        final Map<Long, long[]> travauxParSignalement = new HashMap<>();
+        final Map<Long, String> entreprises = new HashMap<>();
+        // Dictionnaire des statuts et types ; -1 pour null
+        final List<String> termes = new ArrayList<>();
+        final Map<String, Integer> codes = new HashMap<>();
+
+        int coder(String terme) {
+            if (terme == null) {
+                return -1;
+            }
+            Integer code = codes.get(terme);
+            if (code == null) {
+                code = termes.size();
+                termes.add(terme);
+                codes.put(terme, code);
+            }
+            return code;
+        }
+
+        String terme(int code) {
+            return code < 0 ? null : termes.get(code);
+        }
+
+        void put(LigneSignalement l) {
+            ColonnesSignalement s = signalements;
+            int c = s.allouer(l.id());
+            s.latitude[c] = l.latitude();
+            s.longitude[c] = l.longitude();
+            s.surface[c] = l.surface();
+            s.dateAjoute[c] = l.dateAjoute();
+            s.statut[c] = coder(l.statut());
+            s.typeProbleme[c] = coder(l.typeProbleme());
+            s.idLieux[c] = l.idLieux();
+            s.idDoublon[c] = l.idDoublon();
+            s.description[c] = l.description();
+        }
+
+        void removeSignalement(long id) {
+            int c = signalements.liberer(id);
+            if (c >= 0) {
+                signalements.description[c] = null;
+            }
+        }
+
+        LigneSignalement signalement(int c) {
+            ColonnesSignalement s = signalements;
+            return new LigneSignalement(s.ids[c], s.latitude[c], s.longitude[c], s.surface[c], s.dateAjoute[c],
+                    terme(s.statut[c]), terme(s.typeProbleme[c]), s.idLieux[c], s.idDoublon[c], s.description[c]);
+        }
+
+        void put(LigneTravaux l) {
+            ColonnesTravaux t = travaux;
+            int c = t.caseDe(l.id());
+            if (c >= 0) {
+                detacher(t.idSignalement[c], l.id());
+            }
+            c = t.allouer(l.id());
+            t.idSignalement[c] = l.idSignalement();
+            t.idEntreprise[c] = l.idEntreprise();
+            t.budget[c] = l.budget();
+            t.avancement[c] = l.avancement();
+            t.debut[c] = l.debut();
+            t.fin[c] = l.fin();
+            if (l.idSignalement() != AUCUN) {
+                long[] ids = travauxParSignalement.get(l.idSignalement());
+                if (ids == null) {
+                    travauxParSignalement.put(l.idSignalement(), new long[]{l.id()});
+                } else {
+                    long[] suite = Arrays.copyOf(ids, ids.length + 1);
+                    suite[ids.length] = l.id();
+                    travauxParSignalement.put(l.idSignalement(), suite);
+                }
+            }
+        }
+
+        void removeTravaux(long id) {
+            int c = travaux.caseDe(id);
+            if (c >= 0) {
+                detacher(travaux.idSignalement[c], id);
+                travaux.liberer(id);
+            }
+        }
+
+        private void detacher(long idSignalement, long idTravaux) {
+            long[] ids = travauxParSignalement.get(idSignalement);
+            if (ids == null) {
+                return;
+            }
+            long[] reste = Arrays.stream(ids).filter(id -> id != idTravaux).toArray();
+            if (reste.length == 0) {
+                travauxParSignalement.remove(idSignalement);
+            } else {
+                travauxParSignalement.put(idSignalement, reste);
+            }
+        }
+
+        LigneTravaux travaux(int c) {
+            ColonnesTravaux t = travaux;
+            return new LigneTravaux(t.ids[c], t.idSignalement[c], t.idEntreprise[c], t.budget[c], t.avancement[c],
+                    t.debut[c], t.fin[c]);
+        }
+
+        SignalementVue vue(int c, boolean details) {
+            ColonnesSignalement s = signalements;
+            List<SignalementVue.TravauxVue> travauxVues = null;
+            long[] ids = travauxParSignalement.get(s.ids[c]);
+            if (ids != null) {
+                travauxVues = new ArrayList<>(ids.length);
+                for (long id : ids) {
+                    int tc = travaux.caseDe(id);
+                    if (tc >= 0) {
+                        travauxVues.add(travauxVue(tc));
+                    }
+                }
+            }
+            return new SignalementVue(s.ids[c], s.latitude[c], s.longitude[c], valeur(s.surface[c]),
+                    s.dateAjoute[c] == SANS_DATE_HEURE ? null : LocalDateTime.ofEpochSecond(s.dateAjoute[c], 0, ZoneOffset.UTC),
+                    terme(s.statut[c]), terme(s.typeProbleme[c]), optionnel(s.idLieux[c]), optionnel(s.idDoublon[c]),
+                    details ? s.description[c] : null, travauxVues);
+        }
+
+        private SignalementVue.TravauxVue travauxVue(int c) {
+            ColonnesTravaux t = travaux;
+            long idEntreprise = t.idEntreprise[c];
+            return new SignalementVue.TravauxVue(t.ids[c], optionnel(idEntreprise),
+                    idEntreprise == AUCUN ? null : entreprises.get(idEntreprise),
+                    valeur(t.budget[c]), valeur(t.avancement[c]),
+                    t.debut[c] == SANS_DATE ? null : LocalDate.ofEpochDay(t.debut[c]),
+                    t.fin[c] == SANS_DATE ? null : LocalDate.ofEpochDay(t.fin[c]));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.warn("Construction du modèle de lecture impossible: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recharge tout depuis la base sans bloquer les lectures ; les écritures validées entre-temps
+     * sont appliquées aux deux versions puis les nouvelles tables remplacent les anciennes.
+     */
+    public synchronized void rebuild() {
+        long debut = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            pendantes = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Tables fresh = new Tables();
+        try {
+            for (Entreprise entreprise : entrepriseRepository.findAll()) {
+                fresh.entreprises.put(entreprise.getIdEntreprise(), entreprise.getNom());
+            }
+            for (Object[] row : signalementRepository.findReadModelProjection()) {
+                fresh.put(ligneSignalement(row));
+            }
+            for (Object[] row : travauxRepository.findReadModelProjection()) {
+                fresh.put(ligneTravaux(row));
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendantes = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        int rejouees;
+        lock.writeLock().lock();
+        try {
+            rejouees = pendantes.size();
+            for (Consumer<Tables> operation : pendantes) {
+                operation.accept(fresh);
+            }
+            tables = fresh;
+            pendantes = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        dureeReconstructionMs = (System.nanoTime() - debut) / 1_000_000;
+        dateReconstruction = LocalDateTime.now();
+        logger.info("Modèle de lecture construit: {} signalements, {} travaux en {} ms ({} écritures rejouées)",
+                fresh.signalements.cases.size(), fresh.travaux.cases.size(), dureeReconstructionMs, rejouees);
+    }
+
+    public void onSignalementSaved(Signalement signalement) {
+        if (signalement.getIdSignalement() == null) {
+            return;
+        }
+        LigneSignalement ligne = new LigneSignalement(signalement.getIdSignalement(),
+                arrondi(signalement.getLatitude(), 6), arrondi(signalement.getLongitude(), 6),
+                arrondi(signalement.getSurface(), 2), secondes(signalement.getDateAjoute()),
+                signalement.getStatut(), signalement.getTypeProbleme(),
+                signalement.getLieux() == null ? AUCUN : identifiant(signalement.getLieux().getIdLieux()),
+                identifiant(signalement.getIdDoublon()), signalement.getDescription());
+        appliquer(t -> t.put(ligne));
+    }
+
+    public void onSignalementDeleted(Long idSignalement) {
+        appliquer(t -> t.removeSignalement(idSignalement));
+    }
+
+    public void onTravauxSaved(Travaux travaux) {
+        if (travaux.getId() == null) {
+            return;
+        }
+        Entreprise entreprise = travaux.getEntreprise();
+        LigneTravaux ligne = new LigneTravaux(travaux.getId(),
+                travaux.getSignalement() == null ? AUCUN : identifiant(travaux.getSignalement().getIdSignalement()),
+                entreprise == null ? AUCUN : identifiant(entreprise.getIdEntreprise()),
+                arrondi(travaux.getBudget(), 2), arrondi(travaux.getAvancement(), 2),
+                jour(travaux.getDateDebutTravaux()), jour(travaux.getDateFinTravaux()));
+        // Entreprise référencée par son seul identifiant : le nom connu est conservé
+        String nom = entreprise == null ? null : entreprise.getNom();
+        appliquer(t -> {
+            t.put(ligne);
+            if (nom != null) {
+                t.entreprises.put(ligne.idEntreprise(), nom);
+            }
+        });
+    }
+
+    public void onTravauxDeleted(Long idTravaux) {
+        appliquer(t -> t.removeTravaux(idTravaux));
+    }
+
+    public void onEntrepriseSaved(Entreprise entreprise) {
+        if (entreprise.getIdEntreprise() == null) {
+            return;
+        }
+        Long id = entreprise.getIdEntreprise();
+        String nom = entreprise.getNom();
+        appliquer(t -> t.entreprises.put(id, nom));
+    }
+
+    public void onEntrepriseDeleted(Long idEntreprise) {
+        appliquer(t -> t.entreprises.remove(idEntreprise));
+    }
+
+    // Appelé depuis les listeners JPA, dans la transaction de l'écriture : les lignes sont capturées
+    // tout de suite, appliquées au commit ; une écriture annulée ne laisse aucune trace
+    private void appliquer(Consumer<Tables> operation) {
+        TransactionHooks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                operation.accept(tables);
+                if (pendantes != null) {
+                    pendantes.add(operation);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public SignalementVue get(Long idSignalement) {
+        lock.readLock().lock();
+        try {
+            int c = tables.signalements.caseDe(idSignalement);
+            return c < 0 ? null : tables.vue(c, true);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Signalements d'une emprise [minLat, minLng, maxLat, maxLng] (toutes si null), sans description.
+     */
+    public List<SignalementVue> carte(double[] bbox, String statut) {
+        lock.readLock().lock();
+        try {
+            ColonnesSignalement s = tables.signalements;
+            int codeStatut = code(statut);
+            List<SignalementVue> result = new ArrayList<>();
+            if (codeStatut == -2) {
+                return result;
+            }
+            for (int c = 0; c < s.haut; c++) {
+                if (s.ids[c] == AUCUN || (codeStatut >= 0 && s.statut[c] != codeStatut)) {
+                    continue;
+                }
+                if (bbox != null && (s.latitude[c] < bbox[0] || s.longitude[c] < bbox[1]
+                        || s.latitude[c] > bbox[2] || s.longitude[c] > bbox[3])) {
+                    continue;
+                }
+                result.add(tables.vue(c, false));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Page de signalements, du plus récent au plus ancien, filtrés par statut et type.
+     */
+    public Map<String, Object> liste(String statut, String typeProbleme, int page, int taille) {
+        if (page < 0 || taille < 1 || taille > MAX_TAILLE_PAGE) {
+            throw new IllegalArgumentException("Page >= 0 et taille entre 1 et " + MAX_TAILLE_PAGE + " attendues");
+        }
+        lock.readLock().lock();
+        try {
+            ColonnesSignalement s = tables.signalements;
+            int codeStatut = code(statut);
+            int codeType = code(typeProbleme);
+            List<Integer> retenues = new ArrayList<>();
+            if (codeStatut != -2 && codeType != -2) {
+                for (int c = 0; c < s.haut; c++) {
+                    if (s.ids[c] != AUCUN && (codeStatut < 0 || s.statut[c] == codeStatut)
+                            && (codeType < 0 || s.typeProbleme[c] == codeType)) {
+                        retenues.add(c);
+                    }
+                }
+            }
+            retenues.sort(Comparator.<Integer>comparingLong(c -> s.dateAjoute[c])
+                    .thenComparingLong(c -> s.ids[c]).reversed());
+
+            List<SignalementVue> elements = new ArrayList<>();
+            int from = (int) Math.min((long) page * taille, retenues.size());
+            int to = Math.min(from + taille, retenues.size());
+            for (int c : retenues.subList(from, to)) {
+                elements.add(tables.vue(c, true));
+            }
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("total", retenues.size());
+            result.put("page", page);
+            result.put("taille", taille);
+            result.put("elements", elements);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Appelants : verrou en lecture tenu. -1 : pas de filtre, -2 : terme inconnu, aucune ligne
+    private int code(String terme) {
+        if (terme == null || terme.isBlank()) {
+            return -1;
+        }
+        Integer code = tables.codes.get(terme);
+        return code == null ? -2 : code;
+    }
+
+    /**
+     * Compare le modèle à la base ligne à ligne. Une écriture concurrente peut produire un écart
+     * isolé qui disparaît au passage suivant.
+     */
+    public Map<String, Object> verify() {
+        Map<Long, LigneSignalement> signalements = new HashMap<>();
+        for (Object[] row : signalementRepository.findReadModelProjection()) {
+            LigneSignalement ligne = ligneSignalement(row);
+            signalements.put(ligne.id(), ligne);
+        }
+        Map<Long, LigneTravaux> travaux = new HashMap<>();
+        for (Object[] row : travauxRepository.findReadModelProjection()) {
+            LigneTravaux ligne = ligneTravaux(row);
+            travaux.put(ligne.id(), ligne);
+        }
+        Map<Long, String> entreprises = new HashMap<>();
+        for (Entreprise entreprise : entrepriseRepository.findAll()) {
+            entreprises.put(entreprise.getIdEntreprise(), entreprise.getNom());
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            Tables t = tables;
+            Map<String, Object> ecartsSignalements = ecarts(signalements, t.signalements, t::signalement);
+            Map<String, Object> ecartsTravaux = ecarts(travaux, t.travaux, t::travaux);
+            long entreprisesDivergentes = entreprises.entrySet().stream()
+                    .filter(e -> !Objects.equals(e.getValue(), t.entreprises.get(e.getKey())))
+                    .count();
+            result.put("coherent", (int) ecartsSignalements.get("total") == 0
+                    && (int) ecartsTravaux.get("total") == 0 && entreprisesDivergentes == 0);
+            result.put("signalements", ecartsSignalements);
+            result.put("travaux", ecartsTravaux);
+            result.put("entreprisesDivergentes", entreprisesDivergentes);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    private <L> Map<String, Object> ecarts(Map<Long, L> attendues, Colonnes colonnes,
+                                           IntFunction<L> lire) {
+        int manquants = 0;
+        int divergents = 0;
+        int enTrop = 0;
+        List<Long> exemples = new ArrayList<>();
+        for (Map.Entry<Long, L> entry : attendues.entrySet()) {
+            int c = colonnes.caseDe(entry.getKey());
+            boolean ecart;
+            if (c < 0) {
+                manquants++;
+                ecart = true;
+            } else {
+                ecart = !entry.getValue().equals(lire.apply(c));
+                if (ecart) {
+                    divergents++;
+                }
+            }
+            if (ecart && exemples.size() < MAX_EXEMPLES) {
+                exemples.add(entry.getKey());
+            }
+        }
+        for (Long id : colonnes.cases.keySet()) {
+            if (!attendues.containsKey(id)) {
+                enTrop++;
+                if (exemples.size() < MAX_EXEMPLES) {
+                    exemples.add(id);
+                }
+            }
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("total", manquants + divergents + enTrop);
+        result.put("manquants", manquants);
+        result.put("divergents", divergents);
+        result.put("enTrop", enTrop);
+        result.put("exemples", exemples);
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${lecture.verification-ms:900000}", initialDelayString = "${lecture.verification-ms:900000}")
+    public void scheduledVerify() {
+        try {
+            Map<String, Object> result = verify();
+            if (!Boolean.TRUE.equals(result.get("coherent"))) {
+                logger.warn("Modèle de lecture incohérent avec la base: signalements {}, travaux {}, entreprises {}",
+                        result.get("signalements"), result.get("travaux"), result.get("entreprisesDivergentes"));
+                if (reconstructionAuto) {
+                    rebuild();
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Vérification du modèle de lecture impossible: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Taille des tables et empreinte mémoire estimée par ligne : colonnes, index identifiant -> case
+     * et textes (descriptions, noms d'entreprise).
+     */
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            Tables t = tables;
+            ColonnesSignalement s = t.signalements;
+            long octetsDescriptions = 0;
+            for (int c = 0; c < s.haut; c++) {
+                if (s.description[c] != null) {
+                    octetsDescriptions += OCTETS_ENTETE_CHAINE + s.description[c].length();
+                }
+            }
+            long octetsSignalements = (long) s.ids.length * s.octetsParCase()
+                    + (long) s.cases.size() * OCTETS_INDEX_PAR_LIGNE + octetsDescriptions;
+            long octetsTravaux = (long) t.travaux.ids.length * t.travaux.octetsParCase()
+                    + (long) t.travaux.cases.size() * OCTETS_INDEX_PAR_LIGNE
+                    + (long) t.travauxParSignalement.size() * (OCTETS_INDEX_PAR_LIGNE + 16)
+                    + (long) t.travaux.cases.size() * Long.BYTES;
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("signalements", s.cases.size());
+            stats.put("capaciteSignalements", s.ids.length);
+            stats.put("octetsColonnesSignalement", s.octetsParCase());
+            stats.put("octetsParSignalement", s.cases.isEmpty() ? 0 : octetsSignalements / s.cases.size());
+            stats.put("travaux", t.travaux.cases.size());
+            stats.put("capaciteTravaux", t.travaux.ids.length);
+            stats.put("octetsColonnesTravaux", t.travaux.octetsParCase());
+            stats.put("octetsParTravaux", t.travaux.cases.isEmpty() ? 0 : octetsTravaux / t.travaux.cases.size());
+            stats.put("entreprises", t.entreprises.size());
+            stats.put("termes", t.termes.size());
+            stats.put("octetsTotal", octetsSignalements + octetsTravaux);
+            stats.put("dateReconstruction", dateReconstruction);
+            stats.put("dureeReconstructionMs", dureeReconstructionMs);
+            stats.put("reconstructionEnCours", pendantes != null);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Colonnes de SignalementRepository.findReadModelProjection
+    private static LigneSignalement ligneSignalement(Object[] row) {
+        return new LigneSignalement((Long) row[0], arrondi((BigDecimal) row[1], 6), arrondi((BigDecimal) row[2], 6),
+                arrondi((BigDecimal) row[3], 2), secondes((LocalDateTime) row[4]), (String) row[5], (String) row[6],
+                identifiant((Long) row[7]), identifiant((Long) row[8]), (String) row[9]);
+    }
+
+    // Colonnes de TravauxRepository.findReadModelProjection
+    private static LigneTravaux ligneTravaux(Object[] row) {
+        return new LigneTravaux((Long) row[0], identifiant((Long) row[1]), identifiant((Long) row[2]),
+                arrondi((BigDecimal) row[3], 2), arrondi((BigDecimal) row[4], 2),
+                jour((LocalDate) row[5]), jour((LocalDate) row[6]));
+    }
+
+    // Même précision que la colonne, pour comparer une entité non relue à la base
+    private static double arrondi(BigDecimal value, int scale) {
+        return value == null ? Double.NaN : value.setScale(scale, RoundingMode.HALF_UP).doubleValue();
+    }
+
+    private static long secondes(LocalDateTime date) {
+        return date == null ? SANS_DATE_HEURE : date.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static int jour(LocalDate date) {
+        return date == null ? SANS_DATE : (int) date.toEpochDay();
+    }
+
+    private static long identifiant(Long id) {
+        return id == null ? AUCUN : id;
+    }
+
+    private static Long optionnel(long id) {
+        return id == AUCUN ? null : id;
+    }
+
+    private static Double valeur(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+}
@@ -0,0 +1,102 @@
+package com.projet.route.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recherche plein texte en français dans signalement.description. La requête utilise
+ * l'expression to_tsvector('french', ...) de l'index GIN idx_signalement_description_fts
+ * (V5__doublons_et_recherche.sql) : l'index est tenu à jour par Postgres à chaque écriture,
+ * sans colonne dédiée.
+ * Le classement (ts_rank) et les extraits surlignés (ts_headline) ne sont calculés que
+ * pour la page demandée. La description est échappée en HTML avant d'insérer les balises
+ * {@code <mark>} : ts_headline délimite les termes trouvés par deux caractères à usage privé,
+ * retirés au préalable du texte, remplacés après l'échappement.
+ */
+@Service
+public class SignalementSearchService {
+
+    public static final int MAX_LIMIT = 100;
+
+    // Doit rester identique à l'expression de l'index pour que le planificateur l'utilise
+    private static final String DOCUMENT = "to_tsvector('french', coalesce(s.description, ''))";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Délimiteurs internes des termes trouvés (zone à usage privé d'Unicode)
+    private static final String START_SEL = "\uE000";
+    private static final String STOP_SEL = "\uE001";
+
+    @Value("${recherche.headline-options:MaxFragments=2, MaxWords=20, MinWords=5}")
+    private String headlineOptions;
+
+    /**
+     * Signalements dont la description correspond à {@code q} (syntaxe websearch :
+     * mots, "expression exacte", -exclusion, or), du plus pertinent au moins pertinent.
+     * bbox : {minLat, minLng, maxLat, maxLng} ou null ; statut null : tous.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> search(String q, String statut, double[] bbox, int limit, int offset) {
+        if (q == null || q.isBlank()) {
+            throw new IllegalArgumentException("Le paramètre q est requis");
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        // Paramètres dans l'ordre de la requête : options de ts_headline, texte, filtres, page
+        List<Object> params = new ArrayList<>();
+        params.add(START_SEL + STOP_SEL);
+        params.add(headlineOptions + ", StartSel=" + START_SEL + ", StopSel=" + STOP_SEL);
+        params.add(q);
+        StringBuilder where = new StringBuilder(DOCUMENT).append(" @@ query");
+        if (statut != null && !statut.isBlank()) {
+            where.append(" AND s.statut = ?");
+            params.add(statut);
+        }
+        if (bbox != null) {
+            where.append(" AND s.latitude BETWEEN ? AND ? AND s.longitude BETWEEN ? AND ?");
+            params.add(bbox[0]);
+            params.add(bbox[2]);
+            params.add(bbox[1]);
+            params.add(bbox[3]);
+        }
+        params.add(pageSize);
+        params.add(Math.max(0, offset));
+
+        String sql = "SELECT page.*, ts_headline('french', translate(page.description, ?, ''), page.query, ?) AS extrait FROM ("
+                + " SELECT s.id_signalement, s.description, s.statut, s.type_probleme, s.latitude, s.longitude, s.date_ajoute,"
+                + " ts_rank(" + DOCUMENT + ", query) AS rang, query"
+                + " FROM signalement s, websearch_to_tsquery('french', ?) query"
+                + " WHERE " + where
+                + " ORDER BY rang DESC, s.date_ajoute DESC LIMIT ? OFFSET ?) page"
+                + " ORDER BY page.rang DESC, page.date_ajoute DESC";
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("idSignalement", rs.getLong("id_signalement"));
+            row.put("rang", rs.getFloat("rang"));
+            row.put("extrait", highlight(rs.getString("extrait")));
+            row.put("statut", rs.getString("statut"));
+            row.put("typeProbleme", rs.getString("type_probleme"));
+            row.put("latitude", rs.getBigDecimal("latitude"));
+            row.put("longitude", rs.getBigDecimal("longitude"));
+            row.put("dateAjoute", rs.getTimestamp("date_ajoute") == null ? null : rs.getTimestamp("date_ajoute").toLocalDateTime());
+            return row;
+        }, params.toArray());
+    }
+
+    private static String highlight(String extrait) {
+        if (extrait == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(extrait, "UTF-8").replace(START_SEL, "<mark>").replace(STOP_SEL, "</mark>");
+    }
+}
@@ -0,0 +1,239 @@
+package com.projet.route.service;
+
+import com.projet.route.models.Signalement;
+import com.projet.route.repository.SignalementRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Position de chaque signalement dans une grille en mémoire, construite au démarrage
+ * et tenue à jour par SignalementListener après chaque commit.
+ */
+@Service
+public class SignalementSpatialIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SignalementSpatialIndex.class);
+
+    @Autowired
+    private SignalementRepository signalementRepository;
+
+    private final GeoGridIndex grid;
+    // Type de problème par signalement, pour restreindre la recherche de doublons
+    private final Map<Long, String> types = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Bornes des requêtes de corridor
+    @Value("${spatial.corridor.max-buffer:2000}")
+    private double maxCorridorBuffer = 2000;
+
+    @Value("${spatial.corridor.max-points:1000}")
+    private int maxCorridorPoints = 1000;
+
+    public SignalementSpatialIndex(@Value("${spatial.grid.cell-degrees:0.001}") double cellDegrees) {
+        this.grid = new GeoGridIndex(cellDegrees);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.warn("Construction de l'index spatial impossible: {}", e.getMessage());
+        }
+    }
+
+    public void rebuild() {
+        List<Object[]> rows = signalementRepository.findPositions();
+        lock.writeLock().lock();
+        try {
+            for (Object[] row : rows) {
+                grid.put((Long) row[0], ((BigDecimal) row[1]).doubleValue(), ((BigDecimal) row[2]).doubleValue());
+                types.put((Long) row[0], (String) row[3]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Index spatial construit: {} signalements", rows.size());
+    }
+
+    /**
+     * Position enregistrée : appliquée après commit, une insertion annulée ne laisse pas de
+     * point fantôme (corridors, recherche de doublons).
+     */
+    public void onSaved(Signalement signalement) {
+        if (signalement.getIdSignalement() == null || signalement.getLatitude() == null || signalement.getLongitude() == null) {
+            return;
+        }
+        long id = signalement.getIdSignalement();
+        double lat = signalement.getLatitude().doubleValue();
+        double lng = signalement.getLongitude().doubleValue();
+        String typeProbleme = signalement.getTypeProbleme();
+        TransactionHooks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                grid.put(id, lat, lng);
+                types.put(id, typeProbleme);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void onDeleted(Long id) {
+        if (id == null) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> remove(id));
+    }
+
+    private void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            grid.remove(id);
+            types.remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Signalements à moins de {@code buffer} mètres de la polyligne ({lat, lng} par sommet),
+     * triés par abscisse le long de la ligne. Seules les cases de la grille couvrant chaque
+     * segment élargi du tampon sont visitées ; la distance point-segment est ensuite exacte.
+     * Lève IllegalArgumentException si le tampon, le nombre de sommets ou une coordonnée sort des bornes.
+     */
+    public List<CorridorHit> corridor(List<double[]> line, double buffer) {
+        if (!(buffer > 0) || buffer > maxCorridorBuffer) {
+            throw new IllegalArgumentException("La distance tampon doit être comprise entre 0 et " + maxCorridorBuffer + " m");
+        }
+        if (line.size() < 2 || line.size() > maxCorridorPoints) {
+            throw new IllegalArgumentException("La ligne doit contenir entre 2 et " + maxCorridorPoints + " points");
+        }
+        for (double[] point : line) {
+            if (!GeoUtils.isValidPosition(point[0], point[1])) {
+                throw new IllegalArgumentException("Coordonnée hors limites: [" + point[1] + ", " + point[0] + "]");
+            }
+        }
+        Map<Long, CorridorHit> hits = new HashMap<>();
+        double bufferLat = buffer / GeoUtils.METRES_PER_DEGREE_LAT;
+        double offset = 0;
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i + 1 < line.size(); i++) {
+                double[] a = line.get(i);
+                double[] b = line.get(i + 1);
+                double length = GeoUtils.segmentLength(a[0], a[1], b[0], b[1]);
+                double bufferLng = GeoUtils.lngDegrees(buffer, Math.max(Math.abs(a[0]), Math.abs(b[0])));
+                double segmentOffset = offset;
+                grid.visitCells(Math.min(a[0], b[0]) - bufferLat, Math.min(a[1], b[1]) - bufferLng,
+                        Math.max(a[0], b[0]) + bufferLat, Math.max(a[1], b[1]) + bufferLng,
+                        (id, lat, lng) -> {
+                            double[] projection = GeoUtils.pointToSegment(lat, lng, a[0], a[1], b[0], b[1]);
+                            if (projection[0] > buffer) {
+                                return;
+                            }
+                            CorridorHit previous = hits.get(id);
+                            if (previous == null || projection[0] < previous.getDistance()) {
+                                hits.put(id, new CorridorHit(id, projection[0], segmentOffset + projection[1] * length));
+                            }
+                        });
+                offset += length;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<CorridorHit> result = new ArrayList<>(hits.values());
+        result.sort(Comparator.comparingDouble(CorridorHit::getAbscisse).thenComparingDouble(CorridorHit::getDistance));
+        return result;
+    }
+
+    /**
+     * Les {@code k} signalements du même type les plus proches de (lat, lng) dans un rayon
+     * de {@code radius} mètres, du plus proche au plus lointain. Seules les cases couvrant
+     * le cercle sont visitées ; les k meilleurs sont gardés par insertion dans des tableaux.
+     */
+    public List<Neighbour> nearest(double lat, double lng, String typeProbleme, double radius, int k, Long excludeId) {
+        long[] ids = new long[k];
+        double[] distances = new double[k];
+        int[] count = {0};
+        double radiusLat = radius / GeoUtils.METRES_PER_DEGREE_LAT;
+        double radiusLng = GeoUtils.lngDegrees(radius, lat);
+        long excluded = excludeId == null ? Long.MIN_VALUE : excludeId;
+        lock.readLock().lock();
+        try {
+            grid.visitCells(lat - radiusLat, lng - radiusLng, lat + radiusLat, lng + radiusLng, (id, pLat, pLng) -> {
+                if (id == excluded || !Objects.equals(typeProbleme, types.get(id))) {
+                    return;
+                }
+                double distance = GeoUtils.distance(lat, lng, pLat, pLng);
+                int n = count[0];
+                if (distance > radius || (n == k && distance >= distances[n - 1])) {
+                    return;
+                }
+                int i = n == k ? k - 1 : n;
+                while (i > 0 && distances[i - 1] > distance) {
+                    ids[i] = ids[i - 1];
+                    distances[i] = distances[i - 1];
+                    i--;
+                }
+                ids[i] = id;
+                distances[i] = distance;
+                if (n < k) {
+                    count[0]++;
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Neighbour> result = new ArrayList<>(count[0]);
+        for (int i = 0; i < count[0]; i++) {
+            result.add(new Neighbour(ids[i], distances[i]));
+        }
+        return result;
+    }
+
+    public static class Neighbour {
+        private final long idSignalement;
+        private final double distance;
+
+        public Neighbour(long idSignalement, double distance) {
+            this.idSignalement = idSignalement;
+            this.distance = distance;
+        }
+
+        public long getIdSignalement() { return idSignalement; }
+        public double getDistance() { return distance; }
+    }
+
+    public static class CorridorHit {
+        private final long idSignalement;
+        private final double distance;
+        private final double abscisse;
+
+        public CorridorHit(long idSignalement, double distance, double abscisse) {
+            this.idSignalement = idSignalement;
+            this.distance = distance;
+            this.abscisse = abscisse;
+        }
+
+        public long getIdSignalement() { return idSignalement; }
+        public double getDistance() { return distance; }
+        public double getAbscisse() { return abscisse; }
+    }
+}
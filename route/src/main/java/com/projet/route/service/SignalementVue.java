@@ -0,0 +1,86 @@
+package com.projet.route.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Ligne du modèle de lecture : signalement dénormalisé avec ses travaux et leur entreprise,
+ * construit à la demande par SignalementReadModel.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SignalementVue {
+
+    private final Long idSignalement;
+    private final double latitude;
+    private final double longitude;
+    private final Double surface;
+    private final LocalDateTime dateAjoute;
+    private final String statut;
+    private final String typeProbleme;
+    private final Long idLieux;
+    private final Long idDoublon;
+    private final String description;
+    private final List<TravauxVue> travaux;
+
+    public SignalementVue(Long idSignalement, double latitude, double longitude, Double surface,
+                          LocalDateTime dateAjoute, String statut, String typeProbleme, Long idLieux,
+                          Long idDoublon, String description, List<TravauxVue> travaux) {
+        this.idSignalement = idSignalement;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.surface = surface;
+        this.dateAjoute = dateAjoute;
+        this.statut = statut;
+        this.typeProbleme = typeProbleme;
+        this.idLieux = idLieux;
+        this.idDoublon = idDoublon;
+        this.description = description;
+        this.travaux = travaux;
+    }
+
+    public Long getIdSignalement() { return idSignalement; }
+    public double getLatitude() { return latitude; }
+    public double getLongitude() { return longitude; }
+    public Double getSurface() { return surface; }
+    public LocalDateTime getDateAjoute() { return dateAjoute; }
+    public String getStatut() { return statut; }
+    public String getTypeProbleme() { return typeProbleme; }
+    public Long getIdLieux() { return idLieux; }
+    public Long getIdDoublon() { return idDoublon; }
+    public String getDescription() { return description; }
+    public List<TravauxVue> getTravaux() { return travaux; }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class TravauxVue {
+
+        private final Long id;
+        private final Long idEntreprise;
+        private final String entreprise;
+        private final Double budget;
+        private final Double avancement;
+        private final LocalDate dateDebutTravaux;
+        private final LocalDate dateFinTravaux;
+
+        public TravauxVue(Long id, Long idEntreprise, String entreprise, Double budget, Double avancement,
+                          LocalDate dateDebutTravaux, LocalDate dateFinTravaux) {
+            this.id = id;
+            this.idEntreprise = idEntreprise;
+            this.entreprise = entreprise;
+            this.budget = budget;
+            this.avancement = avancement;
+            this.dateDebutTravaux = dateDebutTravaux;
+            this.dateFinTravaux = dateFinTravaux;
+        }
+
+        public Long getId() { return id; }
+        public Long getIdEntreprise() { return idEntreprise; }
+        public String getEntreprise() { return entreprise; }
+        public Double getBudget() { return budget; }
+        public Double getAvancement() { return avancement; }
+        public LocalDate getDateDebutTravaux() { return dateDebutTravaux; }
+        public LocalDate getDateFinTravaux() { return dateFinTravaux; }
+    }
+}
@@ -0,0 +1,34 @@
+package com.projet.route.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Transition de statut d'un signalement, telle que stockée dans signalement_statut_evenement.
+ */
+public class StatutEvent {
+    private final long id;
+    private final long idSignalement;
+    private final String ancienStatut;
+    private final String nouveauStatut;
+    private final Long idLieux;
+    private final String acteur;
+    private final LocalDateTime date;
+
+    public StatutEvent(long id, long idSignalement, String ancienStatut, String nouveauStatut, Long idLieux, String acteur, LocalDateTime date) {
+        this.id = id;
+        this.idSignalement = idSignalement;
+        this.ancienStatut = ancienStatut;
+        this.nouveauStatut = nouveauStatut;
+        this.idLieux = idLieux;
+        this.acteur = acteur;
+        this.date = date;
+    }
+
+    public long getId() { return id; }
+    public long getIdSignalement() { return idSignalement; }
+    public String getAncienStatut() { return ancienStatut; }
+    public String getNouveauStatut() { return nouveauStatut; }
+    public Long getIdLieux() { return idLieux; }
+    public String getActeur() { return acteur; }
+    public LocalDateTime getDate() { return date; }
+}
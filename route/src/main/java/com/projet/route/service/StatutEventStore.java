@@ -0,0 +1,86 @@
+package com.projet.route.service;
+
+import com.projet.route.models.Signalement;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Journal append-only des transitions de statut des signalements (table
+ * signalement_statut_evenement). L'événement est inséré dans la transaction de l'écriture,
+ * via la même connexion, puis appliqué à la projection en mémoire après commit.
+ */
+@Service
+public class StatutEventStore {
+
+    private static final String INSERT = "INSERT INTO signalement_statut_evenement "
+            + "(id_signalement, ancien_statut, nouveau_statut, id_lieux, acteur, date_evenement) VALUES (?, ?, ?, ?, ?, ?)";
+
+    // Public pour QueryPlanCheckTest, qui en vérifie le plan
+    public static final String HISTORY_SQL = "SELECT id, ancien_statut, nouveau_statut, id_lieux, acteur, date_evenement "
+            + "FROM signalement_statut_evenement WHERE id_signalement = ? ORDER BY id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StatutProjectionService statutProjectionService;
+
+    /**
+     * Enregistre la transition {@code ancienStatut} -> statut courant ; à la création,
+     * ancienStatut est null.
+     */
+    public void record(Signalement signalement, String ancienStatut, boolean creation) {
+        String acteur = currentActor(creation ? signalement.getIdUser() : null);
+        // La création est datée de l'ajout du signalement (import : date d'origine)
+        LocalDateTime date = creation && signalement.getDateAjoute() != null ? signalement.getDateAjoute() : LocalDateTime.now();
+        Long idLieux = signalement.getLieux() != null ? signalement.getLieux().getIdLieux() : null;
+
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT, new String[]{"id"});
+            ps.setLong(1, signalement.getIdSignalement());
+            ps.setString(2, ancienStatut);
+            ps.setString(3, signalement.getStatut());
+            if (idLieux != null) {
+                ps.setLong(4, idLieux);
+            } else {
+                ps.setNull(4, Types.INTEGER);
+            }
+            ps.setString(5, acteur);
+            ps.setTimestamp(6, Timestamp.valueOf(date));
+            return ps;
+        }, keys);
+
+        StatutEvent event = new StatutEvent(keys.getKey().longValue(), signalement.getIdSignalement(),
+                ancienStatut, signalement.getStatut(), idLieux, acteur, date);
+        TransactionHooks.afterCommit(() -> statutProjectionService.apply(event));
+    }
+
+    /**
+     * Historique complet d'un signalement, du plus ancien au plus récent.
+     */
+    public List<Map<String, Object>> history(Long idSignalement) {
+        return jdbcTemplate.queryForList(HISTORY_SQL, idSignalement);
+    }
+
+    private static String currentActor(String fallback) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return authentication.getName();
+        }
+        return fallback != null ? fallback : "systeme";
+    }
+}
@@ -0,0 +1,275 @@
+package com.projet.route.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Projection en mémoire du journal des statuts : état courant de chaque signalement, temps
+ * passé dans chaque statut (par signalement et cumulé) et délai de résolution par lieu.
+ * Les requêtes lisent ces agrégats sans parcourir les événements.
+ *
+ * Un instantané est écrit périodiquement (statut_projection_snapshot) avec le dernier
+ * événement qu'il couvre ; au démarrage, l'instantané est rechargé puis seuls les événements
+ * suivants sont rejoués. Les événements d'un même signalement étant ordonnés, un événement
+ * déjà appliqué est reconnu à son identifiant et ignoré.
+ */
+@Service
+public class StatutProjectionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatutProjectionService.class);
+
+    // Clé des signalements sans lieu dans les agrégats par lieu
+    private static final long SANS_LIEU = 0L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${statuts.snapshots.conserves:3}")
+    private int snapshotsKept;
+
+    private final Object lock = new Object();
+    private Map<Long, State> states = new HashMap<>();
+    // statut -> {secondes cumulées, nombre de passages terminés}
+    private Map<String, long[]> statutTotals = new HashMap<>();
+    // lieu -> {nombre de résolutions, secondes cumulées}
+    private Map<Long, long[]> lieuResolutions = new HashMap<>();
+    // Tous les événements d'identifiant <= watermark sont appliqués
+    private long watermark;
+
+    /**
+     * État projeté d'un signalement (champs publics : sérialisé tel quel dans l'instantané).
+     */
+    public static class State {
+        public String statut;
+        public long depuis;
+        public long creation;
+        public Long idLieux;
+        public long dernierEvenement;
+        public boolean resolu;
+        public Map<String, Long> durees = new HashMap<>();
+    }
+
+    public static class Snapshot {
+        public long watermark;
+        public Map<Long, State> etats;
+        public Map<String, long[]> statuts;
+        public Map<Long, long[]> lieux;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            long start = System.nanoTime();
+            restoreLatestSnapshot();
+            int replayed = replayFrom(watermark, Long.MAX_VALUE);
+            logger.info("Projection des statuts: {} signalements, {} événements rejoués en {} ms",
+                    states.size(), replayed, (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            logger.warn("Reconstruction de la projection des statuts impossible: {}", e.getMessage());
+        }
+    }
+
+    public void apply(StatutEvent event) {
+        synchronized (lock) {
+            applyLocked(event);
+        }
+    }
+
+    /**
+     * Rattrape les événements validés depuis plus d'une minute (les transactions plus
+     * récentes peuvent encore valider des identifiants inférieurs), puis écrit un instantané.
+     */
+    @Scheduled(initialDelayString = "${statuts.snapshot-ms:3600000}", fixedDelayString = "${statuts.snapshot-ms:3600000}")
+    public void snapshot() {
+        Long safe = jdbcTemplate.queryForObject(
+                "SELECT coalesce(max(id), 0) FROM signalement_statut_evenement WHERE date_enregistrement < now() - interval '1 minute'",
+                Long.class);
+        long covered = safe == null ? 0 : safe;
+        replayFrom(watermark, covered);
+
+        String contenu;
+        synchronized (lock) {
+            watermark = Math.max(watermark, covered);
+            Snapshot snapshot = new Snapshot();
+            snapshot.watermark = watermark;
+            snapshot.etats = states;
+            snapshot.statuts = statutTotals;
+            snapshot.lieux = lieuResolutions;
+            contenu = objectMapper.writeValueAsString(snapshot);
+        }
+        jdbcTemplate.update("INSERT INTO statut_projection_snapshot (dernier_evenement, contenu) VALUES (?, ?)", covered, contenu);
+        jdbcTemplate.update("DELETE FROM statut_projection_snapshot WHERE id NOT IN "
+                + "(SELECT id FROM statut_projection_snapshot ORDER BY id DESC LIMIT ?)", snapshotsKept);
+        logger.info("statuts.snapshot watermark={} signalements={} octets={}", covered, states.size(), contenu.length());
+    }
+
+    /**
+     * Secondes passées dans chaque statut par un signalement, statut courant inclus.
+     */
+    public Map<String, Object> durations(Long idSignalement) {
+        synchronized (lock) {
+            State state = states.get(idSignalement);
+            if (state == null) {
+                return null;
+            }
+            Map<String, Long> durees = new LinkedHashMap<>(state.durees);
+            durees.merge(state.statut, Math.max(0, now() - state.depuis), Long::sum);
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("statut", state.statut);
+            result.put("depuis", LocalDateTime.ofEpochSecond(state.depuis, 0, ZoneOffset.UTC));
+            result.put("dureesSecondes", durees);
+            return result;
+        }
+    }
+
+    /**
+     * Durée moyenne (heures) passée dans chaque statut, sur les passages terminés.
+     */
+    public Map<String, Object> meanTimeInStatut() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        synchronized (lock) {
+            for (Map.Entry<String, long[]> entry : statutTotals.entrySet()) {
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("passages", entry.getValue()[1]);
+                item.put("moyenneHeures", hours(entry.getValue()[0], entry.getValue()[1]));
+                result.put(entry.getKey(), item);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Délai moyen (heures) entre création et fermeture (statut de {@link StatutsSignalement#FERMES}), par lieu.
+     */
+    public List<Map<String, Object>> meanTimeToResolutionByLieu() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        synchronized (lock) {
+            for (Map.Entry<Long, long[]> entry : lieuResolutions.entrySet()) {
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("idLieux", entry.getKey() == SANS_LIEU ? null : entry.getKey());
+                item.put("resolus", entry.getValue()[0]);
+                item.put("moyenneHeures", hours(entry.getValue()[1], entry.getValue()[0]));
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (lock) {
+            stats.put("signalements", states.size());
+            stats.put("watermark", watermark);
+        }
+        return stats;
+    }
+
+    // Appelant : verrou tenu
+    private void applyLocked(StatutEvent event) {
+        long at = event.getDate().toEpochSecond(ZoneOffset.UTC);
+        State state = states.get(event.getIdSignalement());
+        if (state != null && event.getId() <= state.dernierEvenement) {
+            return;
+        }
+        if (state == null) {
+            state = new State();
+            state.creation = at;
+            state.depuis = at;
+            state.statut = event.getNouveauStatut();
+            states.put(event.getIdSignalement(), state);
+        } else {
+            long elapsed = Math.max(0, at - state.depuis);
+            state.durees.merge(state.statut, elapsed, Long::sum);
+            long[] totals = statutTotals.computeIfAbsent(state.statut, k -> new long[2]);
+            totals[0] += elapsed;
+            totals[1]++;
+            state.statut = event.getNouveauStatut();
+            state.depuis = at;
+        }
+        if (event.getIdLieux() != null) {
+            state.idLieux = event.getIdLieux();
+        }
+        if (StatutsSignalement.isFerme(state.statut) && !state.resolu) {
+            long[] resolution = lieuResolutions.computeIfAbsent(state.idLieux == null ? SANS_LIEU : state.idLieux, k -> new long[2]);
+            resolution[0]++;
+            resolution[1] += Math.max(0, at - state.creation);
+            state.resolu = true;
+        } else if (!StatutsSignalement.isFerme(state.statut)) {
+            // Réouverture : une nouvelle résolution sera comptée
+            state.resolu = false;
+        }
+        state.dernierEvenement = event.getId();
+        if (event.getId() == watermark + 1) {
+            watermark = event.getId();
+        }
+    }
+
+    private void restoreLatestSnapshot() {
+        List<String> contenus = jdbcTemplate.queryForList(
+                "SELECT contenu FROM statut_projection_snapshot ORDER BY id DESC LIMIT 1", String.class);
+        if (contenus.isEmpty()) {
+            return;
+        }
+        Snapshot snapshot = objectMapper.readValue(contenus.get(0), Snapshot.class);
+        synchronized (lock) {
+            states = snapshot.etats != null ? snapshot.etats : new HashMap<>();
+            statutTotals = snapshot.statuts != null ? snapshot.statuts : new HashMap<>();
+            lieuResolutions = snapshot.lieux != null ? snapshot.lieux : new HashMap<>();
+            watermark = snapshot.watermark;
+        }
+    }
+
+    private int replayFrom(long after, long upTo) {
+        int[] count = {0};
+        jdbcTemplate.query(
+                "SELECT id, id_signalement, ancien_statut, nouveau_statut, id_lieux, acteur, date_evenement "
+                        + "FROM signalement_statut_evenement WHERE id > ? AND id <= ? ORDER BY id",
+                (ResultSet rs) -> {
+                    StatutEvent event = toEvent(rs);
+                    synchronized (lock) {
+                        applyLocked(event);
+                    }
+                    count[0]++;
+                }, after, upTo);
+        return count[0];
+    }
+
+    private static StatutEvent toEvent(ResultSet rs) throws SQLException {
+        long idLieux = rs.getLong("id_lieux");
+        Long lieu = rs.wasNull() ? null : idLieux;
+        Timestamp date = rs.getTimestamp("date_evenement");
+        return new StatutEvent(rs.getLong("id"), rs.getLong("id_signalement"), rs.getString("ancien_statut"),
+                rs.getString("nouveau_statut"), lieu, rs.getString("acteur"), date.toLocalDateTime());
+    }
+
+    private static long now() {
+        return LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static double hours(long seconds, long count) {
+        return count == 0 ? 0 : Math.round(seconds / 36.0 / count) / 100.0;
+    }
+}
@@ -0,0 +1,27 @@
+package com.projet.route.service;
+
+import java.util.Set;
+
+/**
+ * Statuts qui ferment un signalement. Le front écrit "terminé", les anciens imports "termine",
+ * l'avancement des travaux à 100 % "résolu". Le prédicat partiel de idx_signalement_ouverts
+ * (V8__index_chemins_acces.sql) liste les mêmes valeurs.
+ */
+public final class StatutsSignalement {
+
+    public static final Set<String> FERMES = Set.of("termine", "terminé", "résolu");
+
+    // Mêmes valeurs en littéraux, pour les requêtes : avec des paramètres liés, le planificateur
+    // ne peut pas prouver qu'elles impliquent le prédicat de l'index partiel
+    public static final String FERMES_SQL = "('termine', 'terminé', 'résolu')";
+
+    private StatutsSignalement() {
+    }
+
+    /**
+     * Vrai si {@code statut} ferme le signalement ; un statut null reste ouvert.
+     */
+    public static boolean isFerme(String statut) {
+        return statut != null && FERMES.contains(statut);
+    }
+}
@@ -0,0 +1,20 @@
+package com.projet.route.service;
+
+import java.util.Map;
+
+/**
+ * Document brut lu depuis une {@link SyncSource} : identifiant + champs.
+ */
+public class SyncDocument {
+
+    private final String id;
+    private final Map<String, Object> data;
+
+    public SyncDocument(String id, Map<String, Object> data) {
+        this.id = id;
+        this.data = data;
+    }
+
+    public String getId() { return id; }
+    public Map<String, Object> getData() { return data; }
+}
@@ -0,0 +1,326 @@
+package com.projet.route.service;
+
+import com.projet.route.models.Signalement;
+import com.projet.route.models.Travaux;
+import com.projet.route.repository.SignalementRepository;
+import com.projet.route.repository.TravauxRepository;
+import com.projet.route.service.mapping.FieldConverter;
+import com.projet.route.service.mapping.FieldConverters;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Détecte les écarts entre Postgres et Firestore sur signalements et travaux.
+ * Les identifiants Firestore sont découpés en plages de clés contiguës (ntile côté Postgres)
+ * et chaque plage est résumée par la somme des empreintes md5 de ses documents dans un
+ * {@link RangeHashTree}. Postgres calcule ces sommes lui-même : aucune ligne n'est transférée
+ * pour les plages identiques. Firestore n'offrant pas d'agrégat de ce type, sa collection est
+ * parcourue par pages en ne lisant que les champs comparés ; seules les plages divergentes
+ * sont ensuite relues des deux côtés et comparées document par document.
+ * Les valeurs Firestore passent par {@link FieldConverters} (échelle des colonnes) pour produire
+ * la même forme canonique que la requête SQL.
+ *
+ * Réparation : Firestore fait foi pour les signalements (création mobile : absents créés,
+ * divergents mis à jour) et Postgres pour les travaux (les écritures perdues de
+ * syncTravauxToFirestore sont remises en file, comptées "enqueued" et non "repaired").
+ */
+@Service
+public class SyncReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncReconciliationService.class);
+
+    private static final FieldConverter<BigDecimal> COORDINATE = FieldConverters.decimal(6);
+    private static final FieldConverter<BigDecimal> AMOUNT = FieldConverters.decimal(2);
+
+    private static final String[] SIGNALEMENT_FIELDS = {"latitude", "longitude", "type_probleme", "statut"};
+    private static final String[] TRAVAUX_FIELDS = {"budget", "avancement", "date_debut_travaux", "date_fin_travaux", "id_signalement"};
+
+    @Autowired
+    private SignalementRepository signalementRepository;
+
+    @Autowired
+    private TravauxRepository travauxRepository;
+
+    @Autowired
+    private SyncSource syncSource;
+
+    @Autowired
+    private FirebaseSyncService firebaseSyncService;
+
+    @Value("${sync.reconcile.depth:10}")
+    private int depth;
+
+    @Value("${sync.reconcile.page-size:1000}")
+    private int pageSize;
+
+    @Scheduled(cron = "${sync.reconcile.cron:-}")
+    public void scheduledReconcile() {
+        ReconciliationReport report = reconcile(true);
+        for (var c : report.getCollections()) {
+            logger.info("reconcile collection={} local={} remote={} comparisons={} divergentRanges={} missingLocal={} missingRemote={} different={} repaired={} enqueued={}",
+                    c.getCollection(), c.getLocalCount(), c.getRemoteCount(), c.getHashComparisons(), c.getDivergentRanges(),
+                    c.getMissingLocalCount(), c.getMissingRemoteCount(), c.getDifferentCount(), c.getRepaired(), c.getEnqueued());
+        }
+    }
+
+    public ReconciliationReport reconcile(boolean repair) {
+        if (depth < 1 || depth > 20) {
+            throw new IllegalArgumentException("sync.reconcile.depth invalide: " + depth);
+        }
+        ReconciliationReport report = new ReconciliationReport(repair);
+        try {
+            report.getCollections().add(reconcileSignalements(repair));
+            report.getCollections().add(reconcileTravaux(repair));
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException("Error reading Firestore during reconciliation", e);
+        }
+        return report;
+    }
+
+    private ReconciliationReport.CollectionReport reconcileSignalements(boolean repair) throws InterruptedException, ExecutionException {
+        LocalRanges local = localRanges(signalementRepository.findSyncRangeHashes(1 << depth));
+        Diff diff = new Diff(local);
+        int remoteCount = scanRemote(SyncSource.SIGNALEMENTS, SIGNALEMENT_FIELDS, diff.remoteTree,
+                SyncReconciliationService::signalementCanonical);
+
+        Map<String, SyncDocument> remoteDocs = new HashMap<>();
+        for (int leaf : diff.divergentLeaves()) {
+            String from = local.tree.from(leaf);
+            String to = local.tree.to(leaf);
+            Map<String, String> localRange = new HashMap<>();
+            for (Object[] row : signalementRepository.findSyncRange(from, to)) {
+                localRange.put((String) row[0], (String) row[1]);
+            }
+            Map<String, String> remoteRange = new HashMap<>();
+            for (SyncDocument doc : syncSource.fetchRange(SyncSource.SIGNALEMENTS, from, to)) {
+                remoteDocs.put(doc.getId(), doc);
+                remoteRange.put(doc.getId(), signalementCanonical(doc.getData()));
+            }
+            diff.compare(localRange, remoteRange);
+        }
+        ReconciliationReport.CollectionReport result = diff.toReport(SyncSource.SIGNALEMENTS, remoteCount);
+
+        if (repair) {
+            for (String id : diff.missingLocal) {
+                Signalement signalement = firebaseSyncService.toSignalement(remoteDocs.get(id));
+                if (signalement != null && signalementRepository.findByFirestoreId(id) == null) {
+                    signalementRepository.save(signalement);
+                    result.incrementRepaired();
+                }
+            }
+            for (String id : diff.different) {
+                Signalement remote = firebaseSyncService.toSignalement(remoteDocs.get(id));
+                Signalement signalement = signalementRepository.findByFirestoreId(id);
+                if (remote != null && signalement != null) {
+                    signalement.setLatitude(remote.getLatitude());
+                    signalement.setLongitude(remote.getLongitude());
+                    signalement.setTypeProbleme(remote.getTypeProbleme());
+                    signalement.setStatut(remote.getStatut());
+                    signalement.setSurface(remote.getSurface());
+                    signalement.setDescription(remote.getDescription());
+                    signalementRepository.save(signalement);
+                    result.incrementRepaired();
+                }
+            }
+        }
+        return result;
+    }
+
+    private ReconciliationReport.CollectionReport reconcileTravaux(boolean repair) throws InterruptedException, ExecutionException {
+        LocalRanges local = localRanges(travauxRepository.findSyncRangeHashes(1 << depth));
+        Diff diff = new Diff(local);
+        int remoteCount = scanRemote(SyncSource.TRAVAUX, TRAVAUX_FIELDS, diff.remoteTree,
+                SyncReconciliationService::travauxCanonical);
+
+        Map<String, SyncDocument> remoteDocs = new HashMap<>();
+        Map<String, Long> localIds = new HashMap<>();
+        for (int leaf : diff.divergentLeaves()) {
+            String from = local.tree.from(leaf);
+            String to = local.tree.to(leaf);
+            Map<String, String> localRange = new HashMap<>();
+            for (Object[] row : travauxRepository.findSyncRange(from, to)) {
+                localIds.put((String) row[1], ((Number) row[0]).longValue());
+                localRange.put((String) row[1], (String) row[2]);
+            }
+            Map<String, String> remoteRange = new HashMap<>();
+            for (SyncDocument doc : syncSource.fetchRange(SyncSource.TRAVAUX, from, to)) {
+                remoteDocs.put(doc.getId(), doc);
+                remoteRange.put(doc.getId(), travauxCanonical(doc.getData()));
+            }
+            diff.compare(localRange, remoteRange);
+        }
+        ReconciliationReport.CollectionReport result = diff.toReport(SyncSource.TRAVAUX, remoteCount);
+
+        if (repair) {
+            List<Long> toPush = new ArrayList<>();
+            diff.missingRemote.forEach(id -> toPush.add(localIds.get(id)));
+            diff.different.forEach(id -> toPush.add(localIds.get(id)));
+            for (Travaux travaux : travauxRepository.findAllById(toPush)) {
+                firebaseSyncService.syncTravauxToFirestore(travaux);
+                result.incrementEnqueued();
+            }
+            for (String id : diff.missingLocal) {
+                if (travauxRepository.findByFirestoreId(id) == null) {
+                    travauxRepository.save(firebaseSyncService.toTravaux(remoteDocs.get(id)));
+                    result.incrementRepaired();
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Arbre local à partir des agrégats SQL (première clé, nombre, somme des empreintes) par plage.
+     * La somme SQL est exacte (numeric) ; ses 64 bits de poids faible donnent la somme modulo 2^64
+     * accumulée côté Java.
+     */
+    private static LocalRanges localRanges(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return new LocalRanges(new RangeHashTree(new String[] {""}), 0);
+        }
+        String[] bounds = new String[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            bounds[i] = (String) rows.get(i)[0];
+        }
+        RangeHashTree tree = new RangeHashTree(bounds);
+        long count = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            count += ((Number) row[1]).longValue();
+            tree.setLeaf(i, new BigDecimal(row[2].toString()).toBigInteger().longValue());
+        }
+        return new LocalRanges(tree, (int) count);
+    }
+
+    /**
+     * Parcourt la collection Firestore par pages, en ne lisant que {@code fields}, et accumule
+     * les empreintes dans {@code tree}. Retourne le nombre de documents.
+     */
+    private int scanRemote(String collection, String[] fields, RangeHashTree tree,
+                           Function<Map<String, Object>, String> canonical) throws InterruptedException, ExecutionException {
+        int count = 0;
+        String after = null;
+        while (true) {
+            List<SyncDocument> page = syncSource.fetchPage(collection, after, pageSize, fields);
+            for (SyncDocument doc : page) {
+                tree.add(doc.getId(), RangeHashTree.rowHash(doc.getId(), canonical.apply(doc.getData())));
+            }
+            count += page.size();
+            if (page.size() < pageSize) {
+                return count;
+            }
+            after = page.get(page.size() - 1).getId();
+        }
+    }
+
+    private static class LocalRanges {
+        private final RangeHashTree tree;
+        private final int count;
+
+        private LocalRanges(RangeHashTree tree, int count) {
+            this.tree = tree;
+            this.count = count;
+        }
+    }
+
+    private static class Diff {
+        private final LocalRanges local;
+        private final RangeHashTree remoteTree;
+        private int comparisons;
+        private int divergentRanges;
+        private final List<String> missingLocal = new ArrayList<>();
+        private final List<String> missingRemote = new ArrayList<>();
+        private final List<String> different = new ArrayList<>();
+
+        private Diff(LocalRanges local) {
+            this.local = local;
+            this.remoteTree = new RangeHashTree(local.tree.getBounds());
+        }
+
+        private List<Integer> divergentLeaves() {
+            int[] counter = new int[1];
+            List<Integer> divergent = local.tree.divergentLeaves(remoteTree, counter);
+            comparisons = counter[0];
+            divergentRanges = divergent.size();
+            return divergent;
+        }
+
+        // Comparaison document par document d'une plage divergente
+        private void compare(Map<String, String> localRange, Map<String, String> remoteRange) {
+            localRange.forEach((id, canonical) -> {
+                String other = remoteRange.get(id);
+                if (other == null) {
+                    missingRemote.add(id);
+                } else if (!other.equals(canonical)) {
+                    different.add(id);
+                }
+            });
+            remoteRange.keySet().forEach(id -> {
+                if (!localRange.containsKey(id)) {
+                    missingLocal.add(id);
+                }
+            });
+        }
+
+        private ReconciliationReport.CollectionReport toReport(String collection, int remoteCount) {
+            ReconciliationReport.CollectionReport report = new ReconciliationReport.CollectionReport(collection);
+            report.setLocalCount(local.count);
+            report.setRemoteCount(remoteCount);
+            report.setRanges(local.tree.getRanges());
+            report.setHashComparisons(comparisons);
+            report.setDivergentRanges(divergentRanges);
+            missingLocal.forEach(report::addMissingLocal);
+            missingRemote.forEach(report::addMissingRemote);
+            different.forEach(report::addDifferent);
+            return report;
+        }
+    }
+
+    // Même forme que SignalementRepository.SYNC_CANONICAL
+    private static String signalementCanonical(Map<String, Object> data) {
+        return plain(decimalOrNull(COORDINATE, data.get("latitude"))) + '|' + plain(decimalOrNull(COORDINATE, data.get("longitude")))
+                + '|' + Objects.toString(data.get("type_probleme"), "null") + '|' + Objects.toString(data.get("statut"), "null");
+    }
+
+    // Même forme que TravauxRepository.SYNC_CANONICAL
+    private static String travauxCanonical(Map<String, Object> data) {
+        return plain(decimalOrNull(AMOUNT, data.get("budget"))) + '|' + plain(decimalOrNull(AMOUNT, data.get("avancement")))
+                + '|' + dateOrNull(data.get("date_debut_travaux")) + '|' + dateOrNull(data.get("date_fin_travaux"))
+                + '|' + Objects.toString(data.get("id_signalement"), "null");
+    }
+
+    // Les convertisseurs fixent déjà l'échelle de la colonne : même texte que CAST(round(x, n) AS text)
+    private static String plain(BigDecimal value) {
+        return value == null ? "null" : value.toPlainString();
+    }
+
+    private static BigDecimal decimalOrNull(FieldConverter<BigDecimal> converter, Object raw) {
+        try {
+            return converter.convert(raw);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String dateOrNull(Object raw) {
+        try {
+            return Objects.toString(FieldConverters.LOCAL_DATE.convert(raw), "null");
+        } catch (IllegalArgumentException e) {
+            return "null";
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.projet.route.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Source de synchronisation utilisée par {@link FirebaseSyncService}.
+ * L'implémentation par défaut lit Firestore ; {@link InMemorySyncSource}
+ * permet de mesurer et tester l'import sans projet Firebase.
+ */
+public interface SyncSource {
+
+    String SIGNALEMENTS = "signalements";
+    String TRAVAUX = "travaux";
+    String HISTORIQUES_TRAVAUX = "historiques_travaux";
+
+    // Limite d'opérations d'un WriteBatch Firestore
+    int MAX_BATCH_SIZE = 500;
+
+    List<SyncDocument> fetchAll(String collection) throws InterruptedException, ExecutionException;
+
+    /**
+     * Document par identifiant, ou null s'il n'existe plus.
+     */
+    SyncDocument fetch(String collection, String docId) throws InterruptedException, ExecutionException;
+
+    /**
+     * Page de documents par identifiant croissant, après {@code startAfter} (null = début).
+     * Si {@code fields} n'est pas vide, seuls ces champs sont lus.
+     */
+    List<SyncDocument> fetchPage(String collection, String startAfter, int limit, String... fields)
+            throws InterruptedException, ExecutionException;
+
+    /**
+     * Documents dont l'identifiant est dans [{@code from}, {@code to}) ; une borne null n'est pas appliquée.
+     */
+    List<SyncDocument> fetchRange(String collection, String from, String to) throws InterruptedException, ExecutionException;
+
+    void write(String collection, String docId, Map<String, Object> data) throws InterruptedException, ExecutionException;
+
+    /**
+     * Pose plusieurs documents en une seule validation (au plus {@link #MAX_BATCH_SIZE}).
+     */
+    void writeBatch(List<SyncWrite> writes) throws InterruptedException, ExecutionException;
+}
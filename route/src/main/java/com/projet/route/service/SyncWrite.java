@@ -0,0 +1,53 @@
+package com.projet.route.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ecriture en attente vers une {@link SyncSource} : document complet à poser.
+ * Les actions {@code onWritten} ne sont exécutées qu'une fois le document écrit ; quand une
+ * version plus récente remplace celle-ci, elle reprend ses actions.
+ */
+public class SyncWrite {
+
+    private final String collection;
+    private final String docId;
+    private final Map<String, Object> data;
+    private final long enqueuedNanos;
+    private int attempts;
+    private final List<Runnable> onWritten = new ArrayList<>();
+
+    public SyncWrite(String collection, String docId, Map<String, Object> data) {
+        this.collection = collection;
+        this.docId = docId;
+        this.data = data;
+        this.enqueuedNanos = System.nanoTime();
+    }
+
+    public String getCollection() { return collection; }
+    public String getDocId() { return docId; }
+    public Map<String, Object> getData() { return data; }
+    public long getEnqueuedNanos() { return enqueuedNanos; }
+    public int getAttempts() { return attempts; }
+    void incrementAttempts() { attempts++; }
+
+    synchronized void onWritten(Runnable action) {
+        onWritten.add(action);
+    }
+
+    void inherit(SyncWrite previous) {
+        List<Runnable> actions = previous.writtenActions();
+        synchronized (this) {
+            onWritten.addAll(0, actions);
+        }
+    }
+
+    synchronized List<Runnable> writtenActions() {
+        return new ArrayList<>(onWritten);
+    }
+
+    String key() {
+        return collection + '/' + docId;
+    }
+}
@@ -0,0 +1,24 @@
+package com.projet.route.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Point de la courbe d'avancement d'un travaux.
+ */
+public class TimelinePoint {
+
+    private final LocalDateTime date;
+    private final BigDecimal avancement;
+    private final String commentaire;
+
+    public TimelinePoint(LocalDateTime date, BigDecimal avancement, String commentaire) {
+        this.date = date;
+        this.avancement = avancement;
+        this.commentaire = commentaire;
+    }
+
+    public LocalDateTime getDate() { return date; }
+    public BigDecimal getAvancement() { return avancement; }
+    public String getCommentaire() { return commentaire; }
+}
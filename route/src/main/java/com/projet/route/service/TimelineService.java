@@ -0,0 +1,105 @@
+package com.projet.route.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.projet.route.models.HistoriquesTravaux;
+import com.projet.route.repository.HistoriquesTravauxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Courbe d'avancement d'un travaux, lue par plage indexée puis réduite à {@code points}
+ * points par LTTB. Les résultats sont mis en cache par travaux et invalidés à chaque
+ * écriture d'un HistoriquesTravaux (voir HistoriquesTravauxListener).
+ * Chaque invalidation incrémente une génération : un calcul commencé avant n'est pas mis en cache.
+ */
+@Service
+public class TimelineService {
+
+    // Générations réparties sur un nombre fixe de compteurs, indexés par travaux
+    private static final int GENERATION_STRIPES = 256;
+
+    private final HistoriquesTravauxRepository historiquesTravauxRepository;
+    private final int maxWindows;
+
+    // travauxId -> (fenêtre, nombre de points) -> courbe ; les deux niveaux sont bornés
+    private final Cache<Long, Cache<String, List<TimelinePoint>>> cache;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    @Autowired
+    public TimelineService(HistoriquesTravauxRepository historiquesTravauxRepository,
+                           @Value("${timeline.cache.max-travaux:1000}") int maxEntries,
+                           @Value("${timeline.cache.max-fenetres:32}") int maxWindows) {
+        this.historiquesTravauxRepository = historiquesTravauxRepository;
+        this.maxWindows = maxWindows;
+        this.cache = Caffeine.newBuilder().maximumSize(maxEntries).build();
+    }
+
+    public List<TimelinePoint> getTimeline(Long travauxId, LocalDateTime from, LocalDateTime to, int points) {
+        String key = from + "|" + to + "|" + points;
+        Cache<String, List<TimelinePoint>> perTravaux = cache.getIfPresent(travauxId);
+        if (perTravaux != null) {
+            List<TimelinePoint> cached = perTravaux.getIfPresent(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        long generation = generations.get(stripe(travauxId));
+        List<HistoriquesTravaux> rows = historiquesTravauxRepository
+                .findByTravauxIdAndDateModificationBetweenOrderByDateModificationAsc(travauxId, from, to);
+        List<TimelinePoint> all = new ArrayList<>(rows.size());
+        double[] x = new double[rows.size()];
+        double[] y = new double[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            HistoriquesTravaux h = rows.get(i);
+            all.add(new TimelinePoint(h.getDateModification(), h.getAvancement(), h.getCommentaire()));
+            x[i] = h.getDateModification().toEpochSecond(ZoneOffset.UTC);
+            y[i] = h.getAvancement() != null ? h.getAvancement().doubleValue() : 0;
+        }
+        List<TimelinePoint> result = Collections.unmodifiableList(Downsampling.select(all, Downsampling.lttb(x, y, points)));
+
+        // compute est atomique avec le remove d'evict : une invalidation survenue pendant la lecture
+        // a changé la génération, et le résultat n'est alors pas conservé
+        cache.asMap().compute(travauxId, (id, windows) -> {
+            if (generations.get(stripe(id)) != generation) {
+                return windows;
+            }
+            Cache<String, List<TimelinePoint>> target = windows != null ? windows
+                    : Caffeine.newBuilder().maximumSize(maxWindows).<String, List<TimelinePoint>>build();
+            target.put(key, result);
+            return target;
+        });
+        return result;
+    }
+
+    /**
+     * Invalide le cache d'un travaux, immédiatement et de nouveau après validation de la
+     * transaction en cours, pour ne pas garder une lecture faite avant le commit.
+     */
+    public void invalidate(Long travauxId) {
+        if (travauxId == null) {
+            return;
+        }
+        evict(travauxId);
+        TransactionHooks.afterCommit(() -> evict(travauxId));
+    }
+
+    private void evict(Long travauxId) {
+        generations.incrementAndGet(stripe(Objects.requireNonNull(travauxId)));
+        cache.invalidate(travauxId);
+    }
+
+    private static int stripe(Long travauxId) {
+        return Math.floorMod(Long.hashCode(travauxId), GENERATION_STRIPES);
+    }
+}
@@ -0,0 +1,96 @@
+package com.projet.route.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Roue temporelle à la granularité du jour : une échéance est rangée dans la case
+ * {@code jour % taille} ; les échéances au-delà d'un tour attendent dans un débordement
+ * trié et rejoignent la roue quand elles entrent dans l'horizon. Avancer d'un jour ne
+ * touche que la case du jour, sans reparcourir les éléments planifiés. Non synchronisé.
+ */
+public class TimingWheel {
+
+    private final int slots;
+    private final List<Set<Long>> wheel;
+    private final TreeMap<Long, Set<Long>> overflow = new TreeMap<>();
+    private final Map<Long, Long> deadlines = new HashMap<>();
+    private long currentDay;
+
+    public TimingWheel(int slots, long currentDay) {
+        this.slots = slots;
+        this.currentDay = currentDay;
+        this.wheel = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            wheel.add(new HashSet<>());
+        }
+    }
+
+    public long getCurrentDay() {
+        return currentDay;
+    }
+
+    /**
+     * Planifie {@code id} pour le jour {@code day} (remplace une planification précédente).
+     * Une échéance déjà passée n'est pas planifiée.
+     */
+    public void schedule(long id, long day) {
+        cancel(id);
+        if (day <= currentDay) {
+            return;
+        }
+        deadlines.put(id, day);
+        if (day - currentDay < slots) {
+            wheel.get(slot(day)).add(id);
+        } else {
+            overflow.computeIfAbsent(day, d -> new HashSet<>()).add(id);
+        }
+    }
+
+    public void cancel(long id) {
+        Long day = deadlines.remove(id);
+        if (day == null) {
+            return;
+        }
+        if (!wheel.get(slot(day)).remove(id)) {
+            Set<Long> ids = overflow.get(day);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    overflow.remove(day);
+                }
+            }
+        }
+    }
+
+    /**
+     * Avance jusqu'au jour {@code day} inclus et renvoie les identifiants arrivés à échéance.
+     */
+    public List<Long> advanceTo(long day) {
+        List<Long> expired = new ArrayList<>();
+        while (currentDay < day) {
+            currentDay++;
+            Set<Long> bucket = wheel.get(slot(currentDay));
+            for (Long id : bucket) {
+                deadlines.remove(id);
+                expired.add(id);
+            }
+            bucket.clear();
+            // Le jour currentDay + slots - 1 entre dans l'horizon de la roue
+            Set<Long> incoming = overflow.remove(currentDay + slots - 1);
+            if (incoming != null) {
+                wheel.get(slot(currentDay + slots - 1)).addAll(incoming);
+            }
+        }
+        return expired;
+    }
+
+    private int slot(long day) {
+        return (int) Math.floorMod(day, (long) slots);
+    }
+}
@@ -0,0 +1,54 @@
+package com.projet.route.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Seau à jetons : {@code ratePerSecond} jetons par seconde, au plus {@code capacity} en réserve.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double ratePerNano;
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(double ratePerSecond, double capacity) {
+        this.capacity = capacity;
+        this.ratePerNano = ratePerSecond / 1e9;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Prend jusqu'à {@code requested} jetons et renvoie le nombre obtenu (éventuellement 0).
+     */
+    public synchronized int tryAcquire(int requested) {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * ratePerNano);
+        lastRefill = now;
+        int granted = (int) Math.min(requested, Math.floor(tokens));
+        tokens -= granted;
+        return granted;
+    }
+
+    /**
+     * Comme {@link #tryAcquire}, mais attend au plus {@code timeoutNanos} qu'au moins un jeton
+     * soit disponible. Renvoie 0 si le délai est écoulé.
+     */
+    public int acquire(int requested, long timeoutNanos) throws InterruptedException {
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (true) {
+            int granted = tryAcquire(requested);
+            if (granted > 0) {
+                return granted;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return 0;
+            }
+            // Le temps de remplir un jeton, au moins une milliseconde
+            long refill = ratePerNano > 0 ? (long) Math.ceil(1 / ratePerNano) : remaining;
+            TimeUnit.NANOSECONDS.sleep(Math.min(remaining, Math.max(1_000_000L, refill)));
+        }
+    }
+}
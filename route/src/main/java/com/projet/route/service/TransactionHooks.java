@@ -0,0 +1,31 @@
+package com.projet.route.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Actions différées à la validation de la transaction en cours : les index et caches en mémoire
+ * ne voient ainsi ni les écritures annulées, ni celles qu'une lecture concurrente ne voit pas encore.
+ */
+public final class TransactionHooks {
+
+    private TransactionHooks() {
+    }
+
+    /**
+     * Exécute {@code action} après le commit de la transaction en cours, ou tout de suite hors
+     * transaction. Les valeurs utilisées par l'action doivent être capturées avant l'appel.
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,23 @@
+package com.projet.route.service;
+
+import java.time.LocalDate;
+
+/**
+ * Publié quand un travaux inachevé dépasse sa date de fin.
+ */
+public class TravauxOverdueEvent {
+
+    private final Long travauxId;
+    private final Long idEntreprise;
+    private final LocalDate dateFinTravaux;
+
+    public TravauxOverdueEvent(Long travauxId, Long idEntreprise, LocalDate dateFinTravaux) {
+        this.travauxId = travauxId;
+        this.idEntreprise = idEntreprise;
+        this.dateFinTravaux = dateFinTravaux;
+    }
+
+    public Long getTravauxId() { return travauxId; }
+    public Long getIdEntreprise() { return idEntreprise; }
+    public LocalDate getDateFinTravaux() { return dateFinTravaux; }
+}
@@ -0,0 +1,222 @@
+package com.projet.route.service;
+
+import com.projet.route.models.Travaux;
+import com.projet.route.repository.TravauxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Index en mémoire du planning des travaux, tenu à jour par TravauxListener après chaque commit :
+ * un arbre d'intervalles [dateDebut, dateFin] par entreprise pour les chevauchements,
+ * un index trié par date de fin des travaux inachevés pour les retards, et une roue
+ * temporelle qui publie un {@link TravauxOverdueEvent} le jour où un travaux passe en retard.
+ */
+@Service
+public class TravauxScheduleIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TravauxScheduleIndex.class);
+
+    private static final BigDecimal TERMINE = new BigDecimal("100");
+    private static final int WHEEL_SLOTS = 512;
+
+    @Autowired
+    private TravauxRepository travauxRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, IntervalTree<Long>> byEntreprise = new HashMap<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    // Date de fin (jour epoch) -> travaux inachevés
+    private final TreeMap<Long, TreeSet<Long>> activeByEnd = new TreeMap<>();
+    private TimingWheel wheel = new TimingWheel(WHEEL_SLOTS, LocalDate.now().toEpochDay());
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.warn("Construction de l'index de planning impossible: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void rebuild() {
+        byEntreprise.clear();
+        entries.clear();
+        activeByEnd.clear();
+        wheel = new TimingWheel(WHEEL_SLOTS, LocalDate.now().toEpochDay());
+        for (Object[] row : travauxRepository.findScheduleProjection()) {
+            put(new Entry((Long) row[0], (Long) row[1], (LocalDate) row[2], (LocalDate) row[3], (BigDecimal) row[4]));
+        }
+        logger.info("Index de planning construit: {} travaux", entries.size());
+    }
+
+    public void onTravauxSaved(Travaux travaux) {
+        if (travaux.getId() == null) {
+            return;
+        }
+        // Valeurs lues au flush, appliquées seulement si la transaction est validée
+        Entry entry = entryOf(travaux);
+        TransactionHooks.afterCommit(() -> {
+            synchronized (this) {
+                removeEntry(entry.id);
+                put(entry);
+            }
+        });
+    }
+
+    public void onTravauxDeleted(Long travauxId) {
+        if (travauxId != null) {
+            TransactionHooks.afterCommit(() -> {
+                synchronized (this) {
+                    removeEntry(travauxId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Travaux de l'entreprise dont la période chevauche [from, to].
+     */
+    public synchronized List<Long> findOverlapping(Long idEntreprise, LocalDate from, LocalDate to) {
+        IntervalTree<Long> tree = byEntreprise.get(idEntreprise);
+        if (tree == null) {
+            return List.of();
+        }
+        return tree.overlapping(from.toEpochDay(), to.toEpochDay());
+    }
+
+    /**
+     * Travaux inachevés dont la date de fin est antérieure à {@code date}.
+     */
+    public synchronized List<Long> findOverdue(LocalDate date) {
+        List<Long> result = new ArrayList<>();
+        activeByEnd.headMap(date.toEpochDay(), false).values().forEach(result::addAll);
+        return result;
+    }
+
+    /**
+     * Autres travaux de la même entreprise dont la période chevauche celle de {@code travaux},
+     * d'après les valeurs de l'entité (éventuellement pas encore validées).
+     */
+    public synchronized List<Long> findConflicts(Travaux travaux) {
+        Entry entry = entryOf(travaux);
+        if (entry.entrepriseId == null || entry.start == null) {
+            return List.of();
+        }
+        IntervalTree<Long> tree = byEntreprise.get(entry.entrepriseId);
+        if (tree == null) {
+            return List.of();
+        }
+        List<Long> conflicts = new ArrayList<>();
+        for (Long other : tree.overlapping(entry.start, entry.end)) {
+            if (!other.equals(entry.id)) {
+                conflicts.add(other);
+            }
+        }
+        return conflicts;
+    }
+
+    @Scheduled(cron = "${travaux.overdue.cron:0 5 0 * * *}")
+    public void checkOverdue() {
+        List<TravauxOverdueEvent> events = new ArrayList<>();
+        synchronized (this) {
+            for (Long id : wheel.advanceTo(LocalDate.now().toEpochDay())) {
+                Entry entry = entries.get(id);
+                if (entry != null && entry.active) {
+                    events.add(new TravauxOverdueEvent(id, entry.entrepriseId, LocalDate.ofEpochDay(entry.end)));
+                }
+            }
+        }
+        // Publication hors verrou : les écouteurs peuvent relire l'index
+        events.forEach(eventPublisher::publishEvent);
+        if (!events.isEmpty()) {
+            logger.info("{} travaux passés en retard", events.size());
+        }
+    }
+
+    @EventListener
+    public void logOverdue(TravauxOverdueEvent event) {
+        logger.info("Travaux {} en retard (entreprise {}, fin prévue le {})",
+                event.getTravauxId(), event.getIdEntreprise(), event.getDateFinTravaux());
+    }
+
+    private static Entry entryOf(Travaux travaux) {
+        Long entrepriseId = travaux.getEntreprise() != null ? travaux.getEntreprise().getIdEntreprise() : null;
+        return new Entry(travaux.getId(), entrepriseId, travaux.getDateDebutTravaux(), travaux.getDateFinTravaux(), travaux.getAvancement());
+    }
+
+    private void put(Entry entry) {
+        entries.put(entry.id, entry);
+        if (entry.entrepriseId != null && entry.start != null) {
+            byEntreprise.computeIfAbsent(entry.entrepriseId, id -> new IntervalTree<>())
+                    .insert(entry.start, entry.end, entry.id, entry.id);
+        }
+        if (entry.active && entry.hasEnd) {
+            activeByEnd.computeIfAbsent(entry.end, d -> new TreeSet<>()).add(entry.id);
+            // En retard le lendemain de la date de fin
+            wheel.schedule(entry.id, entry.end + 1);
+        }
+    }
+
+    private void removeEntry(Long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        if (entry.entrepriseId != null && entry.start != null) {
+            IntervalTree<Long> tree = byEntreprise.get(entry.entrepriseId);
+            if (tree != null) {
+                tree.remove(entry.start, entry.id);
+                if (tree.size() == 0) {
+                    byEntreprise.remove(entry.entrepriseId);
+                }
+            }
+        }
+        if (entry.active && entry.hasEnd) {
+            TreeSet<Long> ids = activeByEnd.get(entry.end);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    activeByEnd.remove(entry.end);
+                }
+            }
+        }
+        wheel.cancel(id);
+    }
+
+    private static final class Entry {
+        private final Long id;
+        private final Long entrepriseId;
+        private final Long start;
+        private final long end;
+        private final boolean hasEnd;
+        private final boolean active;
+
+        private Entry(Long id, Long entrepriseId, LocalDate debut, LocalDate fin, BigDecimal avancement) {
+            this.id = id;
+            this.entrepriseId = entrepriseId;
+            this.hasEnd = fin != null;
+            // Sans date de fin, la période reste ouverte
+            this.end = fin != null ? fin.toEpochDay() : Long.MAX_VALUE;
+            this.start = debut != null ? Math.min(debut.toEpochDay(), end) : null;
+            this.active = avancement == null || avancement.compareTo(TERMINE) < 0;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.projet.route.service.mapping;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Mapping précompilé document Firestore -> entité : la liste des champs,
+ * convertisseurs et setters est construite une seule fois puis réutilisée
+ * pour chaque document.
+ */
+public final class DocumentMapper<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentMapper.class);
+
+    private final String name;
+    private final Supplier<T> factory;
+    private final BiConsumer<T, String> idSetter;
+    private final Binding<T, ?>[] bindings;
+    private final MappingStats stats = new MappingStats();
+
+    @SuppressWarnings("unchecked")
+    private DocumentMapper(Builder<T> builder) {
+        this.name = builder.name;
+        this.factory = builder.factory;
+        this.idSetter = builder.idSetter;
+        this.bindings = (Binding<T, ?>[]) builder.bindings.toArray(new Binding<?, ?>[0]);
+    }
+
+    public static <T> Builder<T> builder(String name, Supplier<T> factory) {
+        return new Builder<>(name, factory);
+    }
+
+    /**
+     * Convertit un document. Renvoie null si un champ obligatoire est absent ou invalide ;
+     * un champ facultatif invalide est ignoré et compté dans les statistiques.
+     */
+    public T map(String id, Map<String, Object> data) {
+        try {
+            return mapStrict(id, data);
+        } catch (DocumentMappingException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Comme {@link #map}, mais lève {@link DocumentMappingException} au lieu de renvoyer null.
+     */
+    public T mapStrict(String id, Map<String, Object> data) {
+        T target = factory.get();
+        if (idSetter != null) {
+            idSetter.accept(target, id);
+        }
+        for (Binding<T, ?> binding : bindings) {
+            String error = binding.apply(target, data, stats);
+            if (error != null) {
+                stats.recordRejected();
+                if (logger.isDebugEnabled()) {
+                    logger.debug("mapping.rejected mapper={} id={} field={} value={}", name, id, binding.field, data.get(binding.field));
+                }
+                throw new DocumentMappingException(binding.field, error);
+            }
+        }
+        stats.recordMapped();
+        return target;
+    }
+
+    public String getName() { return name; }
+    public MappingStats getStats() { return stats; }
+
+    private static final class Binding<T, V> {
+        private final String field;
+        private final FieldConverter<V> converter;
+        private final BiConsumer<T, V> setter;
+        private final boolean required;
+
+        private Binding(String field, FieldConverter<V> converter, BiConsumer<T, V> setter, boolean required) {
+            this.field = field;
+            this.converter = converter;
+            this.setter = setter;
+            this.required = required;
+        }
+
+        // Renvoie null si le document reste valide, sinon la cause du rejet
+        private String apply(T target, Map<String, Object> data, MappingStats stats) {
+            Object raw = data.get(field);
+            V value;
+            try {
+                value = converter.convert(raw);
+            } catch (RuntimeException e) {
+                stats.recordFieldError(field);
+                return required ? "Champ " + field + " invalide (" + e.getMessage() + ")" : null;
+            }
+            if (value == null) {
+                if (required) {
+                    stats.recordFieldError(field);
+                    return "Champ " + field + " manquant";
+                }
+                return null;
+            }
+            setter.accept(target, value);
+            return null;
+        }
+    }
+
+    public static final class Builder<T> {
+        private final String name;
+        private final Supplier<T> factory;
+        private final List<Binding<T, ?>> bindings = new ArrayList<>();
+        private BiConsumer<T, String> idSetter;
+
+        private Builder(String name, Supplier<T> factory) {
+            this.name = name;
+            this.factory = factory;
+        }
+
+        public Builder<T> id(BiConsumer<T, String> setter) {
+            this.idSetter = setter;
+            return this;
+        }
+
+        public <V> Builder<T> required(String field, FieldConverter<V> converter, BiConsumer<T, V> setter) {
+            bindings.add(new Binding<>(field, converter, setter, true));
+            return this;
+        }
+
+        public <V> Builder<T> optional(String field, FieldConverter<V> converter, BiConsumer<T, V> setter) {
+            bindings.add(new Binding<>(field, converter, setter, false));
+            return this;
+        }
+
+        public DocumentMapper<T> build() {
+            return new DocumentMapper<>(this);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.projet.route.service.mapping;
+
+/**
+ * Levée quand un champ obligatoire d'un document est absent ou invalide.
+ */
+public class DocumentMappingException extends RuntimeException {
+
+    private final String field;
+
+    public DocumentMappingException(String field, String message) {
+        super(message);
+        this.field = field;
+    }
+
+    public String getField() { return field; }
+}
@@ -0,0 +1,11 @@
+package com.projet.route.service.mapping;
+
+/**
+ * Conversion typée d'une valeur brute de document Firestore.
+ * Renvoie null pour une valeur absente et lève {@link IllegalArgumentException}
+ * pour un type non pris en charge.
+ */
+@FunctionalInterface
+public interface FieldConverter<V> {
+    V convert(Object raw);
+}
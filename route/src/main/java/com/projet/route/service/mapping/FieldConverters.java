@@ -0,0 +1,104 @@
+package com.projet.route.service.mapping;
+
+import com.google.cloud.Timestamp;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Convertisseurs réutilisables, sans état, pour les champs des documents Firestore.
+ */
+public final class FieldConverters {
+
+    private static final long[] POW10 = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L};
+
+    // Au-delà, le produit double * 10^scale n'est plus exact sur 53 bits
+    private static final double MAX_EXACT = 1L << 52;
+
+    public static final FieldConverter<String> STRING = raw -> raw == null ? null : raw.toString();
+
+    public static final FieldConverter<LocalDateTime> LOCAL_DATE_TIME_UTC = raw -> {
+        if (raw == null) {
+            return null;
+        }
+        if (raw instanceof Timestamp) {
+            Timestamp ts = (Timestamp) raw;
+            return LocalDateTime.ofEpochSecond(ts.getSeconds(), ts.getNanos(), ZoneOffset.UTC);
+        }
+        throw new IllegalArgumentException("Timestamp attendu: " + raw.getClass().getSimpleName());
+    };
+
+    public static final FieldConverter<LocalDate> LOCAL_DATE = raw -> {
+        if (raw == null) {
+            return null;
+        }
+        if (raw instanceof Timestamp) {
+            Timestamp ts = (Timestamp) raw;
+            return LocalDate.ofInstant(Instant.ofEpochSecond(ts.getSeconds(), ts.getNanos()), ZoneId.systemDefault());
+        }
+        throw new IllegalArgumentException("Timestamp attendu: " + raw.getClass().getSimpleName());
+    };
+
+    public static final FieldConverter<Long> LONG = raw -> {
+        if (raw == null) {
+            return null;
+        }
+        if (raw instanceof Number) {
+            return ((Number) raw).longValue();
+        }
+        if (raw instanceof String) {
+            return Long.parseLong((String) raw);
+        }
+        throw new IllegalArgumentException("Entier attendu: " + raw.getClass().getSimpleName());
+    };
+
+    private FieldConverters() {
+    }
+
+    /**
+     * Convertit Double/Long/Integer/String en BigDecimal à l'échelle de la colonne cible,
+     * arrondi HALF_UP quel que soit le type source : 12.5 reçu en Double ou en "12.50" donne
+     * la même valeur. Les doubles passent par un entier non mis à l'échelle au lieu de
+     * Double.toString, ce qui évite la chaîne intermédiaire de BigDecimal.valueOf(double).
+     */
+    public static FieldConverter<BigDecimal> decimal(int scale) {
+        if (scale < 0 || scale >= POW10.length) {
+            throw new IllegalArgumentException("Echelle non supportée: " + scale);
+        }
+        long factor = POW10[scale];
+        return raw -> {
+            if (raw == null) {
+                return null;
+            }
+            if (raw instanceof Double || raw instanceof Float) {
+                double value = ((Number) raw).doubleValue();
+                if (Double.isNaN(value) || Double.isInfinite(value)) {
+                    throw new IllegalArgumentException("Nombre non fini: " + value);
+                }
+                double scaled = value * factor;
+                if (Math.abs(scaled) < MAX_EXACT) {
+                    // Math.round arrondit vers +infini : symétrique pour rester HALF_UP sur les négatifs
+                    long unscaled = scaled < 0 ? -Math.round(-scaled) : Math.round(scaled);
+                    return BigDecimal.valueOf(unscaled, scale);
+                }
+                return BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP);
+            }
+            if (raw instanceof Long || raw instanceof Integer) {
+                return BigDecimal.valueOf(((Number) raw).longValue(), 0).setScale(scale);
+            }
+            if (raw instanceof String) {
+                try {
+                    return new BigDecimal(((String) raw).trim()).setScale(scale, RoundingMode.HALF_UP);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Nombre invalide: " + raw);
+                }
+            }
+            throw new IllegalArgumentException("Nombre attendu: " + raw.getClass().getSimpleName());
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package com.projet.route.service.mapping;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs d'un {@link DocumentMapper} : documents convertis, rejetés et erreurs par champ.
+ */
+public class MappingStats {
+
+    private final LongAdder mapped = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final Map<String, LongAdder> fieldErrors = new ConcurrentHashMap<>();
+
+    void recordMapped() {
+        mapped.increment();
+    }
+
+    void recordRejected() {
+        rejected.increment();
+    }
+
+    void recordFieldError(String field) {
+        fieldErrors.computeIfAbsent(field, k -> new LongAdder()).increment();
+    }
+
+    public long getMapped() { return mapped.sum(); }
+    public long getRejected() { return rejected.sum(); }
+
+    public Map<String, Long> getFieldErrors() {
+        Map<String, Long> snapshot = new LinkedHashMap<>();
+        fieldErrors.forEach((field, count) -> snapshot.put(field, count.sum()));
+        return snapshot;
+    }
+
+    public void reset() {
+        mapped.reset();
+        rejected.reset();
+        fieldErrors.clear();
+    }
+}
@@ -0,0 +1,42 @@
+package com.projet.route.service.mapping;
+
+import com.projet.route.models.Signalement;
+import com.projet.route.models.Travaux;
+import org.springframework.stereotype.Component;
+
+import static com.projet.route.service.mapping.FieldConverters.LOCAL_DATE;
+import static com.projet.route.service.mapping.FieldConverters.LOCAL_DATE_TIME_UTC;
+import static com.projet.route.service.mapping.FieldConverters.STRING;
+import static com.projet.route.service.mapping.FieldConverters.decimal;
+
+/**
+ * Mappers des collections Firestore importées. Les échelles suivent les colonnes
+ * (latitude/longitude NUMERIC(15,6), budget et avancement scale 2).
+ * Les relations (signalement, entreprise) restent résolues par FirebaseSyncService.
+ */
+@Component
+public class SyncMappers {
+
+    private final DocumentMapper<Signalement> signalement = DocumentMapper.<Signalement>builder("signalement", Signalement::new)
+            .id(Signalement::setFirestoreId)
+            .required("latitude", decimal(6), Signalement::setLatitude)
+            .required("longitude", decimal(6), Signalement::setLongitude)
+            .optional("Id_User", STRING, Signalement::setIdUser)
+            .optional("surface", decimal(2), Signalement::setSurface)
+            .optional("type_probleme", STRING, Signalement::setTypeProbleme)
+            .optional("description", STRING, Signalement::setDescription)
+            .optional("statut", STRING, Signalement::setStatut)
+            .optional("date_ajoute", LOCAL_DATE_TIME_UTC, Signalement::setDateAjoute)
+            .build();
+
+    private final DocumentMapper<Travaux> travaux = DocumentMapper.<Travaux>builder("travaux", Travaux::new)
+            .id(Travaux::setFirestoreId)
+            .optional("budget", decimal(2), Travaux::setBudget)
+            .optional("date_debut_travaux", LOCAL_DATE, Travaux::setDateDebutTravaux)
+            .optional("date_fin_travaux", LOCAL_DATE, Travaux::setDateFinTravaux)
+            .optional("avancement", decimal(2), Travaux::setAvancement)
+            .build();
+
+    public DocumentMapper<Signalement> signalement() { return signalement; }
+    public DocumentMapper<Travaux> travaux() { return travaux; }
+}
@@ -0,0 +1,51 @@
+package com.projet.route.service.notification;
+
+import com.google.firebase.messaging.BatchResponse;
+import com.google.firebase.messaging.FirebaseMessaging;
+import com.google.firebase.messaging.Message;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Canal "fcm" : push Firebase Cloud Messaging, le destinataire étant le jeton de l'appareil.
+ * Envoi par lots de 500 messages, la limite de l'API.
+ */
+@Component
+public class FcmNotificationSender implements NotificationSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(FcmNotificationSender.class);
+
+    private static final int MAX_BATCH_SIZE = 500;
+
+    @Override
+    public String getCanal() {
+        return "fcm";
+    }
+
+    @Override
+    public void send(List<Notification> notifications) throws Exception {
+        for (int start = 0; start < notifications.size(); start += MAX_BATCH_SIZE) {
+            List<Message> messages = new ArrayList<>();
+            for (Notification notification : notifications.subList(start, Math.min(notifications.size(), start + MAX_BATCH_SIZE))) {
+                messages.add(Message.builder()
+                        .setToken(notification.getDestinataire())
+                        .setNotification(com.google.firebase.messaging.Notification.builder()
+                                .setTitle(notification.getTitre())
+                                .setBody(notification.getMessage())
+                                .build())
+                        .putData("idSignalement", String.valueOf(notification.getIdSignalement()))
+                        .putData("idAbonnement", String.valueOf(notification.getIdAbonnement()))
+                        .build());
+            }
+            BatchResponse response = FirebaseMessaging.getInstance().sendEach(messages);
+            if (response.getFailureCount() > 0) {
+                logger.warn("fcm.batch messages={} echecs={}", messages.size(), response.getFailureCount());
+            }
+        }
+    }
+}
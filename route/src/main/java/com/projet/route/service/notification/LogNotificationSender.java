@@ -0,0 +1,31 @@
+package com.projet.route.service.notification;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Canal "log" : écrit les notifications dans les journaux (tests, postes de développement).
+ */
+@Component
+public class LogNotificationSender implements NotificationSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogNotificationSender.class);
+
+    @Override
+    public String getCanal() {
+        return "log";
+    }
+
+    @Override
+    public void send(List<Notification> notifications) {
+        for (Notification notification : notifications) {
+            logger.info("notification destinataire={} abonnement={} signalement={} titre=\"{}\" message=\"{}\"",
+                    notification.getDestinataire(), notification.getIdAbonnement(), notification.getIdSignalement(),
+                    notification.getTitre(), notification.getMessage());
+        }
+    }
+}
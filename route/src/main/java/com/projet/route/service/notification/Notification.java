@@ -0,0 +1,29 @@
+package com.projet.route.service.notification;
+
+/**
+ * Notification à remettre à un abonné, regroupée par canal avant envoi.
+ */
+public class Notification {
+    private final String canal;
+    private final String destinataire;
+    private final Long idAbonnement;
+    private final Long idSignalement;
+    private final String titre;
+    private final String message;
+
+    public Notification(String canal, String destinataire, Long idAbonnement, Long idSignalement, String titre, String message) {
+        this.canal = canal;
+        this.destinataire = destinataire;
+        this.idAbonnement = idAbonnement;
+        this.idSignalement = idSignalement;
+        this.titre = titre;
+        this.message = message;
+    }
+
+    public String getCanal() { return canal; }
+    public String getDestinataire() { return destinataire; }
+    public Long getIdAbonnement() { return idAbonnement; }
+    public Long getIdSignalement() { return idSignalement; }
+    public String getTitre() { return titre; }
+    public String getMessage() { return message; }
+}
@@ -0,0 +1,95 @@
+package com.projet.route.service.notification;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * File bornée de notifications vidée périodiquement par lots, chaque lot étant regroupé
+ * par canal et confié au {@link NotificationSender} correspondant. L'ajout ne bloque
+ * jamais : file pleine, la notification est comptée perdue.
+ */
+@Service
+public class NotificationDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    private final Map<String, NotificationSender> senders = new HashMap<>();
+    private final BlockingQueue<Notification> queue;
+    private final int batchSize;
+
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public NotificationDispatcher(List<NotificationSender> senders,
+                                  @Value("${notifications.file:10000}") int capacity,
+                                  @Value("${notifications.lot:500}") int batchSize) {
+        for (NotificationSender sender : senders) {
+            this.senders.put(sender.getCanal(), sender);
+        }
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+    }
+
+    public boolean supports(String canal) {
+        return senders.containsKey(canal);
+    }
+
+    public void enqueue(Notification notification) {
+        if (queue.offer(notification)) {
+            queued.incrementAndGet();
+        } else {
+            dropped.incrementAndGet();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.flush-ms:2000}")
+    public void flush() {
+        List<Notification> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            Map<String, List<Notification>> byCanal = new HashMap<>();
+            for (Notification notification : batch) {
+                byCanal.computeIfAbsent(notification.getCanal(), k -> new ArrayList<>()).add(notification);
+            }
+            for (Map.Entry<String, List<Notification>> entry : byCanal.entrySet()) {
+                NotificationSender sender = senders.get(entry.getKey());
+                try {
+                    if (sender == null) {
+                        throw new IllegalStateException("Aucun canal " + entry.getKey());
+                    }
+                    sender.send(entry.getValue());
+                    sent.addAndGet(entry.getValue().size());
+                } catch (Exception e) {
+                    failed.addAndGet(entry.getValue().size());
+                    logger.warn("notifications.echec canal={} nombre={} erreur={}", entry.getKey(), entry.getValue().size(), e.getMessage());
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("canaux", senders.keySet());
+        stats.put("enAttente", queue.size());
+        stats.put("misEnFile", queued.get());
+        stats.put("envoyes", sent.get());
+        stats.put("echecs", failed.get());
+        stats.put("perdus", dropped.get());
+        return stats;
+    }
+}
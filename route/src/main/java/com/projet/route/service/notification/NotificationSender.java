@@ -0,0 +1,17 @@
+package com.projet.route.service.notification;
+
+import java.util.List;
+
+/**
+ * Canal d'envoi des notifications. Chaque implémentation déclarée comme bean est
+ * sélectionnée par NotificationDispatcher selon {@link #getCanal()}.
+ */
+public interface NotificationSender {
+
+    String getCanal();
+
+    /**
+     * Envoie un lot de notifications du même canal. Une exception fait compter tout le lot en échec.
+     */
+    void send(List<Notification> notifications) throws Exception;
+}
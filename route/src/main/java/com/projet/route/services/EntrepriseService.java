@@ -2,6 +2,7 @@ package com.projet.route.services;
 
 import com.projet.route.models.Entreprise;
 import com.projet.route.repository.EntrepriseRepository;
+import com.projet.route.service.ReferenceCacheService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,6 +17,9 @@ public class EntrepriseService {
     @Autowired
     private EntrepriseRepository entrepriseRepository;
     
+    @Autowired
+    private ReferenceCacheService referenceCacheService;
+    
     public List<Entreprise> getAllEntreprises() {
         return entrepriseRepository.findAll();
     }
@@ -25,7 +29,9 @@ public class EntrepriseService {
     }
     
     public Entreprise createEntreprise(Entreprise entreprise) {
-        return entrepriseRepository.save(entreprise);
+        Entreprise saved = entrepriseRepository.save(entreprise);
+        referenceCacheService.evictEntreprise(saved.getIdEntreprise());
+        return saved;
     }
     
     public Entreprise updateEntreprise(Long id, Entreprise entrepriseDetails) {
@@ -33,12 +39,15 @@ public class EntrepriseService {
         if (optionalEntreprise.isPresent()) {
             Entreprise entreprise = optionalEntreprise.get();
             entreprise.setNom(entrepriseDetails.getNom());
-            return entrepriseRepository.save(entreprise);
+            Entreprise saved = entrepriseRepository.save(entreprise);
+            referenceCacheService.evictEntreprise(id);
+            return saved;
         }
         throw new RuntimeException("Entreprise non trouvée avec l'id: " + id);
     }
     
     public void deleteEntreprise(Long id) {
         entrepriseRepository.deleteById(id);
+        referenceCacheService.evictEntreprise(id);
     }
 }
\ No newline at end of file
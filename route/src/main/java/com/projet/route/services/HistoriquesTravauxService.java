@@ -0,0 +1,38 @@
+package com.projet.route.services;
+
+import com.projet.route.models.HistoriquesTravaux;
+import com.projet.route.repository.HistoriquesTravauxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Lectures de l'historique des travaux (liste complète, graphiques d'avancement), servies par
+ * une réplique quand replicas.urls est renseigné.
+ */
+@Service
+@Transactional(readOnly = true)
+public class HistoriquesTravauxService {
+    
+    @Autowired
+    private HistoriquesTravauxRepository historiquesTravauxRepository;
+    
+    public List<HistoriquesTravaux> getAllHistoriquesTravaux() {
+        return historiquesTravauxRepository.findAll();
+    }
+    
+    public List<HistoriquesTravaux> getHistoriqueByTravaux(Long travauxId, LocalDateTime start, LocalDateTime end) {
+        return historiquesTravauxRepository
+                .findByTravauxIdAndDateModificationBetweenOrderByDateModificationAsc(travauxId, start, end);
+    }
+    
+    /**
+     * Dernier état par période : {période, avancement, dateModification, commentaire}.
+     */
+    public List<Object[]> getDernierEtatParPeriode(Long travauxId, String unit, LocalDateTime start, LocalDateTime end) {
+        return historiquesTravauxRepository.findLastPerPeriod(travauxId, unit, start, end);
+    }
+}
@@ -2,11 +2,14 @@ package com.projet.route.services;
 
 import com.projet.route.models.Lieu;
 import com.projet.route.repository.LieuRepository;
+import com.projet.route.service.LieuSuggestIndex;
+import com.projet.route.service.ReferenceCacheService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -16,6 +19,12 @@ public class LieuService {
     @Autowired
     private LieuRepository lieuRepository;
     
+    @Autowired
+    private LieuSuggestIndex lieuSuggestIndex;
+    
+    @Autowired
+    private ReferenceCacheService referenceCacheService;
+    
     public List<Lieu> getAllLieux() {
         return lieuRepository.findAll();
     }
@@ -25,7 +34,10 @@ public class LieuService {
     }
     
     public Lieu createLieu(Lieu lieu) {
-        return lieuRepository.save(lieu);
+        Lieu saved = lieuRepository.save(lieu);
+        lieuSuggestIndex.put(saved.getIdLieux(), saved.getLibelle(), saved.getVille());
+        referenceCacheService.evictLieu(saved.getIdLieux());
+        return saved;
     }
     
     public Lieu updateLieu(Long id, Lieu lieuDetails) {
@@ -35,13 +47,22 @@ public class LieuService {
             lieu.setLibelle(lieuDetails.getLibelle());
             lieu.setVille(lieuDetails.getVille());
             lieu.setDescription(lieuDetails.getDescription());
-            return lieuRepository.save(lieu);
+            Lieu saved = lieuRepository.save(lieu);
+            lieuSuggestIndex.put(saved.getIdLieux(), saved.getLibelle(), saved.getVille());
+            referenceCacheService.evictLieu(id);
+            return saved;
         }
         throw new RuntimeException("Lieu non trouvé avec l'id: " + id);
     }
     
     public void deleteLieu(Long id) {
         lieuRepository.deleteById(id);
+        lieuSuggestIndex.remove(id);
+        referenceCacheService.evictLieu(id);
+    }
+    
+    public List<Map<String, Object>> suggest(String q, int limit) {
+        return lieuSuggestIndex.suggest(q, limit);
     }
     
     public List<Lieu> getLieuxByVille(String ville) {
@@ -3,11 +3,15 @@ package com.projet.route.services;
 import com.projet.route.models.Lieu;
 import com.projet.route.models.Signalement;
 import com.projet.route.repository.SignalementRepository;
+import com.projet.route.service.DuplicateDetectionService;
+import com.projet.route.service.ReverseGeocodingService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,23 +25,49 @@ public class SignalementService {
     @Autowired
     private LieuService lieuService;
     
+    @Autowired
+    private DuplicateDetectionService duplicateDetectionService;
+    
+    @Autowired
+    private ReverseGeocodingService reverseGeocodingService;
+    
+    // Lectures seules : servies par une réplique quand replicas.urls est renseigné
+    @Transactional(readOnly = true)
     public List<Signalement> getAllSignalements() {
         return signalementRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
     public Optional<Signalement> getSignalementById(Long id) {
         return signalementRepository.findById(id);
     }
     
+    @Transactional(readOnly = true)
+    public List<Signalement> getSignalementsByIds(Collection<Long> ids) {
+        return signalementRepository.findAllById(ids);
+    }
+    
+    /**
+     * Les {@code limite} signalements ouverts les plus récents.
+     */
+    @Transactional(readOnly = true)
+    public List<Signalement> getSignalementsOuverts(int limite) {
+        return signalementRepository.findOuverts(PageRequest.of(0, limite));
+    }
+    
     public Signalement createSignalement(Signalement signalement) {
         // Vérifier si le lieu existe
-        if (signalement.getLieu() != null && signalement.getLieu().getIdLieux() != null) {
-            Optional<Lieu> lieu = lieuService.getLieuById(signalement.getLieu().getIdLieux());
+        if (signalement.getLieux() != null && signalement.getLieux().getIdLieux() != null) {
+            Optional<Lieu> lieu = lieuService.getLieuById(signalement.getLieux().getIdLieux());
             if (lieu.isEmpty()) {
-                throw new RuntimeException("Lieu non trouvé avec l'id: " + signalement.getLieu().getIdLieux());
+                throw new RuntimeException("Lieu non trouvé avec l'id: " + signalement.getLieux().getIdLieux());
             }
         }
         
+        // Sans lieu fourni, le déduire de la position (quartiers GeoJSON)
+        reverseGeocodingService.assign(signalement);
+        // Rattacher au signalement existant le plus proche du même type, s'il y en a un
+        duplicateDetectionService.attach(signalement);
         return signalementRepository.save(signalement);
     }
     
@@ -48,7 +78,7 @@ public class SignalementService {
             signalement.setSurface(signalementDetails.getSurface());
             signalement.setLatitude(signalementDetails.getLatitude());
             signalement.setLongitude(signalementDetails.getLongitude());
-            signalement.setLieu(signalementDetails.getLieu());
+            signalement.setLieux(signalementDetails.getLieux());
             signalement.setTypeProbleme(signalementDetails.getTypeProbleme());
             signalement.setStatut(signalementDetails.getStatut());
             signalement.setDescription(signalementDetails.getDescription());
@@ -71,14 +101,17 @@ public class SignalementService {
         signalementRepository.deleteById(id);
     }
     
+    @Transactional(readOnly = true)
     public List<Signalement> getSignalementsByUser(String userId) {
         return signalementRepository.findByIdUser(userId);
     }
     
+    @Transactional(readOnly = true)
     public List<Signalement> getSignalementsByStatut(String statut) {
         return signalementRepository.findByStatut(statut);
     }
     
+    @Transactional(readOnly = true)
     public List<Signalement> getSignalementsByDateRange(LocalDateTime start, LocalDateTime end) {
         return signalementRepository.findByDateAjouteBetween(start, end);
     }
@@ -12,7 +12,8 @@ import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
-@Service
+// Nom explicite : com.projet.route.service.TravauxService occupe déjà "travauxService"
+@Service("travauxCrudService")
 @Transactional
 public class TravauxService {
     
@@ -22,10 +23,13 @@ public class TravauxService {
     @Autowired
     private SignalementService signalementService;
     
+    // Lectures seules : servies par une réplique quand replicas.urls est renseigné
+    @Transactional(readOnly = true)
     public List<Travaux> getAllTravaux() {
         return travauxRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
     public Optional<Travaux> getTravauxById(Long id) {
         return travauxRepository.findById(id);
     }
@@ -73,7 +77,7 @@ public class TravauxService {
     }
     
     public Optional<Travaux> getTravauxBySignalementId(Long signalementId) {
-        return travauxRepository.findBySignalementIdSignalement(signalementId);
+        return signalementService.getSignalementById(signalementId).flatMap(travauxRepository::findBySignalement);
     }
     
     public List<Travaux> getTravauxEnCours() {
@@ -0,0 +1,32 @@
+-- Identifiants et clés étrangères en BIGINT, comme les attributs Long des entités :
+-- spring.jpa.hibernate.ddl-auto=validate refuse une colonne INTEGER pour un Long.
+
+ALTER TABLE roles ALTER COLUMN id TYPE BIGINT;
+ALTER SEQUENCE roles_id_seq AS BIGINT;
+
+ALTER TABLE utilisateurs
+   ALTER COLUMN id_utilisateur TYPE BIGINT,
+   ALTER COLUMN id_role TYPE BIGINT;
+ALTER SEQUENCE utilisateurs_id_utilisateur_seq AS BIGINT;
+
+ALTER TABLE sessions
+   ALTER COLUMN id TYPE BIGINT,
+   ALTER COLUMN id_utilisateur TYPE BIGINT;
+ALTER SEQUENCE sessions_id_seq AS BIGINT;
+
+ALTER TABLE lieux ALTER COLUMN id_lieux TYPE BIGINT;
+ALTER SEQUENCE lieux_id_lieux_seq AS BIGINT;
+
+ALTER TABLE entreprise ALTER COLUMN id_entreprise TYPE BIGINT;
+ALTER SEQUENCE entreprise_id_entreprise_seq AS BIGINT;
+
+ALTER TABLE signalement
+   ALTER COLUMN id_signalement TYPE BIGINT,
+   ALTER COLUMN id_lieux TYPE BIGINT;
+ALTER SEQUENCE signalement_id_signalement_seq AS BIGINT;
+
+ALTER TABLE travaux
+   ALTER COLUMN id TYPE BIGINT,
+   ALTER COLUMN id_entreprise TYPE BIGINT,
+   ALTER COLUMN id_signalement TYPE BIGINT;
+ALTER SEQUENCE travaux_id_seq AS BIGINT;
@@ -0,0 +1,40 @@
+-- Journal d'avancement partitionné par mois sur date_modification.
+-- La clé primaire et les contraintes d'unicité doivent inclure la clé de partition,
+-- d'où (id, date_modification) et un index simple sur firestore_id.
+-- Les partitions mensuelles sont créées et archivées par HistoriquesPartitionService ;
+-- les lignes existantes sont recopiées dans la partition par défaut, d'où il les déplace.
+
+ALTER TABLE historiques_travaux RENAME TO historiques_travaux_ancien;
+ALTER TABLE historiques_travaux_ancien RENAME CONSTRAINT historiques_travaux_pkey TO historiques_travaux_ancien_pkey;
+ALTER TABLE historiques_travaux_ancien RENAME CONSTRAINT historiques_travaux_firestore_id_key TO historiques_travaux_ancien_firestore_id_key;
+ALTER TABLE historiques_travaux_ancien RENAME CONSTRAINT historiques_travaux_id_travaux_fkey TO historiques_travaux_ancien_id_travaux_fkey;
+
+-- La séquence historiques_travaux_id_seq est conservée : l'entité l'utilise (allocationSize = 1)
+CREATE TABLE historiques_travaux (
+   id BIGINT NOT NULL DEFAULT nextval('historiques_travaux_id_seq'),
+   id_travaux BIGINT,
+   date_modification TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+   avancement DECIMAL(5,2),
+   commentaire TEXT,
+   firestore_id VARCHAR(255), -- ID du document Firestore
+   PRIMARY KEY (id, date_modification),
+   FOREIGN KEY (id_travaux) REFERENCES travaux(id)
+) PARTITION BY RANGE (date_modification);
+
+ALTER SEQUENCE historiques_travaux_id_seq AS BIGINT OWNED BY historiques_travaux.id;
+
+CREATE TABLE historiques_travaux_default PARTITION OF historiques_travaux DEFAULT;
+
+INSERT INTO historiques_travaux (id, id_travaux, date_modification, avancement, commentaire, firestore_id)
+SELECT id, id_travaux, COALESCE(date_modification, CURRENT_TIMESTAMP), avancement, commentaire, firestore_id
+FROM historiques_travaux_ancien;
+
+DROP TABLE historiques_travaux_ancien;
+
+-- "historique d'un travaux" : parcours d'index trié par date
+CREATE INDEX idx_historiques_travaux_travaux_date ON historiques_travaux (id_travaux, date_modification);
+-- "changements dans une fenêtre" : BRIN, compact sur une colonne croissante
+CREATE INDEX idx_historiques_travaux_date_brin ON historiques_travaux USING BRIN (date_modification);
+CREATE INDEX idx_historiques_travaux_firestore ON historiques_travaux (firestore_id);
+
+CREATE SCHEMA IF NOT EXISTS archive;
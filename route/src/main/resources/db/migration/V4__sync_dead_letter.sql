@@ -0,0 +1,14 @@
+-- Documents Firestore en échec de synchronisation, rejouables via /api/sync/dead-letters/replay
+CREATE TABLE sync_dead_letter (
+   id BIGSERIAL PRIMARY KEY,
+   collection VARCHAR(50) NOT NULL,
+   document_id VARCHAR(255) NOT NULL,
+   payload TEXT,
+   erreur TEXT,
+   tentatives INT NOT NULL DEFAULT 1,
+   resolu BOOLEAN NOT NULL DEFAULT FALSE,
+   date_creation TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+   date_derniere_tentative TIMESTAMP
+);
+
+CREATE INDEX idx_sync_dead_letter_pending ON sync_dead_letter (collection, document_id) WHERE resolu = FALSE;
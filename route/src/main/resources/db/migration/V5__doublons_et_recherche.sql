@@ -0,0 +1,8 @@
+-- Doublon détecté à l'ingestion (plus proche signalement du même type) ou fusionné manuellement
+ALTER TABLE signalement ADD COLUMN id_doublon BIGINT REFERENCES signalement(Id_signalement);
+CREATE INDEX idx_signalement_doublon ON signalement (id_doublon) WHERE id_doublon IS NOT NULL;
+
+-- Recherche plein texte (/api/signalements/search) : index GIN sur l'expression utilisée
+-- par SignalementSearchService, maintenu par Postgres à chaque écriture
+CREATE INDEX idx_signalement_description_fts ON signalement
+   USING GIN (to_tsvector('french', coalesce(description, '')));
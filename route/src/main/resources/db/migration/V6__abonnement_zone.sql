@@ -0,0 +1,17 @@
+-- Abonnements à une zone (cercle ou polygone GeoJSON), notifiés à chaque signalement dans la zone.
+-- proprietaire : utilisateur authentifié qui l'a créé (e-mail), seul à pouvoir le lister ou le supprimer.
+CREATE TABLE abonnement_zone (
+   id BIGSERIAL PRIMARY KEY,
+   nom VARCHAR(100),
+   destinataire VARCHAR(255) NOT NULL, -- jeton FCM, e-mail, ...
+   proprietaire VARCHAR(255),
+   canal VARCHAR(20) NOT NULL DEFAULT 'log',
+   centre_latitude DOUBLE PRECISION,
+   centre_longitude DOUBLE PRECISION,
+   rayon DOUBLE PRECISION, -- mètres
+   polygone TEXT, -- [[lng, lat], ...]
+   actif BOOLEAN NOT NULL DEFAULT TRUE,
+   date_creation TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_abonnement_zone_proprietaire ON abonnement_zone (proprietaire);
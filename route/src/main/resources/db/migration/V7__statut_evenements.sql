@@ -0,0 +1,27 @@
+-- Journal append-only des transitions de statut (StatutEventStore) ; pas de clé étrangère :
+-- l'historique survit à la suppression du signalement
+CREATE TABLE signalement_statut_evenement (
+   id BIGSERIAL PRIMARY KEY,
+   id_signalement BIGINT NOT NULL,
+   ancien_statut VARCHAR(20), -- NULL : création
+   nouveau_statut VARCHAR(20),
+   id_lieux BIGINT,
+   acteur VARCHAR(255),
+   date_evenement TIMESTAMP NOT NULL,
+   date_enregistrement TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_statut_evenement_signalement ON signalement_statut_evenement (id_signalement, id);
+CREATE INDEX idx_statut_evenement_enregistrement_brin ON signalement_statut_evenement USING BRIN (date_enregistrement);
+
+-- Instantanés de la projection (StatutProjectionService), les plus récents seulement
+CREATE TABLE statut_projection_snapshot (
+   id SERIAL PRIMARY KEY,
+   dernier_evenement BIGINT NOT NULL,
+   date_creation TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+   contenu TEXT NOT NULL
+);
+
+-- Reprise de l'existant : un événement de création par signalement, avec son statut actuel
+INSERT INTO signalement_statut_evenement (id_signalement, ancien_statut, nouveau_statut, id_lieux, acteur, date_evenement)
+SELECT Id_signalement, NULL, statut, Id_Lieux, Id_User, date_ajoute FROM signalement ORDER BY Id_signalement;
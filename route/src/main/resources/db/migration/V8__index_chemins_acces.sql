@@ -0,0 +1,38 @@
+-- Index des chemins d'accès réels des repositories.
+-- QueryPlanCheckTest (mvn test -Pplans) exécute chaque finder sur une base migrée et peuplée
+-- et vérifie par EXPLAIN qu'aucun ne parcourt séquentiellement une grande table.
+
+-- signalement : filtres par statut, période et auteur (findByStatut, findByDateAjouteBetween, findByIdUser)
+CREATE INDEX IF NOT EXISTS idx_signalement_statut ON signalement (statut);
+CREATE INDEX IF NOT EXISTS idx_signalement_date_ajoute ON signalement (date_ajoute);
+CREATE INDEX IF NOT EXISTS idx_signalement_id_user ON signalement (Id_User);
+
+-- Signalements ouverts (SignalementRepository.findOuverts), du plus récent au plus ancien : une
+-- petite fraction de la table une fois l'historique accumulé. Statuts fermés : ceux de
+-- StatutsSignalement.FERMES
+CREATE INDEX IF NOT EXISTS idx_signalement_ouverts ON signalement (date_ajoute)
+   WHERE statut IS NULL OR statut NOT IN ('termine', 'terminé', 'résolu');
+
+-- Géocodage par lots des signalements sans lieu (SignalementRepository.findPositionsSansLieu)
+CREATE INDEX IF NOT EXISTS idx_signalement_sans_lieu ON signalement (Id_signalement) WHERE Id_Lieux IS NULL;
+
+-- travaux : clés étrangères, non indexées par Postgres
+CREATE INDEX IF NOT EXISTS idx_travaux_signalement ON travaux (id_signalement);
+CREATE INDEX IF NOT EXISTS idx_travaux_entreprise ON travaux (id_entreprise);
+
+-- Synchronisation par plages (findSyncRange, findSyncRangeHashes) : bornes comparées
+-- dans l'ordre binaire de Firestore, donc avec la collation "C" de la requête
+CREATE INDEX IF NOT EXISTS idx_signalement_firestore_c ON signalement ((firestore_id COLLATE "C"));
+CREATE INDEX IF NOT EXISTS idx_travaux_firestore_c ON travaux ((COALESCE(firestore_id, CAST(id AS text)) COLLATE "C"));
+
+-- sessions : sessions d'un utilisateur, expiration des seules sessions actives
+CREATE INDEX IF NOT EXISTS idx_sessions_utilisateur_active ON sessions (id_utilisateur, est_active);
+CREATE INDEX IF NOT EXISTS idx_sessions_actives_expiration ON sessions (date_expiration) WHERE est_active;
+CREATE INDEX IF NOT EXISTS idx_sessions_date_creation_brin ON sessions USING BRIN (date_creation);
+
+-- Lieux : LieuxRepository.findFirstByLibelleAndVille et LieuRepository.findByVille
+CREATE INDEX IF NOT EXISTS idx_lieux_ville_libelle ON Lieux (ville, libelle);
+
+-- sync_dead_letter : file des documents à rejouer, par identifiant croissant
+CREATE INDEX IF NOT EXISTS idx_sync_dead_letter_a_rejouer ON sync_dead_letter (id) WHERE resolu = FALSE;
+CREATE INDEX IF NOT EXISTS idx_sync_dead_letter_date_brin ON sync_dead_letter USING BRIN (date_creation);
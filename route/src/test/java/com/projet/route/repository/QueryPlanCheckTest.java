@@ -0,0 +1,433 @@
+package com.projet.route.repository;
+
+import com.projet.route.models.Signalement;
+import com.projet.route.service.StatutEventStore;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.SharedCacheMode;
+import org.flywaydb.core.Flyway;
+import org.hibernate.boot.model.naming.PhysicalNamingStrategySnakeCaseImpl;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.HibernatePersistenceConfiguration;
+import org.hibernate.resource.beans.container.spi.BeanContainer;
+import org.hibernate.resource.beans.container.spi.ContainedBean;
+import org.hibernate.resource.beans.spi.BeanInstanceProducer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Plans d'exécution des méthodes des repositories sur une base PostgreSQL peuplée. Les migrations
+ * Flyway sont appliquées dans un schéma jetable (supprimé à la fin), Hibernate y valide les entités
+ * (ddl-auto=validate, comme en production), puis chaque méthode de {@link #CHECKS} est appelée sur
+ * le vrai repository Spring Data : les requêtes qu'elle émet, avec leurs paramètres, sont passées à
+ * EXPLAIN. Échoue si l'une d'elles parcourt séquentiellement une grande table.
+ *
+ * Exclu du build par défaut (tag "plans"), et en échec s'il est lancé sans base :
+ * mvn test -Pplans -Dplans.url=jdbc:postgresql://localhost:5432/route -Dplans.user=postgres -Dplans.password=route
+ *
+ * {@link #everyRepositoryMethodIsCheckedOrExcluded} s'exécute sans base : toute nouvelle méthode
+ * de repository doit être ajoutée à CHECKS ou, avec sa raison, à NON_VERIFIEES.
+ */
+class QueryPlanCheckTest {
+
+    private static final String USAGE = "mvn test -Pplans -Dplans.url=jdbc:postgresql://localhost:5432/route "
+            + "-Dplans.user=postgres -Dplans.password=route";
+
+    @FunctionalInterface
+    private interface Check {
+        void run(JpaRepositoryFactory repositories, EntityManager entityManager) throws Exception;
+    }
+
+    // Appels réels, avec des valeurs représentatives des données peuplées ; exécutés dans l'ordre
+    // (deactivateExpiredSessions modifie des lignes, annulées avec la transaction)
+    private static final Map<String, Check> CHECKS = new LinkedHashMap<>();
+
+    static {
+        CHECKS.put("SignalementRepository.findByFirestoreId",
+                (r, em) -> r.getRepository(SignalementRepository.class).findByFirestoreId("fs-4242"));
+        CHECKS.put("SignalementRepository.findByIdDoublon",
+                (r, em) -> r.getRepository(SignalementRepository.class).findByIdDoublon(4199L));
+        CHECKS.put("SignalementRepository.findByIdUser",
+                (r, em) -> r.getRepository(SignalementRepository.class).findByIdUser("user-42"));
+        CHECKS.put("SignalementRepository.findByStatut",
+                (r, em) -> r.getRepository(SignalementRepository.class).findByStatut("en cours"));
+        CHECKS.put("SignalementRepository.findByDateAjouteBetween",
+                (r, em) -> r.getRepository(SignalementRepository.class)
+                        .findByDateAjouteBetween(LocalDateTime.now().minusDays(7), LocalDateTime.now()));
+        CHECKS.put("SignalementRepository.findOuverts",
+                (r, em) -> r.getRepository(SignalementRepository.class).findOuverts(PageRequest.of(0, 50)));
+        CHECKS.put("SignalementRepository.findPositionsSansLieu",
+                (r, em) -> r.getRepository(SignalementRepository.class).findPositionsSansLieu(1000L, PageRequest.of(0, 500)));
+        CHECKS.put("SignalementRepository.findSyncRange",
+                (r, em) -> r.getRepository(SignalementRepository.class).findSyncRange("fs-4242", "fs-4243"));
+        CHECKS.put("StatutEventStore.history", (r, em) -> em.unwrap(org.hibernate.Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(StatutEventStore.HISTORY_SQL)) {
+                statement.setLong(1, 4242L);
+                statement.executeQuery().close();
+            }
+        }));
+        CHECKS.put("TravauxRepository.findByFirestoreId",
+                (r, em) -> r.getRepository(TravauxRepository.class).findByFirestoreId("ft-4242"));
+        CHECKS.put("TravauxRepository.findBySignalement",
+                (r, em) -> r.getRepository(TravauxRepository.class).findBySignalement(em.getReference(Signalement.class, 4242L)));
+        CHECKS.put("TravauxRepository.findByFirestoreIdIn",
+                (r, em) -> r.getRepository(TravauxRepository.class).findByFirestoreIdIn(List.of("ft-1", "ft-2", "ft-3")));
+        CHECKS.put("TravauxRepository.findBySignalementIdSignalementIn",
+                (r, em) -> r.getRepository(TravauxRepository.class).findBySignalementIdSignalementIn(List.of(3L, 6L, 9L, 12L)));
+        CHECKS.put("TravauxRepository.findSyncRange",
+                (r, em) -> r.getRepository(TravauxRepository.class).findSyncRange("ft-4242", "ft-4243"));
+        CHECKS.put("HistoriquesTravauxRepository.findByFirestoreId",
+                (r, em) -> r.getRepository(HistoriquesTravauxRepository.class).findByFirestoreId("fh-4242"));
+        CHECKS.put("HistoriquesTravauxRepository.findFirstById",
+                (r, em) -> r.getRepository(HistoriquesTravauxRepository.class).findFirstById(150000L));
+        CHECKS.put("HistoriquesTravauxRepository.findByTravauxIdAndDateModificationBetweenOrderByDateModificationAsc",
+                (r, em) -> r.getRepository(HistoriquesTravauxRepository.class)
+                        .findByTravauxIdAndDateModificationBetweenOrderByDateModificationAsc(
+                                42L, LocalDateTime.now().minusDays(90), LocalDateTime.now()));
+        CHECKS.put("HistoriquesTravauxRepository.findLastPerPeriod",
+                (r, em) -> r.getRepository(HistoriquesTravauxRepository.class)
+                        .findLastPerPeriod(42L, "week", LocalDateTime.now().minusYears(1), LocalDateTime.now()));
+        CHECKS.put("SessionRepository.findByTokenAndEstActiveTrue",
+                (r, em) -> r.getRepository(SessionRepository.class).findByTokenAndEstActiveTrue("tok-99500"));
+        CHECKS.put("SessionRepository.findByUtilisateurIdUtilisateurAndEstActiveTrue",
+                (r, em) -> r.getRepository(SessionRepository.class).findByUtilisateurIdUtilisateurAndEstActiveTrue(17L));
+        CHECKS.put("SessionRepository.findByDateExpirationBeforeAndEstActiveTrue",
+                (r, em) -> r.getRepository(SessionRepository.class).findByDateExpirationBeforeAndEstActiveTrue(LocalDateTime.now()));
+        CHECKS.put("SessionRepository.deactivateExpiredSessions",
+                (r, em) -> r.getRepository(SessionRepository.class).deactivateExpiredSessions(LocalDateTime.now()));
+        CHECKS.put("UtilisateurRepository.findByEmail",
+                (r, em) -> r.getRepository(UtilisateurRepository.class).findByEmail("user42@test.mg"));
+        CHECKS.put("LieuxRepository.findFirstByLibelleAndVille",
+                (r, em) -> r.getRepository(LieuxRepository.class).findFirstByLibelleAndVille("Lieu 42", "Ville 42"));
+        CHECKS.put("LieuRepository.findByVille",
+                (r, em) -> r.getRepository(LieuRepository.class).findByVille("Ville 42"));
+        CHECKS.put("SyncDeadLetterRepository.findFirstByCollectionAndDocumentIdAndResoluFalse",
+                (r, em) -> r.getRepository(SyncDeadLetterRepository.class)
+                        .findFirstByCollectionAndDocumentIdAndResoluFalse("signalements", "doc-4200"));
+        CHECKS.put("SyncDeadLetterRepository.findByResoluFalseOrderByIdAsc",
+                (r, em) -> r.getRepository(SyncDeadLetterRepository.class).findByResoluFalseOrderByIdAsc(PageRequest.of(0, 100)));
+        CHECKS.put("SyncDeadLetterRepository.countByResoluFalse",
+                (r, em) -> r.getRepository(SyncDeadLetterRepository.class).countByResoluFalse());
+        CHECKS.put("AbonnementZoneRepository.findByProprietaire",
+                (r, em) -> r.getRepository(AbonnementZoneRepository.class).findByProprietaire("user-42@example.com"));
+    }
+
+    // Non vérifiées, volontairement
+    private static final Set<String> NON_VERIFIEES = Set.of(
+            // Projections et agrégats complets : parcours séquentiel attendu
+            "SignalementRepository.findSyncRangeHashes",
+            "SignalementRepository.findPositions",
+            "SignalementRepository.findHeatmapProjection",
+            "SignalementRepository.findPriorityProjection",
+            "SignalementRepository.findReadModelProjection",
+            "TravauxRepository.findSyncRangeHashes",
+            "TravauxRepository.aggregateByEntreprise",
+            "TravauxRepository.findAnalyticsProjection",
+            "TravauxRepository.findScheduleProjection",
+            "TravauxRepository.findSignalementIds",
+            "TravauxRepository.findReadModelProjection",
+            // Travaux en cours : la majorité de la table, parcours séquentiel attendu
+            "TravauxRepository.findByAvancementLessThan",
+            // Toutes les zones actives, chargées au démarrage
+            "AbonnementZoneRepository.findByActifTrue",
+            // Petites tables de référence, servies par le cache de second niveau
+            "EntrepriseRepository.findAll",
+            "LieuRepository.findAll",
+            "ParametreAuthRepository.findAll",
+            "ParametreAuthRepository.findByCle",
+            "RoleRepository.findByNom",
+            // Motif '%...%' : aucun index B-tree ne s'applique
+            "LieuRepository.findByLibelleContainingIgnoreCase");
+
+    // Volumes d'une base de production de quelques années : une minorité de signalements ouverts,
+    // peu de sessions actives, peu de documents en échec
+    private static final String[] SEED = {
+            "INSERT INTO Lieux (libelle, ville) SELECT 'Lieu ' || g, 'Ville ' || (g % 200) FROM generate_series(1, 5000) g",
+            "INSERT INTO utilisateurs (id_role, nom_utilisateur, email, mot_de_passe) "
+                    + "SELECT 1, 'user' || g, 'user' || g || '@test.mg', 'x' FROM generate_series(1, 2000) g",
+            "INSERT INTO signalement (surface, latitude, longitude, date_ajoute, Id_Lieux, Id_User, type_probleme, statut, "
+                    + "description, firestore_id) "
+                    + "SELECT random() * 50, -18.9 + random() * 0.2, 47.5 + random() * 0.2, "
+                    + "now() - (60000 - g) * interval '30 minutes', "
+                    + "CASE WHEN g % 10 = 0 THEN NULL ELSE 1 + g % 5000 END, 'user-' || (g % 2000), "
+                    + "(ARRAY['nid-de-poule', 'route-inondee', 'route-endommagee'])[1 + g % 3], "
+                    + "CASE g % 100 WHEN 0 THEN 'nouveau' WHEN 1 THEN 'nouveau' WHEN 2 THEN 'nouveau' "
+                    + "WHEN 3 THEN 'en cours' WHEN 4 THEN 'en cours' WHEN 5 THEN 'non traité' ELSE 'termine' END, "
+                    + "'Route abîmée près du point ' || g, 'fs-' || g FROM generate_series(1, 60000) g",
+            "UPDATE signalement SET id_doublon = Id_signalement - 1 WHERE Id_signalement % 100 = 0",
+            "INSERT INTO signalement_statut_evenement (id_signalement, ancien_statut, nouveau_statut, id_lieux, acteur, date_evenement) "
+                    + "SELECT Id_signalement, NULL, statut, Id_Lieux, Id_User, date_ajoute FROM signalement",
+            "INSERT INTO travaux (id_entreprise, id_signalement, budget, date_debut_travaux, date_fin_travaux, avancement, firestore_id) "
+                    + "SELECT 1 + g % 8, 3 * g, 1000 + g, current_date - g % 700, current_date - g % 700 + 60, "
+                    + "(ARRAY[0, 50, 100])[1 + g % 3], 'ft-' || g FROM generate_series(1, 20000) g",
+            "INSERT INTO historiques_travaux (id_travaux, date_modification, avancement, commentaire, firestore_id) "
+                    + "SELECT 1 + g % 20000, now() - (200000 - g) * interval '5 minutes', g % 101, 'Avancement', 'fh-' || g "
+                    + "FROM generate_series(1, 200000) g",
+            "INSERT INTO sessions (id_utilisateur, token, date_creation, date_expiration, est_active) "
+                    + "SELECT 2 + g % 2000, 'tok-' || g, now() - (100000 - g) * interval '10 minutes', "
+                    + "now() - (100000 - g) * interval '10 minutes' + interval '1 hour', g > 99000 "
+                    + "FROM generate_series(1, 100000) g",
+            "INSERT INTO sync_dead_letter (collection, document_id, erreur, resolu, date_creation) "
+                    + "SELECT 'signalements', 'doc-' || g, 'erreur', g % 100 <> 0, now() - (20000 - g) * interval '1 hour' "
+                    + "FROM generate_series(1, 20000) g",
+            "INSERT INTO abonnement_zone (nom, destinataire, proprietaire, centre_latitude, centre_longitude, rayon) "
+                    + "SELECT 'Zone ' || g, 'dest-' || g, 'user-' || g || '@example.com', -18.9, 47.5, 500 FROM generate_series(1, 5000) g"
+    };
+
+    // Grandes tables : un parcours séquentiel y est une erreur (pas sur entreprise, roles...)
+    private static final List<String> TABLES = List.of("lieux", "utilisateurs", "signalement", "signalement_statut_evenement",
+            "travaux", "historiques_travaux", "sessions", "sync_dead_letter", "abonnement_zone");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @Tag("plans")
+    void repositoryQueriesUseIndexes() throws Exception {
+        String url = System.getProperty("plans.url");
+        assertTrue(url != null && !url.isBlank(), "plans.url non renseigné, une base PostgreSQL est nécessaire : " + USAGE);
+        String user = System.getProperty("plans.user", "postgres");
+        String password = System.getProperty("plans.password", "");
+        String schema = "plans_" + System.currentTimeMillis();
+
+        Flyway.configure().dataSource(url, user, password).schemas(schema).createSchemas(true).load().migrate();
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            try {
+                try (Statement statement = connection.createStatement()) {
+                    // Requêtes natives non qualifiées : résolues dans le schéma jetable
+                    statement.execute("SET search_path TO " + schema);
+                    for (String sql : SEED) {
+                        statement.execute(sql);
+                    }
+                    for (String table : TABLES) {
+                        statement.execute("ANALYZE " + table);
+                    }
+                }
+                List<String> echecs = checkAll(connection, schema);
+                assertTrue(echecs.isEmpty(), echecs.size() + " requête(s) sans index :\n" + String.join("\n", echecs));
+            } finally {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("DROP SCHEMA " + schema + " CASCADE");
+                }
+            }
+        }
+    }
+
+    @Test
+    void everyRepositoryMethodIsCheckedOrExcluded() throws Exception {
+        Set<String> declared = new TreeSet<>();
+        for (Class<?> repository : classes("com.projet.route.repository", Class::isInterface)) {
+            for (Method method : repository.getDeclaredMethods()) {
+                declared.add(repository.getSimpleName() + "." + method.getName());
+            }
+        }
+        List<String> oubliees = declared.stream()
+                .filter(name -> !CHECKS.containsKey(name) && !NON_VERIFIEES.contains(name))
+                .toList();
+        assertTrue(oubliees.isEmpty(), "Méthodes de repository à ajouter à CHECKS ou NON_VERIFIEES : " + oubliees);
+
+        List<String> inconnues = Stream.concat(CHECKS.keySet().stream(), NON_VERIFIEES.stream())
+                .filter(name -> !name.startsWith("StatutEventStore.") && !declared.contains(name))
+                .toList();
+        assertTrue(inconnues.isEmpty(), "Méthodes inexistantes dans CHECKS ou NON_VERIFIEES : " + inconnues);
+    }
+
+    private List<String> checkAll(Connection connection, String schema) throws Exception {
+        List<Executed> executed = new ArrayList<>();
+        List<String> echecs = new ArrayList<>();
+        try (EntityManagerFactory factory = new HibernatePersistenceConfiguration("plans")
+                .managedClasses(classes("com.projet.route.models", type -> type.isAnnotationPresent(Entity.class)))
+                .sharedCacheMode(SharedCacheMode.NONE)
+                .property(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, new SingleConnectionDataSource(recording(connection, executed), true))
+                .property(AvailableSettings.DEFAULT_SCHEMA, schema)
+                .property(AvailableSettings.HBM2DDL_AUTO, "validate")
+                .property(AvailableSettings.PHYSICAL_NAMING_STRATEGY, PhysicalNamingStrategySnakeCaseImpl.class.getName())
+                .property(AvailableSettings.IMPLICIT_NAMING_STRATEGY, SpringImplicitNamingStrategy.class.getName())
+                .property(AvailableSettings.USE_SECOND_LEVEL_CACHE, false)
+                .property(AvailableSettings.BEAN_CONTAINER, new ListenerContainer())
+                .createEntityManagerFactory();
+             EntityManager entityManager = factory.createEntityManager()) {
+            JpaRepositoryFactory repositories = new JpaRepositoryFactory(entityManager);
+            entityManager.getTransaction().begin();
+            try {
+                for (Map.Entry<String, Check> check : CHECKS.entrySet()) {
+                    executed.clear();
+                    try {
+                        check.getValue().run(repositories, entityManager);
+                    } catch (Exception e) {
+                        throw new AssertionError(check.getKey() + " en échec", e);
+                    }
+                    for (Executed statement : executed) {
+                        List<String> parcours = new ArrayList<>();
+                        seqScans(objectMapper.readTree(explain(connection, statement, "(FORMAT JSON) ")).get(0).get("Plan"), parcours);
+                        if (!parcours.isEmpty()) {
+                            echecs.add(check.getKey() + " : parcours séquentiel de " + parcours + "\n" + statement.sql + "\n"
+                                    + explain(connection, statement, ""));
+                        }
+                    }
+                    entityManager.clear();
+                }
+            } finally {
+                entityManager.getTransaction().rollback();
+            }
+        }
+        return echecs;
+    }
+
+    // Requête préparée et appels set*(index, valeur...) qui l'ont paramétrée
+    private static final class Executed {
+        private final String sql;
+        private final List<Method> setters = new ArrayList<>();
+        private final List<Object[]> arguments = new ArrayList<>();
+
+        private Executed(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    // Connexion qui note chaque requête préparée et ses paramètres, puis délègue
+    private static Connection recording(Connection connection, List<Executed> executed) {
+        return (Connection) Proxy.newProxyInstance(QueryPlanCheckTest.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(method, connection, args);
+                    if (!(result instanceof PreparedStatement statement) || !method.getName().startsWith("prepare")) {
+                        return result;
+                    }
+                    Executed query = new Executed((String) args[0]);
+                    executed.add(query);
+                    return Proxy.newProxyInstance(QueryPlanCheckTest.class.getClassLoader(), new Class<?>[]{method.getReturnType()},
+                            (statementProxy, setter, values) -> {
+                                if (setter.getName().startsWith("set") && values != null && values.length >= 2
+                                        && values[0] instanceof Integer) {
+                                    query.setters.add(setter);
+                                    query.arguments.add(values);
+                                }
+                                return invoke(setter, statement, values);
+                            });
+                });
+    }
+
+    private static String explain(Connection connection, Executed executed, String options) throws Exception {
+        StringBuilder plan = new StringBuilder();
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + options + executed.sql)) {
+            for (int i = 0; i < executed.setters.size(); i++) {
+                invoke(executed.setters.get(i), statement, executed.arguments.get(i));
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+        }
+        return plan.toString();
+    }
+
+    private void seqScans(JsonNode node, List<String> relations) {
+        String relation = node.path("Relation Name").asString();
+        // Les partitions de historiques_travaux (_default, mensuelles) comptent comme la table
+        if ("Seq Scan".equals(node.path("Node Type").asString())
+                && (TABLES.contains(relation) || relation.startsWith("historiques_travaux_"))) {
+            relations.add(relation);
+        }
+        JsonNode plans = node.path("Plans");
+        for (int i = 0; i < plans.size(); i++) {
+            seqScans(plans.get(i), relations);
+        }
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Exception {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static List<Class<?>> classes(String packageName, Predicate<Class<?>> filter) throws Exception {
+        List<Class<?>> classes = new ArrayList<>();
+        for (Resource resource : new PathMatchingResourcePatternResolver()
+                .getResources("classpath*:" + packageName.replace('.', '/') + "/*.class")) {
+            String name = resource.getFilename().replace(".class", "");
+            if (!name.contains("$")) {
+                Class<?> type = Class.forName(packageName + "." + name);
+                if (filter.test(type)) {
+                    classes.add(type);
+                }
+            }
+        }
+        return classes;
+    }
+
+    // Listeners d'entités instanciés sans Spring : leurs dépendances (index en mémoire) restent nulles,
+    // seul @PostLoad est déclenché par des lectures
+    private static final class ListenerContainer implements BeanContainer {
+
+        @Override
+        public <B> ContainedBean<B> getBean(Class<B> beanType, LifecycleOptions options, BeanInstanceProducer fallback) {
+            B instance = instantiate(beanType);
+            return new ContainedBean<>() {
+                @Override
+                public Class<B> getBeanClass() {
+                    return beanType;
+                }
+
+                @Override
+                public B getBeanInstance() {
+                    return instance;
+                }
+            };
+        }
+
+        @Override
+        public <B> ContainedBean<B> getBean(String name, Class<B> beanType, LifecycleOptions options, BeanInstanceProducer fallback) {
+            return getBean(beanType, options, fallback);
+        }
+
+        @Override
+        public void stop() {
+        }
+
+        private static <B> B instantiate(Class<B> type) {
+            try {
+                Constructor<?> constructor = type.getDeclaredConstructors()[0];
+                constructor.setAccessible(true);
+                return type.cast(constructor.newInstance(new Object[constructor.getParameterCount()]));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Instanciation impossible : " + type.getName(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.projet.route.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DownsamplingTest {
+
+    @Test
+    void gardeLesExtremitesEtLeNombreDePoints() {
+        double[][] serie = serie(1_000, 7L);
+        int[] indices = Downsampling.lttb(serie[0], serie[1], 50);
+
+        assertEquals(50, indices.length);
+        assertEquals(0, indices[0]);
+        assertEquals(999, indices[indices.length - 1]);
+    }
+
+    @Test
+    void indicesStrictementCroissants() {
+        double[][] serie = serie(777, 11L);
+        for (int threshold = 3; threshold <= 200; threshold += 17) {
+            int[] indices = Downsampling.lttb(serie[0], serie[1], threshold);
+            for (int i = 1; i < indices.length; i++) {
+                assertTrue(indices[i] > indices[i - 1], "threshold=" + threshold + " i=" + i);
+            }
+        }
+    }
+
+    @Test
+    void abscissesMonotonesApresSelection() {
+        double[][] serie = serie(500, 3L);
+        int[] indices = Downsampling.lttb(serie[0], serie[1], 40);
+        for (int i = 1; i < indices.length; i++) {
+            assertTrue(serie[0][indices[i]] > serie[0][indices[i - 1]]);
+        }
+    }
+
+    @Test
+    void retientLePic() {
+        double[] x = new double[100];
+        double[] y = new double[100];
+        for (int i = 0; i < 100; i++) {
+            x[i] = i;
+        }
+        y[42] = 100;
+        int[] indices = Downsampling.lttb(x, y, 10);
+        assertTrue(Arrays.stream(indices).anyMatch(i -> i == 42));
+    }
+
+    @Test
+    void serieCourteRenvoyeeTelleQuelle() {
+        double[] x = {1, 2, 3, 4};
+        double[] y = {0, 5, 2, 9};
+        assertArrayEquals(new int[]{0, 1, 2, 3}, Downsampling.lttb(x, y, 10));
+        assertArrayEquals(new int[]{0, 1, 2, 3}, Downsampling.lttb(x, y, 4));
+        assertArrayEquals(new int[0], Downsampling.lttb(new double[0], new double[0], 10));
+    }
+
+    @Test
+    void seuilInferieurATroisGardeLesExtremites() {
+        double[][] serie = serie(20, 5L);
+        assertArrayEquals(new int[]{0, 19}, Downsampling.lttb(serie[0], serie[1], 2));
+        assertArrayEquals(new int[]{0, 19}, Downsampling.lttb(serie[0], serie[1], 0));
+    }
+
+    @Test
+    void selectSuitLesIndices() {
+        assertEquals(List.of("a", "c", "d"), Downsampling.select(List.of("a", "b", "c", "d"), new int[]{0, 2, 3}));
+    }
+
+    // Abscisses croissantes à pas irrégulier, ordonnées aléatoires
+    private static double[][] serie(int n, long seed) {
+        Random random = new Random(seed);
+        double[] x = new double[n];
+        double[] y = new double[n];
+        double t = 0;
+        for (int i = 0; i < n; i++) {
+            t += 1 + random.nextInt(3600);
+            x[i] = t;
+            y[i] = random.nextDouble() * 100;
+        }
+        return new double[][]{x, y};
+    }
+}
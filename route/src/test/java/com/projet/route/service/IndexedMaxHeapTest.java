@@ -0,0 +1,101 @@
+package com.projet.route.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndexedMaxHeapTest {
+
+    @Test
+    void topDansLOrdreDecroissant() {
+        IndexedMaxHeap heap = new IndexedMaxHeap();
+        heap.put(1, 3);
+        heap.put(2, 9);
+        heap.put(3, 1);
+        heap.put(4, 7);
+        heap.put(5, 5);
+
+        assertArrayEquals(new long[]{2, 4, 5}, heap.top(3));
+        assertArrayEquals(new long[]{2, 4, 5, 1, 3}, heap.top(10));
+        assertArrayEquals(new long[0], heap.top(0));
+        // top ne modifie pas le tas
+        assertEquals(5, heap.size());
+    }
+
+    @Test
+    void miseAJourDuScoreDansLesDeuxSens() {
+        IndexedMaxHeap heap = new IndexedMaxHeap();
+        for (long id = 1; id <= 5; id++) {
+            heap.put(id, id);
+        }
+        heap.put(1, 10);
+        assertArrayEquals(new long[]{1, 5, 4}, heap.top(3));
+        heap.put(1, 0);
+        assertArrayEquals(new long[]{5, 4, 3, 2, 1}, heap.top(5));
+        assertEquals(0, heap.score(1));
+        assertEquals(5, heap.size());
+    }
+
+    @Test
+    void retraitRacineFeuilleEtAbsent() {
+        IndexedMaxHeap heap = new IndexedMaxHeap();
+        for (long id = 1; id <= 6; id++) {
+            heap.put(id, id * 10);
+        }
+        heap.remove(6);
+        heap.remove(1);
+        heap.remove(42);
+
+        assertEquals(4, heap.size());
+        assertFalse(heap.contains(6));
+        assertFalse(heap.contains(1));
+        assertTrue(Double.isNaN(heap.score(6)));
+        assertArrayEquals(new long[]{5, 4, 3, 2}, heap.top(4));
+    }
+
+    @Test
+    void rescoreAllReordonne() {
+        IndexedMaxHeap heap = new IndexedMaxHeap();
+        for (long id = 1; id <= 20; id++) {
+            heap.put(id, id);
+        }
+        heap.rescoreAll(id -> -id);
+        assertArrayEquals(new long[]{1, 2, 3}, heap.top(3));
+    }
+
+    @Test
+    void conformeAUneReferenceSurOperationsAleatoires() {
+        IndexedMaxHeap heap = new IndexedMaxHeap();
+        Map<Long, Double> reference = new HashMap<>();
+        Random random = new Random(17L);
+        for (int step = 0; step < 5_000; step++) {
+            long id = random.nextInt(300);
+            if (random.nextInt(4) == 0) {
+                heap.remove(id);
+                reference.remove(id);
+            } else {
+                // Scores entiers distincts par identifiant : ordre attendu sans ex aequo
+                double score = random.nextInt(1_000_000) * 1000.0 + id;
+                heap.put(id, score);
+                reference.put(id, score);
+            }
+        }
+
+        assertEquals(reference.size(), heap.size());
+        long[] expected = reference.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder()))
+                .limit(50)
+                .mapToLong(Map.Entry::getKey)
+                .toArray();
+        assertArrayEquals(expected, heap.top(50));
+        reference.forEach((id, score) -> assertEquals(score, heap.score(id)));
+    }
+}
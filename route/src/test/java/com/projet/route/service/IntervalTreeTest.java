@@ -0,0 +1,83 @@
+package com.projet.route.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntervalTreeTest {
+
+    @Test
+    void chevauchementBornesIncluses() {
+        IntervalTree<Long> tree = new IntervalTree<>();
+        tree.insert(10, 20, 1, 1L);
+        tree.insert(21, 30, 2, 2L);
+        tree.insert(5, 9, 3, 3L);
+
+        assertEquals(Set.of(1L), new HashSet<>(tree.overlapping(20, 20)));
+        assertEquals(Set.of(1L, 2L), new HashSet<>(tree.overlapping(20, 21)));
+        assertEquals(Set.of(3L, 1L), new HashSet<>(tree.overlapping(0, 10)));
+        assertTrue(tree.overlapping(31, 40).isEmpty());
+    }
+
+    @Test
+    void debutsEgauxDepartagesParIdentifiant() {
+        IntervalTree<Long> tree = new IntervalTree<>();
+        tree.insert(10, 12, 1, 1L);
+        tree.insert(10, 50, 2, 2L);
+        assertEquals(2, tree.size());
+
+        assertTrue(tree.remove(10, 1));
+        assertEquals(List.of(2L), tree.overlapping(40, 45));
+        assertFalse(tree.remove(10, 1));
+        assertEquals(1, tree.size());
+    }
+
+    @Test
+    void intervalleInverseRefuse() {
+        IntervalTree<Long> tree = new IntervalTree<>();
+        assertThrows(IllegalArgumentException.class, () -> tree.insert(5, 4, 1, 1L));
+    }
+
+    @Test
+    void conformeAUnParcoursLineaire() {
+        Random random = new Random(17);
+        IntervalTree<Long> tree = new IntervalTree<>();
+        List<long[]> intervals = new ArrayList<>();
+        for (long id = 0; id < 2_000; id++) {
+            long start = random.nextInt(10_000);
+            long end = start + random.nextInt(300);
+            tree.insert(start, end, id, id);
+            intervals.add(new long[]{start, end, id});
+        }
+        // Suppression d'un tiers, pour vérifier la mise à jour des maxima de sous-arbres
+        for (int i = 0; i < intervals.size(); i += 3) {
+            long[] removed = intervals.set(i, null);
+            assertTrue(tree.remove(removed[0], removed[2]));
+        }
+        intervals.removeIf(interval -> interval == null);
+        assertEquals(intervals.size(), tree.size());
+
+        for (int q = 0; q < 200; q++) {
+            long from = random.nextInt(10_500);
+            long to = from + random.nextInt(500);
+            Set<Long> expected = new HashSet<>();
+            for (long[] interval : intervals) {
+                if (interval[0] <= to && interval[1] >= from) {
+                    expected.add(interval[2]);
+                }
+            }
+            List<Long> found = tree.overlapping(from, to);
+            assertEquals(expected.size(), found.size());
+            assertEquals(expected, new HashSet<>(found));
+        }
+    }
+}
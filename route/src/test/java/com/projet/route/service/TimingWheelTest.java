@@ -0,0 +1,72 @@
+package com.projet.route.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    @Test
+    void echeanceRenduePileLeJourPrevu() {
+        TimingWheel wheel = new TimingWheel(8, 100);
+        wheel.schedule(1, 103);
+
+        assertTrue(wheel.advanceTo(102).isEmpty());
+        assertEquals(List.of(1L), wheel.advanceTo(103));
+        assertTrue(wheel.advanceTo(120).isEmpty());
+        assertEquals(120, wheel.getCurrentDay());
+    }
+
+    @Test
+    void debordementAuDelaDUnTour() {
+        TimingWheel wheel = new TimingWheel(8, 0);
+        wheel.schedule(1, 5);
+        wheel.schedule(2, 13);
+        wheel.schedule(3, 30);
+
+        assertEquals(List.of(1L), wheel.advanceTo(5));
+        // 13 % 8 == 5 : la case du jour 5 ne doit pas avoir rendu l'échéance du jour 13
+        assertTrue(wheel.advanceTo(12).isEmpty());
+        assertEquals(List.of(2L), wheel.advanceTo(13));
+        assertTrue(wheel.advanceTo(29).isEmpty());
+        assertEquals(List.of(3L), wheel.advanceTo(30));
+    }
+
+    @Test
+    void annulationEtReplanification() {
+        TimingWheel wheel = new TimingWheel(16, 0);
+        wheel.schedule(1, 4);
+        wheel.schedule(2, 40);
+        wheel.cancel(2);
+        // Replanifier remplace l'échéance précédente
+        wheel.schedule(1, 9);
+
+        assertTrue(wheel.advanceTo(8).isEmpty());
+        assertEquals(List.of(1L), wheel.advanceTo(9));
+        assertTrue(wheel.advanceTo(60).isEmpty());
+    }
+
+    @Test
+    void echeancePasseeIgnoree() {
+        TimingWheel wheel = new TimingWheel(8, 50);
+        wheel.schedule(1, 50);
+        wheel.schedule(2, 10);
+        assertTrue(wheel.advanceTo(100).isEmpty());
+    }
+
+    @Test
+    void avanceeDePlusieursToursEnUneFois() {
+        TimingWheel wheel = new TimingWheel(4, 0);
+        Set<Long> expected = new HashSet<>();
+        for (long id = 1; id <= 20; id++) {
+            wheel.schedule(id, id * 3);
+            expected.add(id);
+        }
+        assertEquals(expected, new HashSet<>(wheel.advanceTo(60)));
+    }
+}